@@ -10,19 +10,32 @@ import javax.swing.SwingUtilities;
 import java.awt.event.KeyEvent;
 import java.awt.event.ActionEvent;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.file.Path;
+
 import minesweeper.view.GridView;
 import minesweeper.view.GameView;
 import minesweeper.view.GameSettings;
-import minesweeper.model.Grid;
-import minesweeper.model.RevealOnlyGrid;
+import minesweeper.model.BoardPool;
 import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.replay.MoveRecorder;
 import minesweeper.controller.GameController;
+import minesweeper.controller.ModelThread;
 
 /**
  * The application.
  */
 public class App {
 
+    // The number of layouts kept ready by settings
+    private static final int POOL_CAPACITY = 4;
+
+    // The number of recently used settings whose layouts are kept ready
+    private static final int POOL_SETTINGS = 4;
+
     // The frame of the GUI
     private final JFrame frame;
 
@@ -38,6 +51,12 @@ public class App {
     // The game settings
     private GameSettings settings;
 
+    // The pool of layouts of the new games
+    private final BoardPool pool;
+
+    // Records the moves of the games, or null
+    private final MoveRecorder recorder;
+
     /**
      * Class constructor that initializes the GUI.
      */
@@ -65,14 +84,25 @@ public class App {
         frame.getContentPane().add(gameView);
 
         // The model
-        model = new Game();
-        model.add(gameView);
-
-        // The controller
-        gameController = new GameController(model, this);
+        pool = new BoardPool(BoardPool.RANDOM, POOL_CAPACITY,
+                POOL_SETTINGS, System.nanoTime());
+        recorder = openRecorder();
+        model = newGame(new BoardPool.Settings(Game.DEFAULT_WIDTH,
+                Game.DEFAULT_HEIGHT, Game.DEFAULT_MINES));
+
+        // The controller, whose model is played on a thread of its own
+        ModelThread modelThread = new ModelThread(model, gameView::publish,
+                recorder);
+        Runtime.getRuntime().addShutdownHook(new Thread(modelThread::close));
+        gameController = new GameController(modelThread, this);
         GridView gridView = gameView.gridView();
         gridView.addMouseListener(gameController);
         gridView.addMouseMotionListener(gameController);
+        if (Boolean.getBoolean("minesweeper.latency")) {
+            GameController controller = gameController;
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                        System.out.println(controller.latencies().summary())));
+        }
 
         // The game settings
         settings = new GameSettings();
@@ -88,13 +118,35 @@ public class App {
     private void askGameParameters() {
         this.settings.setVisible(true);
         if (!this.settings.canceled()) {
-            model = new Game(
-              new Grid(settings.width(), settings.height(), settings.mines()));
-            model.add(gameView);
+            model = newGame(new BoardPool.Settings(settings.width(),
+                    settings.height(), settings.mines()));
             gameController.setModel(model);
         }
     }
 
+    // Returns a new game of the given settings, from the pool unless the
+    // games are recorded: the layouts of the pool are not drawn from the
+    // seed of their grid, which the recording needs to replay them
+    private Game newGame(BoardPool.Settings settings) {
+        if (this.recorder == null)
+            return this.pool.take(settings);
+        return new Game(new Grid(settings.width(), settings.height(),
+                settings.mines()));
+    }
+
+    // Opens the recorder of the log named by the system property
+    // minesweeper.record, or returns null if it is not set
+    private static MoveRecorder openRecorder() {
+        String log = System.getProperty("minesweeper.record");
+        if (log == null)
+            return null;
+        try {
+            return new MoveRecorder(Path.of(log));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Entry point that starts the GUI.
      * @param args the arguments provided to the application
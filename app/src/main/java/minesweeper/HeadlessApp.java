@@ -0,0 +1,211 @@
+package minesweeper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import minesweeper.model.Game;
+import minesweeper.model.GameState;
+import minesweeper.model.Move;
+import minesweeper.model.MoveResult;
+import minesweeper.model.Position;
+import minesweeper.replay.MoveRecorder;
+
+/**
+ * The application without GUI. It plays games of minesweeper at full speed,
+ * either from a script or at random, and prints a summary of the games.
+ *
+ * <pre>
+ * HeadlessApp [-w width] [-h height] [-m mines] [-s seed] [-n games]
+ *             [-r log] [script]
+ * </pre>
+ *
+ * A script holds one batch of moves per line, separated by ";", each move
+ * being "r", "f" or "c" for a reveal, a flag or a chord followed by the line
+ * and the column of the cell. The moves of a line are applied together by
+ * Game.applyBatch(). Empty lines and lines starting with "#" are ignored.
+ * Without script, each game reveals its hidden cells in a random order until
+ * it ends. The games are reproducible from the seed. With -r, the moves of
+ * the games are appended to the given move log, with the time at which they
+ * were played.
+ */
+public final class HeadlessApp {
+
+    // The width of the grids.
+    private int width = Game.DEFAULT_WIDTH;
+
+    // The height of the grids.
+    private int height = Game.DEFAULT_HEIGHT;
+
+    // The number of mines of the grids.
+    private int mines = Game.DEFAULT_MINES;
+
+    // The seed of the games.
+    private long seed = new SplittableRandom().nextLong();
+
+    // The number of random games to play.
+    private int games = 1;
+
+    // The script to play, null to play at random.
+    private Path script;
+
+    // The move log to append the games to, null to not record them.
+    private Path log;
+
+    // Records the games in the log, or null.
+    private MoveRecorder recorder;
+
+    // Not instantiable outside of main.
+    private HeadlessApp() {
+    }
+
+    // Parses the arguments of the command line
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("-")) {
+                this.script = Path.of(arg);
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(
+                  String.format("Missing value of option: %s", arg));
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "-w" -> this.width = Integer.parseInt(value);
+                case "-h" -> this.height = Integer.parseInt(value);
+                case "-m" -> this.mines = Integer.parseInt(value);
+                case "-s" -> this.seed = Long.parseLong(value);
+                case "-n" -> this.games = Integer.parseInt(value);
+                case "-r" -> this.log = Path.of(value);
+                default -> throw new IllegalArgumentException(
+                  String.format("Unknown option: %s", arg));
+            }
+        }
+    }
+
+    // Plays the moves of the script and prints their results
+    private void playScript() throws IOException {
+        Game game = new Game(this.width, this.height, this.mines, this.seed);
+        this.startRecording(this.seed);
+        try (BufferedReader reader = Files.newBufferedReader(this.script)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                List<Move> moves = new ArrayList<>();
+                for (String move: line.split(";"))
+                    moves.add(parseMove(move.strip()));
+                MoveResult result = game.applyBatch(moves);
+                long now = System.nanoTime();
+                for (Move move: moves)
+                    this.record(move, now);
+                System.out.printf("%s: changed=%b cells=%d state=%s%n", line,
+                        result.changed(), result.changedCells().length,
+                        result.state());
+            }
+        }
+        System.out.printf("%s after %d s%n", game.state(), game.gameTime());
+    }
+
+    // Records the start of a game of the given seed, if the games are
+    // recorded
+    private void startRecording(long seed) throws IOException {
+        if (this.recorder != null) {
+            this.recorder.startGame(this.width, this.height, this.mines, seed,
+                    System.nanoTime());
+        }
+    }
+
+    // Records move, played at the given time, if the games are recorded
+    private void record(Move move, long nanos) throws IOException {
+        if (this.recorder != null)
+            this.recorder.record(move, nanos);
+    }
+
+    // Returns the move described by line
+    private static Move parseMove(String line) {
+        String[] tokens = line.split("\\s+");
+        if (tokens.length != 3) {
+            throw new IllegalArgumentException(
+              String.format("Illegal move: %s", line));
+        }
+        Position position = new Position(Integer.parseInt(tokens[1]),
+                Integer.parseInt(tokens[2]));
+        return switch (tokens[0]) {
+            case "r" -> new Move(Move.Type.REVEAL, position);
+            case "f" -> new Move(Move.Type.FLAG, position);
+            case "c" -> new Move(Move.Type.CHORD, position);
+            default -> throw new IllegalArgumentException(
+              String.format("Illegal move: %s", line));
+        };
+    }
+
+    // Plays games at random and prints their summary
+    private void playRandom() throws IOException {
+        int cells = this.width * this.height;
+        int[] order = new int[cells];
+        long won = 0;
+        long moves = 0;
+        long start = System.nanoTime();
+        for (int g = 0; g < this.games; g++) {
+            Game game = new Game(this.width, this.height, this.mines,
+                    this.seed + g);
+            this.startRecording(this.seed + g);
+            SplittableRandom random = new SplittableRandom(this.seed + g);
+            for (int i = 0; i < cells; i++) {
+                int j = random.nextInt(i + 1);
+                order[i] = order[j];
+                order[j] = i;
+            }
+            for (int i = 0; i < cells && !game.hasEnded(); i++) {
+                Position position = new Position(order[i] / this.width,
+                        order[i] % this.width);
+                if (game.revealCellAt(position))
+                    moves++;
+                this.record(new Move(Move.Type.REVEAL, position),
+                        System.nanoTime());
+            }
+            if (game.state() == GameState.WON)
+                won++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games on %dx%d with %d mines, seed %d%n",
+                this.games, this.width, this.height, this.mines, this.seed);
+        System.out.printf("won: %d, lost: %d, moves: %d%n", won,
+                this.games - won, moves);
+        System.out.printf("%.3f s, %.0f games/s%n", seconds,
+                this.games / seconds);
+    }
+
+    /**
+     * Plays the games described by the arguments.
+     * @param args the options and the script, see the class documentation
+     * @throws IOException if the script can not be read or the log can
+     *         not be written
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        HeadlessApp app = new HeadlessApp();
+        app.parse(args);
+        if (app.log != null)
+            app.recorder = new MoveRecorder(app.log);
+        try {
+            if (app.script != null)
+                app.playScript();
+            else
+                app.playRandom();
+        } finally {
+            if (app.recorder != null)
+                app.recorder.close();
+        }
+    }
+}
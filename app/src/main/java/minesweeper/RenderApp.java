@@ -0,0 +1,94 @@
+package minesweeper;
+
+import java.io.IOException;
+
+import java.nio.file.Path;
+
+import java.util.List;
+
+import minesweeper.replay.MoveLog;
+import minesweeper.replay.RecordedGame;
+import minesweeper.replay.RenderReport;
+import minesweeper.replay.ReplayRenderer;
+
+/**
+ * The application that renders a game of a move log to a sequence of PNG
+ * images, without display, and prints the number of frames rendered by
+ * second.
+ *
+ * <pre>
+ * RenderApp [-o directory] [-c side] [-e step] [-p parallelism]
+ *           [-f frames] log [game]
+ * </pre>
+ *
+ * The game is given by its index in the log, from 0, the last one by
+ * default. A frame is rendered every step moves, 1 by default, with cells of
+ * side pixels, 16 by default, into the directory, "frames" by default. The
+ * frames are rendered on parallelism workers, as many as there are
+ * available processors by default, and at most the given number of frames,
+ * the parallelism by default, are held in memory at once.
+ */
+public final class RenderApp {
+
+    // Not instantiable.
+    private RenderApp() {
+    }
+
+    /**
+     * Renders the game described by the arguments.
+     * @param args the options, the log and the game, see the class
+     *             documentation
+     * @throws IOException if the log can not be read or a frame written
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        Path directory = Path.of("frames");
+        int side = 16;
+        int step = 1;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int frames = 0;
+        Path log = null;
+        int index = -1;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("-")) {
+                if (log == null)
+                    log = Path.of(arg);
+                else
+                    index = Integer.parseInt(arg);
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(
+                  String.format("Missing value of option: %s", arg));
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "-o" -> directory = Path.of(value);
+                case "-c" -> side = Integer.parseInt(value);
+                case "-e" -> step = Integer.parseInt(value);
+                case "-p" -> parallelism = Integer.parseInt(value);
+                case "-f" -> frames = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException(
+                  String.format("Unknown option: %s", arg));
+            }
+        }
+        if (log == null)
+            throw new IllegalArgumentException("Missing move log");
+        List<RecordedGame> games = MoveLog.read(log).games();
+        if (index == -1)
+            index = games.size() - 1;
+        if (index < 0 || index >= games.size()) {
+            throw new IllegalArgumentException(
+              String.format("Illegal game: %d", index));
+        }
+        RecordedGame game = games.get(index);
+        ReplayRenderer renderer = new ReplayRenderer(game, side, step,
+                frames == 0 ? parallelism : frames);
+        RenderReport report = renderer.render(directory, parallelism);
+        System.out.printf("Game %d, %dx%d with %d mines, %d moves%n", index,
+                game.width(), game.height(), game.mines(),
+                game.moves().size());
+        System.out.println(report.summary());
+    }
+}
@@ -0,0 +1,221 @@
+package minesweeper;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSlider;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import java.awt.BorderLayout;
+
+import java.io.IOException;
+
+import java.nio.file.Path;
+
+import java.util.List;
+
+import minesweeper.model.ChangeObserver;
+import minesweeper.model.ChangeSet;
+import minesweeper.model.Game;
+import minesweeper.model.GameSnapshot;
+import minesweeper.replay.MoveLog;
+import minesweeper.replay.RecordedGame;
+import minesweeper.replay.Replay;
+import minesweeper.view.GridView;
+
+/**
+ * The application that replays a game of a move log.
+ *
+ * <pre>
+ * ReplayApp log [game]
+ * </pre>
+ *
+ * The game is given by its index in the log, from 0, the last one by
+ * default. It is played at the speed it was recorded at, or 2 or 10 times
+ * faster, or as fast as the moves can be displayed, and the slider moves it
+ * to any of its moves. The moves are seeked by a Replay on the event
+ * dispatch thread: a seek plays at most Replay.KEYFRAME_MOVES moves.
+ */
+public final class ReplayApp {
+
+    // The period of the timer, in milliseconds
+    private static final int FRAME_MILLIS = 16;
+
+    // The names of the speeds
+    private static final String[] SPEED_NAMES = {"1x", "2x", "10x", "max"};
+
+    // The speeds, as factors of the recorded one
+    private static final double[] SPEEDS = {1.0, 2.0, 10.0,
+        Double.POSITIVE_INFINITY};
+
+    // The time spent playing moves by frame at the maximum speed, in
+    // nanoseconds
+    private static final long MAX_SPEED_BUDGET = 8_000_000L;
+
+    // The replay
+    private final Replay replay;
+
+    // The view of the grid
+    private final GridView gridView;
+
+    // The button that plays or pauses the replay
+    private final JButton playButton;
+
+    // The slider of the position of the replay
+    private final JSlider slider;
+
+    // The label of the position of the replay
+    private final JLabel label;
+
+    // Advances the replay while it plays
+    private final Timer timer;
+
+    // The snapshot displayed by the view of the grid
+    private GameSnapshot snapshot;
+
+    // The speed, as a factor of the recorded one
+    private double speed = SPEEDS[0];
+
+    // The time of the replay since the start of the game, in nanoseconds
+    private double clock;
+
+    // The time of the previous tick of the timer, in nanoseconds
+    private long lastTick;
+
+    // Class constructor that initializes the GUI of the given replay
+    private ReplayApp(Replay replay) {
+        this.replay = replay;
+        RecordedGame recorded = replay.recorded();
+        JFrame frame = new JFrame(String.format("FreeMines replay %dx%d, %d "
+                    + "mines", recorded.width(), recorded.height(),
+                    recorded.mines()));
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        // The view, fed with the snapshots of the changes of each seek
+        this.gridView = new GridView();
+        this.snapshot = GameSnapshot.of(replay.game());
+        this.gridView.setModel(this.snapshot);
+        replay.game().add((ChangeObserver) this::show);
+        frame.getContentPane().add(new JScrollPane(this.gridView),
+                BorderLayout.CENTER);
+
+        // The controls
+        this.playButton = new JButton("Play");
+        this.playButton.addActionListener(e -> this.togglePlaying());
+        JComboBox<String> speeds = new JComboBox<>(SPEED_NAMES);
+        speeds.addActionListener(e ->
+                this.speed = SPEEDS[speeds.getSelectedIndex()]);
+        this.slider = new JSlider(0, replay.length(), 0);
+        this.slider.addChangeListener(e -> this.scrub());
+        this.label = new JLabel();
+        this.updateLabel();
+        JPanel controls = new JPanel();
+        controls.add(this.playButton);
+        controls.add(speeds);
+        controls.add(this.slider);
+        controls.add(this.label);
+        frame.getContentPane().add(controls, BorderLayout.SOUTH);
+        this.timer = new Timer(FRAME_MILLIS, e -> this.tick());
+
+        // Display
+        frame.pack();
+        frame.setVisible(true);
+    }
+
+    // Displays the changes of game
+    private void show(Game game, ChangeSet changes) {
+        this.snapshot = this.snapshot.next(game, changes);
+        this.gridView.setModel(this.snapshot);
+        if (changes.full())
+            this.gridView.repaint();
+        else
+            this.gridView.cellsChanged(changes.changedCells());
+    }
+
+    // Plays the replay, from its start if it ended, or pauses it
+    private void togglePlaying() {
+        if (this.timer.isRunning()) {
+            this.pause();
+            return;
+        }
+        if (this.replay.position() == this.replay.length()) {
+            this.replay.seek(0);
+            this.clock = 0.0;
+        }
+        this.lastTick = System.nanoTime();
+        this.playButton.setText("Pause");
+        this.timer.start();
+    }
+
+    // Pauses the replay
+    private void pause() {
+        this.timer.stop();
+        this.playButton.setText("Play");
+    }
+
+    // Advances the replay by the time elapsed since the previous tick, or
+    // by as many moves as the budget of a frame allows at the maximum speed
+    private void tick() {
+        long now = System.nanoTime();
+        int length = this.replay.length();
+        if (Double.isInfinite(this.speed)) {
+            long deadline = now + MAX_SPEED_BUDGET;
+            while (this.replay.position() < length
+                    && System.nanoTime() < deadline)
+                this.replay.seek(this.replay.position() + 1);
+            this.clock = this.replay.elapsedNanos(this.replay.position());
+        } else {
+            this.clock += (now - this.lastTick) * this.speed;
+            this.replay.seek(this.replay.positionAt((long) this.clock));
+        }
+        this.lastTick = now;
+        if (this.replay.position() == length)
+            this.pause();
+        this.slider.setValue(this.replay.position());
+        this.updateLabel();
+    }
+
+    // Seeks the position of the slider, if it was moved by the user
+    private void scrub() {
+        int position = this.slider.getValue();
+        if (position != this.replay.position()) {
+            this.replay.seek(position);
+            this.clock = this.replay.elapsedNanos(position);
+        }
+        this.updateLabel();
+    }
+
+    // Displays the position of the replay
+    private void updateLabel() {
+        int position = this.replay.position();
+        this.label.setText(String.format("Move %d / %d, %.1f s", position,
+                    this.replay.length(),
+                    this.replay.elapsedNanos(position) / 1e9));
+    }
+
+    /**
+     * Entry point that reads the log and starts the GUI.
+     * @param args the log, and the index of the game to replay
+     * @throws IOException if the log can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            throw new IllegalArgumentException(
+              "Usage: ReplayApp log [game]");
+        }
+        List<RecordedGame> games = MoveLog.read(Path.of(args[0])).games();
+        int index = args.length == 2
+            ? Integer.parseInt(args[1])
+            : games.size() - 1;
+        if (index < 0 || index >= games.size()) {
+            throw new IllegalArgumentException(
+              String.format("Illegal game: %d", index));
+        }
+        Replay replay = new Replay(games.get(index));
+        SwingUtilities.invokeLater(() -> new ReplayApp(replay));
+    }
+}
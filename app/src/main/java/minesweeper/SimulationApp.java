@@ -0,0 +1,97 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import minesweeper.analysis.DifficultyAnalysis;
+import minesweeper.simulation.Simulation;
+import minesweeper.simulation.SimulationReport;
+
+/**
+ * The application that runs Simulations of games and prints their reports.
+ *
+ * <pre>
+ * SimulationApp [-a] [-s seed] [-n games] [-p parallelism] [WxHxM...]
+ * </pre>
+ *
+ * Each WxHxM argument is a configuration of width W, height H and M mines,
+ * the beginner, intermediate and expert ones are simulated by default. With
+ * -a, the grids are not played but streamed through a DifficultyAnalysis
+ * that reports their 3BV, openings and isolated cells. The reports are
+ * reproducible from the seed, whatever the parallelism.
+ */
+public final class SimulationApp {
+
+    // Not instantiable.
+    private SimulationApp() {
+    }
+
+    /**
+     * Runs the Simulations described by the arguments.
+     * @param args the options and the configurations, see the class
+     *             documentation
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long seed = new SplittableRandom().nextLong();
+        long games = 1_000_000L;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        boolean analysis = false;
+        List<int[]> configurations = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("-")) {
+                configurations.add(parseConfiguration(arg));
+                continue;
+            }
+            if (arg.equals("-a")) {
+                analysis = true;
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException(
+                  String.format("Missing value of option: %s", arg));
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "-s" -> seed = Long.parseLong(value);
+                case "-n" -> games = Long.parseLong(value);
+                case "-p" -> parallelism = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException(
+                  String.format("Unknown option: %s", arg));
+            }
+        }
+        if (configurations.isEmpty()) {
+            configurations.add(new int[] {9, 9, 10});
+            configurations.add(new int[] {16, 16, 40});
+            configurations.add(new int[] {30, 16, 99});
+        }
+        System.out.printf("seed %d, %d workers%n", seed, parallelism);
+        for (int[] configuration: configurations) {
+            if (analysis) {
+                DifficultyAnalysis difficulty = new DifficultyAnalysis(
+                        configuration[0], configuration[1], configuration[2]);
+                System.out.println(
+                        difficulty.run(games, seed, parallelism).summary());
+                continue;
+            }
+            Simulation simulation = new Simulation(configuration[0],
+                    configuration[1], configuration[2]);
+            SimulationReport report = simulation.run(games, seed,
+                    parallelism);
+            System.out.println(report.summary());
+        }
+    }
+
+    // Returns the width, height and number of mines described by arg
+    private static int[] parseConfiguration(String arg) {
+        String[] tokens = arg.split("x");
+        if (tokens.length != 3) {
+            throw new IllegalArgumentException(
+              String.format("Illegal configuration: %s", arg));
+        }
+        return new int[] {Integer.parseInt(tokens[0]),
+            Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2])};
+    }
+}
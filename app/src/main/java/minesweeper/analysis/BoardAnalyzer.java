@@ -0,0 +1,190 @@
+package minesweeper.analysis;
+
+import java.util.Arrays;
+
+import minesweeper.model.Grid;
+
+/**
+ * A BoardAnalyzer computes the difficulty metrics of mined grids in a single
+ * scan of their cells, in linear time. The openings and the groups of
+ * isolated cells are connected components, built by a union-find on the
+ * indices of the cells: each cell is only joined to its neighbors already
+ * scanned, on its left and on the line above. The cells without mines around
+ * them are read one line ahead of the scan, so that a numbered cell is known
+ * to be next to an opening or isolated when it is reached.
+ *
+ * A BoardAnalyzer reuses its arrays from one grid to the next, so that a
+ * worker analyzing many grids only allocates their metrics, and is therefore
+ * not thread-safe.
+ */
+public class BoardAnalyzer {
+
+    // The kind of a mined cell or of a safe cell next to an opening.
+    private static final byte OTHER = 0;
+
+    // The kind of a safe cell without mines around it.
+    private static final byte EMPTY = 1;
+
+    // The kind of a safe cell with mines around it and not next to an
+    // opening.
+    private static final byte ISOLATED = 2;
+
+    // The flag of a safe cell without mines around it.
+    private static final byte EMPTY_FLAG = 1;
+
+    // The flag of a cell next to a safe cell without mines around it.
+    private static final byte NEAR_EMPTY_FLAG = 2;
+
+    // The flags of the cells of the last grid, read one line ahead of the
+    // scan.
+    private byte[] flags = new byte[0];
+
+    // The kinds of the cells of the last grid.
+    private byte[] kinds = new byte[0];
+
+    // The parents of the cells in the union-find, roots being their own.
+    private int[] parents = new int[0];
+
+    // The sizes of the components, by root.
+    private int[] sizes = new int[0];
+
+    // The number of groups of isolated cells by size, all 0 between scans.
+    private int[] counts = new int[1];
+
+    /**
+     * Computes the difficulty metrics of the given grid.
+     * @param grid the grid, mined
+     * @return the metrics of the grid
+     * @throws NullPointerException if grid is null
+     */
+    public BoardMetrics analyze(Grid grid) {
+        int width = grid.width();
+        int height = grid.height();
+        int n = width * height;
+        if (this.kinds.length < n) {
+            this.flags = new byte[n];
+            this.kinds = new byte[n];
+            this.parents = new int[n];
+            this.sizes = new int[n];
+            this.counts = new int[n + 1];
+        }
+        Arrays.fill(this.flags, 0, n, (byte) 0);
+        this.readLine(grid, 0, width, n);
+        int openings = 0;
+        int isolated = 0;
+        int regions = 0;
+        for (int line = 0, i = 0; line < height; line++) {
+            this.readLine(grid, i + width, width, n);
+            for (int column = 0; column < width; column++, i++) {
+                this.kinds[i] = OTHER;
+                byte kind;
+                if ((this.flags[i] & EMPTY_FLAG) != 0) {
+                    kind = EMPTY;
+                    openings++;
+                } else if ((this.flags[i] & NEAR_EMPTY_FLAG) == 0
+                        && !grid.isMinedAt(i)) {
+                    kind = ISOLATED;
+                    isolated++;
+                    regions++;
+                } else {
+                    continue;
+                }
+                this.kinds[i] = kind;
+                this.parents[i] = i;
+                this.sizes[i] = 1;
+                int merged = this.joinScanned(i, column, width, kind);
+                if (kind == EMPTY)
+                    openings -= merged;
+                else
+                    regions -= merged;
+            }
+        }
+        return new BoardMetrics(openings + isolated, openings, isolated,
+                this.regionSizes(n, regions));
+    }
+
+    // Returns the sizes of the given number of groups of isolated cells of
+    // the last grid of n cells in decreasing order, by a counting sort
+    private int[] regionSizes(int n, int regions) {
+        int largest = 0;
+        for (int i = 0, k = 0; i < n && k < regions; i++) {
+            if (this.kinds[i] == ISOLATED && this.parents[i] == i) {
+                this.counts[this.sizes[i]]++;
+                largest = Math.max(largest, this.sizes[i]);
+                k++;
+            }
+        }
+        int[] res = new int[regions];
+        for (int size = largest, k = 0; size > 0; size--) {
+            for (; this.counts[size] > 0; this.counts[size]--)
+                res[k++] = size;
+        }
+        return res;
+    }
+
+    // Flags the safe cells without mines around them of the line starting
+    // at start, if any, and their neighbors
+    private void readLine(Grid grid, int start, int width, int n) {
+        if (start >= n)
+            return;
+        for (int column = 0; column < width; column++) {
+            int index = start + column;
+            if (grid.isMinedAt(index) || grid.minesAroundAt(index) != 0)
+                continue;
+            this.flags[index] |= EMPTY_FLAG;
+            int first = column > 0 ? -1 : 0;
+            int last = column < width - 1 ? 1 : 0;
+            for (int middle = index - width; middle <= index + width;
+                    middle += width) {
+                if (middle < 0 || middle >= n)
+                    continue;
+                for (int j = middle + first; j <= middle + last; j++)
+                    this.flags[j] |= NEAR_EMPTY_FLAG;
+            }
+        }
+    }
+
+    // Joins the cell at index, in the given column, to its scanned neighbors
+    // of the same kind, returns the number of components merged
+    private int joinScanned(int index, int column, int width, byte kind) {
+        int merged = 0;
+        if (column > 0 && this.kinds[index - 1] == kind)
+            merged += this.union(index, index - 1);
+        int above = index - width;
+        if (above >= 0) {
+            for (int j = Math.max(column - 1, 0);
+                    j <= Math.min(column + 1, width - 1); j++) {
+                int neighbor = above - column + j;
+                if (this.kinds[neighbor] == kind)
+                    merged += this.union(index, neighbor);
+            }
+        }
+        return merged;
+    }
+
+    // Joins the components of a and b, returns 1 if they were distinct, 0
+    // otherwise
+    private int union(int a, int b) {
+        int rootA = this.find(a);
+        int rootB = this.find(b);
+        if (rootA == rootB)
+            return 0;
+        if (this.sizes[rootA] < this.sizes[rootB]) {
+            int root = rootA;
+            rootA = rootB;
+            rootB = root;
+        }
+        this.parents[rootB] = rootA;
+        this.sizes[rootA] += this.sizes[rootB];
+        return 1;
+    }
+
+    // Returns the root of the component of index, halving the path to it
+    private int find(int index) {
+        while (this.parents[index] != index) {
+            this.parents[index] = this.parents[this.parents[index]];
+            index = this.parents[index];
+        }
+        return index;
+    }
+}
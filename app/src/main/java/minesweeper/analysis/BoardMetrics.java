@@ -0,0 +1,35 @@
+package minesweeper.analysis;
+
+/**
+ * A BoardMetrics holds the difficulty metrics of a mined grid computed by a
+ * BoardAnalyzer.
+ * @param threeBV the 3BV of the grid: the minimum number of clicks that
+ *                reveal all its safe cells, one by opening and one by
+ *                isolated cell
+ * @param openings the number of openings: groups of connected safe cells
+ *                 without mines around them, revealed by a single click
+ * @param isolatedCells the number of safe cells with mines around them that
+ *                      are not next to an opening
+ * @param isolatedRegions the sizes of the groups of connected isolated cells,
+ *                        in decreasing order
+ */
+public record BoardMetrics(int threeBV, int openings, int isolatedCells,
+        int[] isolatedRegions) {
+
+    /**
+     * {@return the size of the largest group of connected isolated cells, 0
+     * if there is none}
+     */
+    public int largestIsolatedRegion() {
+        return this.isolatedRegions.length == 0 ? 0 : this.isolatedRegions[0];
+    }
+
+    /**
+     * {@return the 3BV cleared by second by a game won in the given time, 0
+     * if the time is not strictly positive}
+     * @param millis the time of the game in milliseconds
+     */
+    public double threeBVPerSecond(long millis) {
+        return millis <= 0 ? 0.0 : this.threeBV * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,205 @@
+package minesweeper.analysis;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Position;
+import minesweeper.simulation.BlockRunner;
+
+/**
+ * A DifficultyAnalysis streams generated grids of given dimensions and number
+ * of mines through BoardAnalyzers, spread across the cores, and reports the
+ * statistics of their metrics. Each grid is mined out of a random first click
+ * and its neighbors, as the grids handed out to the players.
+ *
+ * As in a Simulation, the grids are split into blocks of BLOCK_SIZE grids by
+ * a BlockRunner, each drawn by its own random generator seeded from the
+ * master seed and the index of the block, so that the statistics only depend
+ * on the master seed and the number of grids, not on the number of workers.
+ * Each worker reuses its Grid and its BoardAnalyzer from one grid to the
+ * next and merges its statistics into lock-free accumulators when it is
+ * done.
+ */
+public final class DifficultyAnalysis {
+
+    /**
+     * The number of grids of a block.
+     */
+    public static final int BLOCK_SIZE = BlockRunner.BLOCK_SIZE;
+
+    // Runs the analyses on the cores.
+    private static final BlockRunner RUNNER = new BlockRunner("Analysis",
+            "boards");
+
+    // The width of the grids.
+    private final int width;
+
+    // The height of the grids.
+    private final int height;
+
+    // The number of mines of the grids.
+    private final int mines;
+
+    /**
+     * Class constructor that specifies the dimensions and the number of mines
+     * of the grids of the new DifficultyAnalysis.
+     * @param width the width of the grids
+     * @param height the height of the grids
+     * @param mines the number of mines of the grids
+     * @throws IllegalArgumentException if width or height are inferior or
+     *         equal to 0, if mines is strictly inferior to 0 or if mines is
+     *         strictly superior to width * height
+     */
+    public DifficultyAnalysis(int width, int height, int mines) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal dimensions: %d, %d", width, height));
+        }
+        if (mines < 0 || mines > width * height) {
+            throw new IllegalArgumentException(
+              String.format("Illegal number of mines: %d", mines));
+        }
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+    }
+
+    /**
+     * Analyzes the given number of grids on parallelism workers.
+     * @param boards the number of grids to analyze
+     * @param seed the master seed of the grids
+     * @param parallelism the number of workers
+     * @return the statistics of the metrics of the grids
+     * @throws IllegalArgumentException if boards is strictly inferior to 0 or
+     *         if parallelism is inferior or equal to 0
+     * @throws IllegalStateException if a worker fails
+     */
+    public DifficultyReport run(long boards, long seed, int parallelism) {
+        Accumulators accumulators = new Accumulators(
+                this.width * this.height);
+        long elapsed = RUNNER.run(boards, seed, parallelism,
+                () -> new Worker(accumulators));
+        return accumulators.report(this.width, this.height, this.mines,
+                boards, elapsed);
+    }
+
+    /**
+     * Analyzes the given number of grids on as many workers as there are
+     * available processors.
+     * @param boards the number of grids to analyze
+     * @param seed the master seed of the grids
+     * @return the statistics of the metrics of the grids
+     * @throws IllegalArgumentException if boards is strictly inferior to 0
+     */
+    public DifficultyReport run(long boards, long seed) {
+        return this.run(boards, seed,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    // The statistics of a DifficultyAnalysis, shared by its workers.
+    private static final class Accumulators {
+
+        // The number of grids by 3BV.
+        private final AtomicLongArray threeBV;
+
+        // The number of openings, over all grids.
+        private final LongAdder openings = new LongAdder();
+
+        // The number of isolated cells, over all grids.
+        private final LongAdder isolatedCells = new LongAdder();
+
+        // The number of groups of isolated cells by size, over all grids.
+        private final AtomicLongArray isolatedRegions;
+
+        // Creates accumulators for grids of cells cells
+        private Accumulators(int cells) {
+            this.threeBV = new AtomicLongArray(cells + 1);
+            this.isolatedRegions = new AtomicLongArray(cells + 1);
+        }
+
+        // Merges the statistics of a worker
+        private void merge(long[] threeBV, long openings, long isolatedCells,
+                long[] isolatedRegions) {
+            this.openings.add(openings);
+            this.isolatedCells.add(isolatedCells);
+            for (int i = 0; i < threeBV.length; i++) {
+                if (threeBV[i] != 0)
+                    this.threeBV.addAndGet(i, threeBV[i]);
+                if (isolatedRegions[i] != 0)
+                    this.isolatedRegions.addAndGet(i, isolatedRegions[i]);
+            }
+        }
+
+        // Returns the report of the accumulated statistics
+        private DifficultyReport report(int width, int height, int mines,
+                long boards, long elapsed) {
+            long[] threeBV = new long[this.threeBV.length()];
+            long[] isolatedRegions = new long[threeBV.length];
+            for (int i = 0; i < threeBV.length; i++) {
+                threeBV[i] = this.threeBV.get(i);
+                isolatedRegions[i] = this.isolatedRegions.get(i);
+            }
+            return new DifficultyReport(width, height, mines, boards,
+                    threeBV, this.openings.sum(), this.isolatedCells.sum(),
+                    isolatedRegions, elapsed);
+        }
+    }
+
+    // A worker analyzes the grids of the blocks it takes.
+    private final class Worker implements BlockRunner.Worker {
+
+        // The accumulators of the DifficultyAnalysis.
+        private final Accumulators accumulators;
+
+        // The grid of this Worker, reused from grid to grid.
+        private final Grid grid;
+
+        // The analyzer of this Worker.
+        private final BoardAnalyzer analyzer;
+
+        // The number of grids of this Worker by 3BV.
+        private final long[] threeBV;
+
+        // The number of groups of isolated cells by size, over the grids of
+        // this Worker.
+        private final long[] isolatedRegions;
+
+        // The number of openings, over the grids of this Worker.
+        private long openings;
+
+        // The number of isolated cells, over the grids of this Worker.
+        private long isolatedCells;
+
+        // Creates a worker that merges into accumulators
+        private Worker(Accumulators accumulators) {
+            this.accumulators = accumulators;
+            this.grid = new Grid(width, height, mines);
+            this.analyzer = new BoardAnalyzer();
+            this.threeBV = new long[width * height + 1];
+            this.isolatedRegions = new long[width * height + 1];
+        }
+
+        @Override
+        public void process(SplittableRandom random) {
+            this.grid.initializeCells();
+            Position first = this.grid.positionOf(
+                    random.nextInt(width * height));
+            this.grid.placeMines(Game.safeZone(first), random.nextLong());
+            BoardMetrics metrics = this.analyzer.analyze(this.grid);
+            this.threeBV[metrics.threeBV()]++;
+            this.openings += metrics.openings();
+            this.isolatedCells += metrics.isolatedCells();
+            for (int size: metrics.isolatedRegions())
+                this.isolatedRegions[size]++;
+        }
+
+        @Override
+        public void merge() {
+            this.accumulators.merge(this.threeBV, this.openings,
+                    this.isolatedCells, this.isolatedRegions);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package minesweeper.analysis;
+
+import java.util.Arrays;
+
+/**
+ * A DifficultyReport holds the statistics of the metrics of the grids
+ * analyzed by a DifficultyAnalysis.
+ * @param width the width of the grids
+ * @param height the height of the grids
+ * @param mines the number of mines of the grids
+ * @param boards the number of grids analyzed
+ * @param threeBV the number of grids by 3BV
+ * @param openings the number of openings, over all grids
+ * @param isolatedCells the number of isolated cells, over all grids
+ * @param isolatedRegions the number of groups of connected isolated cells by
+ *                        size, over all grids
+ * @param elapsedNanos the duration of the analysis in nanoseconds
+ */
+public record DifficultyReport(int width, int height, int mines, long boards,
+        long[] threeBV, long openings, long isolatedCells,
+        long[] isolatedRegions, long elapsedNanos) {
+
+    /**
+     * {@return the average 3BV of a grid, 0 if no grid was analyzed}
+     */
+    public double averageThreeBV() {
+        if (this.boards == 0)
+            return 0.0;
+        long total = 0;
+        for (int i = 0; i < this.threeBV.length; i++)
+            total += i * this.threeBV[i];
+        return (double) total / this.boards;
+    }
+
+    /**
+     * {@return the smallest 3BV n such that at least the given ratio of grids
+     * have a 3BV of at most n}
+     * @param ratio the ratio of grids, inside [0; 1]
+     * @throws IllegalArgumentException if ratio is not inside [0; 1]
+     */
+    public int threeBVQuantile(double ratio) {
+        if (!(ratio >= 0.0 && ratio <= 1.0)) {
+            throw new IllegalArgumentException(
+              String.format("Illegal ratio: %f", ratio));
+        }
+        long cumulated = 0;
+        for (int i = 0; i < this.threeBV.length; i++) {
+            cumulated += this.threeBV[i];
+            if (cumulated >= ratio * this.boards)
+                return i;
+        }
+        return this.threeBV.length - 1;
+    }
+
+    /**
+     * {@return the average number of openings of a grid, 0 if no grid was
+     * analyzed}
+     */
+    public double averageOpenings() {
+        return this.boards == 0 ? 0.0 : (double) this.openings / this.boards;
+    }
+
+    /**
+     * {@return the average number of isolated cells of a grid, 0 if no grid
+     * was analyzed}
+     */
+    public double averageIsolatedCells() {
+        return this.boards == 0 ? 0.0
+            : (double) this.isolatedCells / this.boards;
+    }
+
+    /**
+     * {@return the size of the largest group of connected isolated cells of
+     * all grids, 0 if there is none}
+     */
+    public int largestIsolatedRegion() {
+        for (int i = this.isolatedRegions.length - 1; i > 0; i--) {
+            if (this.isolatedRegions[i] != 0)
+                return i;
+        }
+        return 0;
+    }
+
+    /**
+     * {@return the number of grids analyzed by second}
+     */
+    public double boardsPerSecond() {
+        return this.boards * 1e9 / Math.max(1L, this.elapsedNanos);
+    }
+
+    /**
+     * {@return true if the other report holds the same statistics, whatever
+     * their durations}
+     * @param other the other report
+     */
+    public boolean sameStatistics(DifficultyReport other) {
+        return this.width == other.width && this.height == other.height
+            && this.mines == other.mines && this.boards == other.boards
+            && Arrays.equals(this.threeBV, other.threeBV)
+            && this.openings == other.openings
+            && this.isolatedCells == other.isolatedCells
+            && Arrays.equals(this.isolatedRegions, other.isolatedRegions);
+    }
+
+    /**
+     * {@return a summary of this report on several lines}
+     */
+    public String summary() {
+        return String.format("%dx%d, %d mines: %d boards%n"
+                + "  3BV: %.2f on average, median %d, 10th percentile %d, "
+                + "90th percentile %d%n"
+                + "  openings: %.2f per board%n"
+                + "  isolated cells: %.2f per board, largest region %d%n"
+                + "  %.3f s, %.0f boards/s",
+                this.width, this.height, this.mines, this.boards,
+                this.averageThreeBV(), this.threeBVQuantile(0.5),
+                this.threeBVQuantile(0.1), this.threeBVQuantile(0.9),
+                this.averageOpenings(), this.averageIsolatedCells(),
+                this.largestIsolatedRegion(), this.elapsedNanos / 1e9,
+                this.boardsPerSecond());
+    }
+}
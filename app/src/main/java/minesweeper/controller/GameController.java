@@ -2,92 +2,127 @@ package minesweeper.controller;
 
 import javax.swing.event.MouseInputAdapter;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
-import java.awt.Point;
 import java.awt.event.MouseEvent;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import minesweeper.model.Game;
+import minesweeper.model.GameState;
+import minesweeper.model.Move;
 import minesweeper.model.Position;
 import minesweeper.view.GridView;
 import minesweeper.App;
 
 /**
  * Controls the user input on the View. The actions provided by the
- * View are executed on the encapsulated model.
+ * View are submitted to the ModelThread that owns the model, so that they
+ * are executed off the event dispatch thread.
+ *
+ * Every action is submitted as a batch, played by Game.applyBatch(), so that
+ * the observers are notified once by batch. The reveals of a drag are
+ * queued and submitted together once by frame, or when the button is
+ * released, so that a fast drag costs one repaint by frame rather than one
+ * by cell. The motion events
+ * on a cell already handled during the same drag are skipped.
+ *
+ * The time from the reception of each input to its application on the
+ * model is recorded by the ModelThread in a LatencyHistogram.
  */
 public class GameController extends MouseInputAdapter {
-    private Game model;
+
+    // The delay between two batches of a drag, in milliseconds.
+    private static final int FRAME_MILLIS = 16;
+
+    // The thread that owns the model.
+    private final ModelThread modelThread;
 
     // The app.
     private App app;
 
-    // Indicates if this GameController is enabled.
-    private boolean enabled;
+    // The moves of the current drag not applied yet.
+    private final List<Move> pending;
+
+    // Applies the pending moves at the end of the frame.
+    private final Timer frameTimer;
+
+    // The reception times of the pending moves, in nanoseconds.
+    private long[] received;
+
+    // The indices of the cells handled during the current drag.
+    private final BitSet dragged;
 
     /**
-     * Class constructor that specifies the grid to act on.
-     * @param model the grid to act on
+     * Class constructor that specifies the thread of the model to act on.
+     * @param modelThread the thread of the model to act on
      * @param app the main application
      */
-    public GameController(Game model, App app) {
-        this.model = model;
+    public GameController(ModelThread modelThread, App app) {
+        this.modelThread = modelThread;
         this.app = app;
-        this.model.notifyObservers();
-        this.setEnabled();
+        this.pending = new ArrayList<>();
+        this.frameTimer = new Timer(FRAME_MILLIS, e -> this.applyPending());
+        this.frameTimer.setRepeats(false);
+        this.received = new long[16];
+        this.dragged = new BitSet();
     }
 
-    // Reveals the cell at position, and if it was indeed revealed, notifies
-    // observers
-    private void revealCellAndUpdate(Position position) {
-        if (this.model.revealCellAt(position))
-            this.model.notifyObservers();
+    /**
+     * {@return the times from the reception of the inputs of this
+     * GameController to their application on the model}
+     */
+    public LatencyHistogram latencies() {
+        return this.modelThread.latencies();
     }
 
-    // Flags the cell at position, and if it changed, notifies observers
-    private void flagCellAndUpdate(Position position) {
-        if (this.model.flagCellAt(position))
-            this.model.notifyObservers();
+    // Applies the pending moves, then the given one, as a single batch
+    private void play(Move move) {
+        this.queue(move);
+        this.applyPending();
+    }
+
+    // Adds move to the pending moves, received now
+    private void queue(Move move) {
+        int size = this.pending.size();
+        if (size == this.received.length)
+            this.received = Arrays.copyOf(this.received, 2 * size);
+        this.received[size] = System.nanoTime();
+        this.pending.add(move);
+    }
+
+    // Submits the pending moves as a single batch
+    private void applyPending() {
+        this.frameTimer.stop();
+        if (this.pending.isEmpty())
+            return;
+        this.modelThread.submit(this.pending, this.received);
+        this.pending.clear();
+    }
+
+    // Queues a reveal of the cell at position until the end of the frame,
+    // unless the cell was already handled during the current drag
+    private void queueReveal(Position position, int width) {
+        int index = position.line() * width + position.column();
+        if (this.dragged.get(index))
+            return;
+        this.dragged.set(index);
+        this.queue(new Move(Move.Type.REVEAL, position));
+        if (!this.frameTimer.isRunning())
+            this.frameTimer.start();
     }
 
     // Acts on model depending on button activated
     private void actionOnMouseButton(MouseEvent event, Position position) {
         if (SwingUtilities.isLeftMouseButton(event))
-            this.revealCellAndUpdate(position);
+            this.play(new Move(Move.Type.REVEAL, position));
         else if (SwingUtilities.isRightMouseButton(event))
-            this.flagCellAndUpdate(position);
-    }
-
-    // Returns the position of the activated cell, null if there was no cell
-    // activated
-    private Position positionOfClick(GridView gridView, MouseEvent event) {
-        Point[][] centerPoints = gridView.centerPoints();
-        Point click = event.getPoint();
-
-        if (centerPoints == null)
-            return null;
-
-        // Compute position of clicked cell with euclidian distance from click
-        // to cell center
-        int minDist = Integer.MAX_VALUE;
-        int l = Integer.MAX_VALUE;
-        int c = Integer.MAX_VALUE;
-        for (int i = 0; i < centerPoints.length; i++) {
-            for (int j = 0; j < centerPoints[i].length; j++) {
-                Point center = centerPoints[i][j];
-                int dist = (int) center.distance(click);
-                if (dist < minDist) {
-                    minDist = dist;
-                    l = i;
-                    c = j;
-                }
-            }
-        }
-
-        if (minDist > gridView.sideLength())
-            return null;
-        return new Position(l, c);
+            this.play(new Move(Move.Type.FLAG, position));
+        else if (SwingUtilities.isMiddleMouseButton(event))
+            this.play(new Move(Move.Type.CHORD, position));
     }
 
     @Override
@@ -96,21 +131,13 @@ public class GameController extends MouseInputAdapter {
         if (!(src instanceof GridView))
             return;
 
-        if (!this.enabled)
+        if (!this.enabled())
             return;
 
         GridView gridView = (GridView) src;
-        Position pos = this.positionOfClick(gridView, event);
-        if (pos != null) {
-            if (!this.model.isMined()) {
-                List<Position> excluded = pos.neighbors();
-                excluded.add(pos);
-                this.model.placeMines(excluded);
-            }
+        Position pos = gridView.positionAt(event.getPoint());
+        if (pos != null)
             this.actionOnMouseButton(event, pos);
-        }
-        if (this.model.hasMineRevealed())
-            this.enabled = false;
     }
 
     @Override
@@ -119,33 +146,43 @@ public class GameController extends MouseInputAdapter {
         if (!(src instanceof GridView))
             return;
 
-        if (!this.enabled)
+        if (!this.enabled())
+            return;
+
+        if (!SwingUtilities.isLeftMouseButton(event))
             return;
 
         GridView gridView = (GridView) src;
-        Position pos = this.positionOfClick(gridView, event);
-        if (pos != null && SwingUtilities.isLeftMouseButton(event))
-            this.revealCellAndUpdate(pos);
-        if (this.model.hasMineRevealed())
-            this.enabled = false;
+        Position pos = gridView.positionAt(event.getPoint());
+        if (pos != null)
+            this.queueReveal(pos, gridView.model().width());
+    }
+
+    @Override
+    public void mousePressed(MouseEvent event) {
+        this.dragged.clear();
+    }
+
+    @Override
+    public void mouseReleased(MouseEvent event) {
+        if (this.enabled())
+            this.applyPending();
+        this.dragged.clear();
     }
 
     /**
-     * Sets the new model of this GameController.
+     * Sets the new model of this GameController, handed to its ModelThread.
      * @param model the new model
      */
     public void setModel(Game model) {
-        this.model = model;
-        this.model.notifyObservers();
-        this.setEnabled();
+        this.frameTimer.stop();
+        this.pending.clear();
+        this.dragged.clear();
+        this.modelThread.setGame(model);
     }
 
-    // Checks the state of the model and enables this GameController according
-    // to the result
-    private void setEnabled() {
-        if (this.model.hasMineRevealed())
-            this.enabled = false;
-        else
-            this.enabled = true;
+    // Returns true if the last snapshot of the model is not lost
+    private boolean enabled() {
+        return this.modelThread.snapshot().state() != GameState.LOST;
     }
 }
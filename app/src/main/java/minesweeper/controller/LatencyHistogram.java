@@ -0,0 +1,85 @@
+package minesweeper.controller;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A LatencyHistogram counts durations in buckets of powers of two
+ * nanoseconds: the bucket i holds the durations inside [2^i; 2^(i+1)), the
+ * bucket 0 also holding the durations of 0 nanoseconds. Recording a duration
+ * is a constant time and allocation free operation, so that it can be done on
+ * every input event, and the counts can be read from any thread.
+ */
+public class LatencyHistogram {
+
+    // The number of buckets, one by bit of a long.
+    private static final int BUCKETS = 64;
+
+    // The number of durations by bucket.
+    private final AtomicLongArray counts;
+
+    /**
+     * Class constructor of an empty LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+    }
+
+    /**
+     * Records the given duration.
+     * @param nanos the duration in nanoseconds, the negative ones being
+     *              recorded as 0
+     */
+    public void record(long nanos) {
+        this.counts.incrementAndGet(bucketOf(Math.max(nanos, 0L)));
+    }
+
+    // Returns the bucket of the duration of nanos nanoseconds
+    private static int bucketOf(long nanos) {
+        return nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * {@return the number of recorded durations}
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            total += this.counts.get(i);
+        return total;
+    }
+
+    /**
+     * {@return an upper bound in nanoseconds of the durations under which at
+     * least the given ratio of the recorded durations are, 0 if none was
+     * recorded}
+     * The bound is the upper limit of a bucket, precise within a factor 2.
+     * @param ratio the ratio of durations, inside [0; 1]
+     * @throws IllegalArgumentException if ratio is not inside [0; 1]
+     */
+    public long percentile(double ratio) {
+        if (!(ratio >= 0.0 && ratio <= 1.0)) {
+            throw new IllegalArgumentException(
+              String.format("Illegal ratio: %f", ratio));
+        }
+        long total = this.count();
+        if (total == 0)
+            return 0L;
+        long cumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulated += this.counts.get(i);
+            if (cumulated > 0 && cumulated >= ratio * total)
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (2L << i) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * {@return a summary of this histogram on one line, in microseconds}
+     */
+    public String summary() {
+        return String.format("%d inputs, input to model: median < %.1f us, "
+                + "99th percentile < %.1f us, max < %.1f us", this.count(),
+                this.percentile(0.5) / 1e3, this.percentile(0.99) / 1e3,
+                this.percentile(1.0) / 1e3);
+    }
+}
@@ -0,0 +1,304 @@
+package minesweeper.controller;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import minesweeper.model.ChangeObserver;
+import minesweeper.model.ChangeSet;
+import minesweeper.model.Game;
+import minesweeper.model.GameSnapshot;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.replay.MoveRecorder;
+
+/**
+ * A ModelThread owns a Game on a thread of its own, its single writer, so
+ * that the reveals, the floods and the placement of the mines never run on
+ * the thread of the inputs, such as the event dispatch thread.
+ *
+ * The moves are received through a queue: the batches queued while the
+ * previous one was played are played together as a single batch. After each
+ * batch that changes the Game, a new GameSnapshot is published: it is handed
+ * to the listener, on the model thread, and becomes the one returned by
+ * snapshot(), which can be read from any thread without locking.
+ *
+ * The time from the reception of each move to its application on the Game
+ * is recorded in a LatencyHistogram. The moves can also be recorded with
+ * their reception times by a MoveRecorder, once their snapshot is published,
+ * so that the writes of the log never delay the display of the moves: the
+ * start of a game is recorded with the seed of its grid once its mines are
+ * placed.
+ */
+public class ModelThread implements ChangeObserver, AutoCloseable {
+
+    // A command of the queue: a batch of moves received at the given times,
+    // or the replacement of the Game if moves is null, or the stop of the
+    // model thread if both are null.
+    private record Command(Game game, Move[] moves, long[] received) {
+    }
+
+    // The command that stops the model thread.
+    private static final Command STOP = new Command(null, null, null);
+
+    // The commands not executed yet.
+    private final BlockingQueue<Command> commands;
+
+    // Receives the published snapshots, on the model thread.
+    private final Consumer<GameSnapshot> listener;
+
+    // The times from the reception of the moves to their application.
+    private final LatencyHistogram latencies;
+
+    // The thread that owns the Game.
+    private final Thread thread;
+
+    // The last published snapshot.
+    private volatile GameSnapshot snapshot;
+
+    // The snapshot taken by the last update, not published yet, or null.
+    private GameSnapshot taken;
+
+    // The Game, read and written by the model thread only.
+    private Game game;
+
+    // The moves of the current batch, on the model thread.
+    private final List<Move> batch;
+
+    // The reception times of the moves of the current batch.
+    private long[] received;
+
+    // Records the played moves, or null.
+    private MoveRecorder recorder;
+
+    // Indicates if the start of the Game was recorded.
+    private boolean gameRecorded;
+
+    /**
+     * Class constructor that starts the model thread of the given Game.
+     * @param game the Game, not to be read or written by other threads from
+     *             now on
+     * @param listener receives each published snapshot, on the model thread
+     * @throws IllegalStateException if the board of game is not a Grid
+     * @throws NullPointerException if game or listener are null
+     */
+    public ModelThread(Game game, Consumer<GameSnapshot> listener) {
+        this(game, listener, null);
+    }
+
+    /**
+     * Class constructor that starts the model thread of the given Game,
+     * whose moves are recorded by the given recorder. The recorder is closed
+     * with this ModelThread.
+     * @param game the Game, not to be read or written by other threads from
+     *             now on
+     * @param listener receives each published snapshot, on the model thread
+     * @param recorder records the played moves, or null, not to be used by
+     *                 other threads from now on
+     * @throws IllegalStateException if the board of game is not a Grid
+     * @throws NullPointerException if game or listener are null
+     */
+    public ModelThread(Game game, Consumer<GameSnapshot> listener,
+            MoveRecorder recorder) {
+        this.commands = new LinkedBlockingQueue<>();
+        this.listener = Objects.requireNonNull(listener);
+        this.latencies = new LatencyHistogram();
+        this.snapshot = GameSnapshot.of(game);
+        this.batch = new ArrayList<>();
+        this.received = new long[16];
+        this.recorder = recorder;
+        this.commands.add(new Command(game, null, null));
+        this.thread = new Thread(this::run, "model");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues the given moves, to be played as a single batch. The moves
+     * outside of the board of the Game are ignored.
+     * @param moves the moves to play
+     * @param received the reception times of the moves, in nanoseconds as
+     *                 given by System.nanoTime(), at least as many as moves
+     * @throws NullPointerException if moves or received are null
+     */
+    public void submit(List<Move> moves, long[] received) {
+        this.commands.add(new Command(null, moves.toArray(new Move[0]),
+                Arrays.copyOf(received, moves.size())));
+    }
+
+    /**
+     * Queues the replacement of the Game, after the moves already queued.
+     * The snapshot of the new Game is published once it is replaced.
+     * @param game the new Game, not to be read or written by other threads
+     *             from now on
+     * @throws NullPointerException if game is null
+     */
+    public void setGame(Game game) {
+        this.commands.add(new Command(Objects.requireNonNull(game), null,
+                null));
+    }
+
+    /**
+     * {@return the last published snapshot of the Game}
+     */
+    public GameSnapshot snapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * {@return the times from the reception of the moves to their
+     * application on the Game}
+     */
+    public LatencyHistogram latencies() {
+        return this.latencies;
+    }
+
+    /**
+     * Stops the model thread once the commands already queued are executed,
+     * closes the recorder, if any, and waits for the model thread to end.
+     */
+    @Override
+    public void close() {
+        this.commands.add(STOP);
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Executes the commands until the stop, the moves queued together being
+    // played as a single batch
+    private void run() {
+        List<Command> drained = new ArrayList<>();
+        try {
+            boolean stopped = false;
+            while (!stopped) {
+                drained.add(this.commands.take());
+                this.commands.drainTo(drained);
+                for (Command command: drained) {
+                    if (command == STOP) {
+                        stopped = true;
+                        break;
+                    }
+                    if (command.moves() == null) {
+                        this.applyBatch();
+                        this.replaceGame(command.game());
+                    } else {
+                        this.append(command);
+                    }
+                }
+                this.applyBatch();
+                drained.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.stopRecording();
+        }
+    }
+
+    // Replaces the Game and publishes its snapshot
+    private void replaceGame(Game game) {
+        this.game = game;
+        this.gameRecorded = false;
+        game.add(this);
+        game.notifyObservers();
+        this.publish();
+    }
+
+    // Appends the moves of command inside of the board to the current batch
+    private void append(Command command) {
+        for (int i = 0; i < command.moves().length; i++) {
+            Move move = command.moves()[i];
+            if (!this.game.board().contains(move.position()))
+                continue;
+            int size = this.batch.size();
+            if (size == this.received.length)
+                this.received = Arrays.copyOf(this.received, 2 * size);
+            this.received[size] = command.received()[i];
+            this.batch.add(move);
+        }
+    }
+
+    // Plays the current batch, records the latencies of its moves and
+    // publishes the snapshot of its changes, then records the batch: a
+    // write of the recorder never delays the display of the moves
+    private void applyBatch() {
+        if (this.batch.isEmpty())
+            return;
+        this.game.applyBatch(this.batch);
+        long now = System.nanoTime();
+        for (int i = 0; i < this.batch.size(); i++)
+            this.latencies.record(now - this.received[i]);
+        this.publish();
+        this.recordBatch();
+        this.batch.clear();
+    }
+
+    // Records the moves of the current batch, after the start of the Game
+    // if it is not recorded yet, and writes them if the Game has ended. The
+    // recording is stopped if it fails.
+    private void recordBatch() {
+        if (this.recorder == null || !this.game.isMined())
+            return;
+        try {
+            if (!this.gameRecorded) {
+                Grid grid = this.game.grid();
+                this.recorder.startGame(grid.width(), grid.height(),
+                        grid.mines(), grid.seed(), this.received[0]);
+                this.gameRecorded = true;
+            }
+            for (int i = 0; i < this.batch.size(); i++)
+                this.recorder.record(this.batch.get(i), this.received[i]);
+            if (this.game.hasEnded())
+                this.recorder.flush();
+        } catch (IOException e) {
+            System.err.println("Recording stopped: " + e);
+            this.stopRecording();
+        }
+    }
+
+    // Closes the recorder, if any
+    private void stopRecording() {
+        if (this.recorder == null)
+            return;
+        try {
+            this.recorder.close();
+        } catch (IOException e) {
+            System.err.println("Recording stopped: " + e);
+        }
+        this.recorder = null;
+    }
+
+    // Publishes the snapshot taken by the last update, if any
+    private void publish() {
+        GameSnapshot next = this.taken;
+        if (next == null)
+            return;
+        this.taken = null;
+        this.snapshot = next;
+        this.listener.accept(next);
+    }
+
+    /**
+     * Takes the snapshot of the changes of the Game, if game is the current
+     * one, to be published once its batch is played. Called by the Game, on
+     * the model thread.
+     * @param game the Game
+     * @param changes the changes of game since the last update
+     */
+    @Override
+    public void update(Game game, ChangeSet changes) {
+        if (game != this.game)
+            return;
+        GameSnapshot last = this.taken == null ? this.snapshot : this.taken;
+        this.taken = last.next(game, changes);
+    }
+}
@@ -0,0 +1,74 @@
+package minesweeper.model;
+
+import java.util.List;
+
+/**
+ * A Board is the playing surface of a Game: cells located by positions that
+ * can be revealed and flagged, on which mines are placed once.
+ */
+public interface Board {
+
+    /**
+     * {@return true if the given position is inside this Board}
+     * @param position the position
+     * @throws NullPointerException if position is null
+     */
+    boolean contains(Position position);
+
+    /**
+     * {@return the cell at the given position}
+     * @param position the position of the cell to get
+     * @throws IllegalArgumentException if position is outside this Board
+     * @throws NullPointerException if position is null
+     */
+    Cell cellAt(Position position);
+
+    /**
+     * {@return true if the cell at the given position was indeed revealed}
+     * Revealing a safe cell without mines around also reveals its
+     * surroundings.
+     * @param position the position of the cell to reveal
+     * @throws IllegalArgumentException if position is outside this Board
+     * @throws NullPointerException if position is null
+     */
+    boolean revealCellAt(Position position);
+
+    /**
+     * {@return true if the cell at position was flagged and became hidden or
+     * was hidden and then became flagged}
+     * @param position the position of the cell to flag or unflag
+     * @throws IllegalArgumentException if position is outside this Board
+     * @throws NullPointerException if position is null
+     */
+    boolean flagCellAt(Position position);
+
+    /**
+     * Places the mines of this Board, excluding the positions provided.
+     * @param excluded a list of positions that won't be mined
+     * @throws NullPointerException if excluded is null
+     */
+    void placeMines(List<Position> excluded);
+
+    /**
+     * {@return true if the mines of this Board are placed}
+     */
+    boolean isMined();
+
+    /**
+     * {@return true if at least one of the revealed cells of this Board is
+     * mined}
+     */
+    boolean hasMineRevealed();
+
+    /**
+     * {@return true if all and only the safe cells of this Board are
+     * revealed}
+     */
+    boolean isCompleted();
+
+    /**
+     * {@return the number of mines of this Board minus the number of its
+     * flagged cells}
+     */
+    long unflaggedMines();
+}
@@ -0,0 +1,318 @@
+package minesweeper.model;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A BoardPool holds layouts of mines drawn ahead of time by a background
+ * thread, so that new games start without waiting for their generation, even
+ * with expensive generators.
+ *
+ * The pool keeps up to capacity layouts for each of the maxSettings most
+ * recently used (width, height, mines) settings, the least recently used
+ * ones being evicted. The layouts are generated with the mines out of a
+ * canonical start cell, the center of the grid, and its neighbors. On the
+ * first click of a game, its layout is translated cyclically so that the
+ * start cell lands on the clicked cell, which keeps the first click safe
+ * zone. A translated random layout is as random as a fresh one for a click
+ * away from the edges only. On an edge or a corner, the part of the 3x3
+ * start zone that wraps around stays free of mines on the opposite edges,
+ * up to 5 cells that a fresh layout could mine, and the layout never holds
+ * more than width * height - 9 mines where a fresh one excludes the
+ * in-bounds cells of the zone only. The properties of a layout that depend
+ * on the start cell, such as being solvable without guessing, only hold if
+ * the first click is on the start cell.
+ *
+ * Taking a game from the pool never blocks: without a layout ready, the
+ * game places its mines at random on its first click.
+ */
+public class BoardPool implements AutoCloseable {
+
+    /**
+     * The settings of the grids of a game.
+     * @param width the width of the grids
+     * @param height the height of the grids
+     * @param mines the number of mines of the grids
+     */
+    public record Settings(int width, int height, int mines) {
+
+        /**
+         * Class constructor that specifies the dimensions and the number of
+         * mines of the grids.
+         * @param width the width of the grids
+         * @param height the height of the grids
+         * @param mines the number of mines of the grids
+         * @throws IllegalArgumentException if width or height are inferior
+         *         or equal to 0, if mines is strictly inferior to 0 or if
+         *         mines is strictly superior to width * height
+         */
+        public Settings {
+            if (width <= 0 || height <= 0) {
+                throw new IllegalArgumentException(
+                  String.format("Illegal dimensions: %d, %d", width, height));
+            }
+            if (mines < 0 || mines > width * height) {
+                throw new IllegalArgumentException(
+                  String.format("Illegal number of mines: %d", mines));
+            }
+        }
+
+        /**
+         * {@return the start cell of the layouts of these settings}
+         */
+        public Position start() {
+            return new Position(this.height / 2, this.width / 2);
+        }
+    }
+
+    /**
+     * A Generator draws a layout of mines: a mined grid whose mines are out
+     * of the start cell and its neighbors.
+     */
+    @FunctionalInterface
+    public interface Generator {
+
+        /**
+         * {@return a grid of the given settings, mined out of start and its
+         * neighbors}
+         * @param settings the settings of the grid
+         * @param start the start cell
+         * @param seed the seed of the layout
+         */
+        Grid generate(Settings settings, Position start, long seed);
+    }
+
+    /**
+     * The Generator of random layouts, by Grid.placeMines().
+     */
+    public static final Generator RANDOM = (settings, start, seed) -> {
+        Grid grid = new Grid(settings.width(), settings.height(),
+                settings.mines());
+        grid.placeMines(Game.safeZone(start), seed);
+        return grid;
+    };
+
+    // The generator of the layouts.
+    private final Generator generator;
+
+    // The maximum number of layouts by settings.
+    private final int capacity;
+
+    // The maximum number of settings.
+    private final int maxSettings;
+
+    // The layouts by settings.
+    private final Map<Settings, Layouts> layouts;
+
+    // The clock of the uses of the settings.
+    private final AtomicLong clock;
+
+    // The number of games taken with a layout ready.
+    private final LongAdder hits;
+
+    // The number of games taken without a layout ready.
+    private final LongAdder misses;
+
+    // The thread that fills the pool.
+    private final Thread filler;
+
+    // Indicates if this BoardPool is closed.
+    private volatile boolean closed;
+
+    /**
+     * Class constructor that specifies the generator of the layouts, the
+     * number of layouts kept by settings and the number of settings kept.
+     * The background thread is started.
+     * @param generator the generator of the layouts
+     * @param capacity the maximum number of layouts by settings
+     * @param maxSettings the maximum number of settings
+     * @param seed the seed of the layouts
+     * @throws IllegalArgumentException if capacity or maxSettings are
+     *         inferior or equal to 0
+     * @throws NullPointerException if generator is null
+     */
+    public BoardPool(Generator generator, int capacity, int maxSettings,
+            long seed) {
+        this.generator = Objects.requireNonNull(generator);
+        if (capacity <= 0 || maxSettings <= 0) {
+            throw new IllegalArgumentException(String.format(
+              "Illegal capacity: %d, %d", capacity, maxSettings));
+        }
+        this.capacity = capacity;
+        this.maxSettings = maxSettings;
+        this.layouts = new ConcurrentHashMap<>();
+        this.clock = new AtomicLong();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        SplittableRandom random = new SplittableRandom(seed);
+        this.filler = new Thread(() -> this.fill(random), "board-pool");
+        this.filler.setDaemon(true);
+        this.filler.setPriority(Thread.MIN_PRIORITY);
+        this.filler.start();
+    }
+
+    /**
+     * {@return a new Game of the given settings, whose mines are placed from
+     * a layout of this BoardPool if one is ready, at random otherwise}
+     * Never blocks. The settings become the most recently used ones and the
+     * background thread is woken up to replace the taken layout.
+     * @param settings the settings of the game
+     * @throws NullPointerException if settings is null
+     */
+    public Game take(Settings settings) {
+        long use = this.clock.incrementAndGet();
+        Layouts entry = this.layouts.computeIfAbsent(settings,
+                s -> new Layouts(use));
+        entry.lastUse = use;
+        BitSet layout = entry.queue.poll();
+        LockSupport.unpark(this.filler);
+        Grid grid = new Grid(settings.width(), settings.height(),
+                settings.mines());
+        if (layout == null) {
+            this.misses.increment();
+            return new Game(grid);
+        }
+        entry.size.decrementAndGet();
+        this.hits.increment();
+        return new Game(grid, (g, firstClick) -> g.placeMines(
+                translate(layout, settings, firstClick)));
+    }
+
+    // Translates the mines of layout so that the start cell of settings
+    // lands on firstClick
+    private static BitSet translate(BitSet layout, Settings settings,
+            Position firstClick) {
+        int width = settings.width();
+        int height = settings.height();
+        Position start = settings.start();
+        int lineOffset = firstClick.line() - start.line() + height;
+        int columnOffset = firstClick.column() - start.column() + width;
+        BitSet res = new BitSet(width * height);
+        for (int i = layout.nextSetBit(0); i >= 0;
+                i = layout.nextSetBit(i + 1)) {
+            int line = (i / width + lineOffset) % height;
+            int column = (i % width + columnOffset) % width;
+            res.set(line * width + column);
+        }
+        return res;
+    }
+
+    // Generates layouts for the recently used settings until the pool is
+    // closed, sleeping while it is full
+    private void fill(SplittableRandom random) {
+        while (!this.closed) {
+            this.evict();
+            Settings settings = null;
+            Layouts entry = null;
+            long lastUse = Long.MIN_VALUE;
+            for (Map.Entry<Settings, Layouts> e: this.layouts.entrySet()) {
+                Layouts candidate = e.getValue();
+                if (candidate.size.get() < this.capacity
+                        && candidate.lastUse > lastUse) {
+                    settings = e.getKey();
+                    entry = candidate;
+                    lastUse = candidate.lastUse;
+                }
+            }
+            if (entry == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            Grid grid = this.generator.generate(settings, settings.start(),
+                    random.nextLong());
+            BitSet layout = new BitSet(settings.width() * settings.height());
+            for (int i = 0; i < settings.height(); i++) {
+                for (int j = 0; j < settings.width(); j++) {
+                    if (grid.cellAt(new Position(i, j)).isMined())
+                        layout.set(i * settings.width() + j);
+                }
+            }
+            entry.queue.add(layout);
+            entry.size.incrementAndGet();
+        }
+    }
+
+    // Removes the least recently used settings beyond maxSettings
+    private void evict() {
+        while (this.layouts.size() > this.maxSettings) {
+            Settings oldest = null;
+            long lastUse = Long.MAX_VALUE;
+            for (Map.Entry<Settings, Layouts> e: this.layouts.entrySet()) {
+                if (e.getValue().lastUse < lastUse) {
+                    oldest = e.getKey();
+                    lastUse = e.getValue().lastUse;
+                }
+            }
+            this.layouts.remove(oldest);
+        }
+    }
+
+    /**
+     * {@return the number of layouts ready for the given settings}
+     * @param settings the settings
+     */
+    public int available(Settings settings) {
+        Layouts entry = this.layouts.get(settings);
+        return entry == null ? 0 : entry.size.get();
+    }
+
+    /**
+     * {@return true if this BoardPool keeps layouts for the given settings}
+     * @param settings the settings
+     */
+    public boolean contains(Settings settings) {
+        return this.layouts.containsKey(settings);
+    }
+
+    /**
+     * {@return the number of games taken with a layout ready}
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * {@return the number of games taken without a layout ready}
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Stops the background thread of this BoardPool. The games already taken
+     * are not affected.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.filler);
+    }
+
+    // The layouts ready for settings.
+    private static final class Layouts {
+
+        // The layouts, as the indices of their mined cells.
+        private final ConcurrentLinkedQueue<BitSet> queue =
+            new ConcurrentLinkedQueue<>();
+
+        // The number of layouts in queue.
+        private final AtomicInteger size = new AtomicInteger();
+
+        // The clock of the last use of the settings.
+        private volatile long lastUse;
+
+        // Creates the layouts of settings used at the given clock, which is
+        // set before they are visible to the eviction of the filler
+        private Layouts(long lastUse) {
+            this.lastUse = lastUse;
+        }
+    }
+}
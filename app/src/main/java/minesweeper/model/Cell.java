@@ -6,7 +6,10 @@ import java.util.List;
 /**
  * A Cell represents an element of a grid. Located at a certain position, it can
  * be mined, holds the number of mines in the Cells around it and has a certain
- * visibility. 
+ * visibility.
+ * The state of a Cell is packed in a single byte. The cells of a Grid are thin
+ * views over the packed states stored by the Grid, any modification of such a
+ * Cell is reflected on its Grid and on its counters.
  */
 public class Cell {
 
@@ -20,17 +23,33 @@ public class Cell {
      */
     public static final int MAX_MINES_AROUND = 8;
 
-    // The visibility of this Cell.
-    private Visibility visibility;
+    // Bits of a packed state holding the number of mines around.
+    static final int MINES_AROUND_MASK = 0x0F;
 
-    // The number of mines around this Cell.
-    private int minesAround;
+    // Offset of the bits of a packed state holding the visibility.
+    static final int VISIBILITY_SHIFT = 4;
 
-    // Indicates if this Cell is mined or not.
-    private boolean isMined;
+    // Bits of a packed state holding the visibility.
+    static final int VISIBILITY_MASK = 0x30;
+
+    // Bit of a packed state indicating if the cell is mined.
+    static final int MINED_BIT = 0x40;
+
+    // The visibilities, indexed by ordinal, to avoid the copy of values().
+    private static final Visibility[] VISIBILITIES = Visibility.values();
+
+    // The counters of the board of this Cell, null if this Cell does not
+    // belong to a board.
+    private final CellCounters counters;
+
+    // The packed states, one of them is the state of this Cell.
+    private final byte[] states;
+
+    // The index of the state of this Cell in states.
+    private final int index;
 
     // The position of this Cell.
-    private Position position;
+    private final Position position;
 
     /**
      * Class constructor that specifies visibility, number of mines around, a
@@ -54,31 +73,95 @@ public class Cell {
             throw new IllegalArgumentException(
               String.format("Illegal number of mines around: %d", minesAround));
         }
-        this.visibility = visibility;
-        this.minesAround = minesAround;
-        this.isMined = isMined;
+        this.counters = null;
+        this.states = new byte[] {pack(visibility, minesAround, isMined)};
+        this.index = 0;
+        this.position = position;
+    }
+
+    /**
+     * Class constructor of a view over the state at index in the packed states
+     * of a board. The changes of the new Cell are counted by the given
+     * counters.
+     * @param states the packed states of the board
+     * @param index the index of the state of the new Cell
+     * @param position the position of the new Cell
+     * @param counters the counters of the board
+     */
+    Cell(byte[] states, int index, Position position, CellCounters counters) {
+        this.counters = counters;
+        this.states = states;
+        this.index = index;
         this.position = position;
     }
 
+    /**
+     * {@return the packed state of a cell}
+     * @param visibility the visibility of the cell
+     * @param minesAround the number of mines around the cell
+     * @param isMined true if the cell is mined
+     */
+    static byte pack(Visibility visibility, int minesAround, boolean isMined) {
+        int state = minesAround
+            | (visibility.ordinal() << VISIBILITY_SHIFT);
+        if (isMined)
+            state |= MINED_BIT;
+        return (byte) state;
+    }
+
+    /**
+     * {@return the visibility held by the given packed state}
+     * @param state the packed state
+     */
+    static Visibility visibilityOf(int state) {
+        return VISIBILITIES[(state & VISIBILITY_MASK) >> VISIBILITY_SHIFT];
+    }
+
+    /**
+     * {@return the packed state with its visibility replaced}
+     * @param state the packed state
+     * @param visibility the new visibility
+     */
+    static byte withVisibility(int state, Visibility visibility) {
+        return (byte) ((state & ~VISIBILITY_MASK)
+                | (visibility.ordinal() << VISIBILITY_SHIFT));
+    }
+
+    /**
+     * {@return the number of mines around held by the given packed state}
+     * @param state the packed state
+     */
+    static int minesAroundOf(int state) {
+        return state & MINES_AROUND_MASK;
+    }
+
+    /**
+     * {@return true if the given packed state is mined}
+     * @param state the packed state
+     */
+    static boolean isMinedState(int state) {
+        return (state & MINED_BIT) != 0;
+    }
+
     /**
      * {@return the visibility of this Cell}
      */
     public Visibility visibility() {
-        return this.visibility;
+        return visibilityOf(this.states[this.index]);
     }
 
     /**
      * {@return the number of mines around this Cell}
      */
     public int minesAround() {
-        return this.minesAround;
+        return minesAroundOf(this.states[this.index]);
     }
 
     /**
      * {@return true if this Cell is mined, false otherwise}
      */
     public boolean isMined() {
-        return this.isMined;
+        return isMinedState(this.states[this.index]);
     }
 
     /**
@@ -92,7 +175,18 @@ public class Cell {
      * Places a mine on this Cell.
      */
     public void mine() {
-        this.isMined = true;
+        if (this.isMined())
+            return;
+        this.states[this.index] |= MINED_BIT;
+        if (this.counters != null)
+            this.counters.mined(this.visibility());
+    }
+
+    // Replaces the visibility of this Cell and notifies its grid
+    private void setVisibility(Visibility from, Visibility to) {
+        this.states[this.index] = withVisibility(this.states[this.index], to);
+        if (this.counters != null)
+            this.counters.visibilityChanged(this.isMined(), from, to);
     }
 
     /**
@@ -101,8 +195,8 @@ public class Cell {
      * @return true if this Cell was indeed revealed, false otherwise.
      */
     public boolean reveal() {
-        if (this.visibility == Visibility.HIDDEN) {
-            this.visibility = Visibility.REVEALED;
+        if (this.isHidden()) {
+            this.setVisibility(Visibility.HIDDEN, Visibility.REVEALED);
             return true;
         }
         return false;
@@ -114,15 +208,15 @@ public class Cell {
      * a Cell, does nothing.
      */
     void incrementMinesAround() {
-        if (this.minesAround < MAX_MINES_AROUND)
-            this.minesAround++;
+        if (this.minesAround() < MAX_MINES_AROUND)
+            this.states[this.index]++;
     }
 
     /**
      * {@return true if the visibility of this Cell is Visibility.HIDDEN}
      */
     public boolean isHidden() {
-        return this.visibility == Visibility.HIDDEN;
+        return this.visibility() == Visibility.HIDDEN;
     }
 
     /**
@@ -137,11 +231,12 @@ public class Cell {
      * and became hidden, false otherwise}
      */
     public boolean flag() {
-        if (this.visibility == Visibility.FLAGGED) {
-            this.visibility = Visibility.HIDDEN;
+        Visibility visibility = this.visibility();
+        if (visibility == Visibility.FLAGGED) {
+            this.setVisibility(Visibility.FLAGGED, Visibility.HIDDEN);
             return true;
-        } else if (this.visibility == Visibility.HIDDEN) {
-            this.visibility = Visibility.FLAGGED;
+        } else if (visibility == Visibility.HIDDEN) {
+            this.setVisibility(Visibility.HIDDEN, Visibility.FLAGGED);
             return true;
         }
         return false;
@@ -151,13 +246,33 @@ public class Cell {
      * {@return true if the visibility of this Cell is Visibility.REVEALED}
      */
     public boolean isRevealed() {
-        return this.visibility == Visibility.REVEALED;
+        return this.visibility() == Visibility.REVEALED;
     }
 
     /**
      * {@return true if the visibility of this Cell is Visibility.FLAGGED}
      */
     public boolean isFlagged() {
-        return this.visibility == Visibility.FLAGGED;
+        return this.visibility() == Visibility.FLAGGED;
+    }
+
+    /**
+     * {@return true if the given object is a Cell viewing the same state as
+     * this Cell}
+     * @param obj the object to compare with
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof Cell))
+            return false;
+        Cell other = (Cell) obj;
+        return this.states == other.states && this.index == other.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(this.states) + this.index;
     }
 }
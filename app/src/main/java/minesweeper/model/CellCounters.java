@@ -0,0 +1,96 @@
+package minesweeper.model;
+
+/**
+ * Counts the mined, revealed and flagged cells of a board. The counters are
+ * updated on every change of the state of a cell of the board, so that the
+ * completion of the board and the revelation of a mine are known in constant
+ * time.
+ */
+final class CellCounters {
+
+    // The number of mined cells.
+    private long minedCells;
+
+    // The number of revealed safe cells.
+    private long revealedSafeCells;
+
+    // The number of revealed mined cells.
+    private long revealedMinedCells;
+
+    // The number of flagged cells.
+    private long flaggedCells;
+
+    /**
+     * Resets every counter to 0.
+     */
+    void reset() {
+        this.minedCells = 0;
+        this.revealedSafeCells = 0;
+        this.revealedMinedCells = 0;
+        this.flaggedCells = 0;
+    }
+
+    /**
+     * Updates the counters after a cell of the given visibility has been
+     * mined.
+     * @param visibility the visibility of the newly mined cell
+     */
+    void mined(Visibility visibility) {
+        this.minedCells++;
+        if (visibility == Visibility.REVEALED) {
+            this.revealedSafeCells--;
+            this.revealedMinedCells++;
+        }
+    }
+
+    /**
+     * Updates the counters after the visibility of a cell has changed.
+     * @param mined true if the cell is mined
+     * @param from the previous visibility of the cell
+     * @param to the new visibility of the cell
+     */
+    void visibilityChanged(boolean mined, Visibility from, Visibility to) {
+        this.count(from, mined, -1);
+        this.count(to, mined, 1);
+    }
+
+    // Adds delta to the counter of the cells of the given visibility
+    private void count(Visibility visibility, boolean mined, int delta) {
+        if (visibility == Visibility.FLAGGED) {
+            this.flaggedCells += delta;
+        } else if (visibility == Visibility.REVEALED) {
+            if (mined)
+                this.revealedMinedCells += delta;
+            else
+                this.revealedSafeCells += delta;
+        }
+    }
+
+    /**
+     * {@return the number of mined cells}
+     */
+    long minedCells() {
+        return this.minedCells;
+    }
+
+    /**
+     * {@return the number of revealed safe cells}
+     */
+    long revealedSafeCells() {
+        return this.revealedSafeCells;
+    }
+
+    /**
+     * {@return the number of revealed mined cells}
+     */
+    long revealedMinedCells() {
+        return this.revealedMinedCells;
+    }
+
+    /**
+     * {@return the number of flagged cells}
+     */
+    long flaggedCells() {
+        return this.flaggedCells;
+    }
+}
@@ -0,0 +1,27 @@
+package minesweeper.model;
+
+/**
+ * A ChangeObserver is an Observer that consumes the changes of the observed
+ * Game rather than its whole state.
+ */
+@FunctionalInterface
+public interface ChangeObserver extends Observer {
+
+    /**
+     * Updates this ChangeObserver with the changes of the observed Game.
+     * @param game the new state of the observed Game
+     * @param changes the changes of the observed Game since the last update
+     */
+    @Override
+    void update(Game game, ChangeSet changes);
+
+    /**
+     * Updates this ChangeObserver with a full ChangeSet, any cell of the
+     * observed Game being possibly changed.
+     * @param game the new state of the observed Game
+     */
+    @Override
+    default void update(Game game) {
+        this.update(game, ChangeSet.full(game.state()));
+    }
+}
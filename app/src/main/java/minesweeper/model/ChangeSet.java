@@ -0,0 +1,59 @@
+package minesweeper.model;
+
+/**
+ * A ChangeSet describes the changes of a Game between two notifications of
+ * its observers: the cells whose visibility changed, the change of its
+ * number of flags and the transition of its state. It is built from the
+ * changes reported by the Grid as they happen, without scanning it.
+ *
+ * A full ChangeSet does not list the changed cells: any cell may have
+ * changed, as when the observers are notified outside of a batch of moves or
+ * when the board of the Game is not a Grid.
+ * @param changedCells the indices of the cells whose visibility changed, in
+ *                     the order of their changes, empty if full
+ * @param flagsDelta the change of the number of flagged cells
+ * @param previous the state of the Game before the changes
+ * @param state the state of the Game after the changes
+ * @param full true if any cell may have changed
+ */
+public record ChangeSet(int[] changedCells, long flagsDelta,
+        GameState previous, GameState state, boolean full) {
+
+    /**
+     * {@return a full ChangeSet of a Game in the given state}
+     * @param state the state of the Game
+     */
+    public static ChangeSet full(GameState state) {
+        return new ChangeSet(new int[0], 0L, state, state, true);
+    }
+
+    /**
+     * {@return true if the Game started with these changes}
+     */
+    public boolean started() {
+        return this.previous == GameState.NOT_STARTED
+            && this.state != GameState.NOT_STARTED;
+    }
+
+    /**
+     * {@return true if the Game was won with these changes}
+     */
+    public boolean won() {
+        return this.previous != GameState.WON && this.state == GameState.WON;
+    }
+
+    /**
+     * {@return true if the Game was lost with these changes}
+     */
+    public boolean lost() {
+        return this.previous != GameState.LOST
+            && this.state == GameState.LOST;
+    }
+
+    /**
+     * {@return true if the Game ended with these changes}
+     */
+    public boolean ended() {
+        return this.won() || this.lost();
+    }
+}
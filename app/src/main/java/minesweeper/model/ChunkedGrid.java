@@ -0,0 +1,512 @@
+package minesweeper.model;
+
+import java.math.BigInteger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A ChunkedGrid is a grid split into square chunks of CHUNK_SIZE cells of side,
+ * meant for boards far larger than a Grid can hold. A chunk is materialized
+ * only when one of its cells is touched by a reveal, a flag or the count of the
+ * mines around a neighbor cell, so that the memory used by a ChunkedGrid is
+ * proportional to its explored area rather than to its area.
+ * The mines of a chunk are placed when the chunk is materialized, from the
+ * seed of the ChunkedGrid and the index of the chunk. Each chunk receives its
+ * share of the mines in proportion of its number of cells, so the layout does
+ * not depend on the order in which the chunks are touched.
+ */
+public class ChunkedGrid implements Board {
+
+    /**
+     * The side length of a chunk, in cells.
+     */
+    public static final int CHUNK_SIZE = 64;
+
+    // The width of this ChunkedGrid.
+    private final int width;
+
+    // The height of this ChunkedGrid.
+    private final int height;
+
+    // The number of mines to place on this ChunkedGrid.
+    private final long mines;
+
+    // The number of chunks on a line of chunks.
+    private final int chunkColumns;
+
+    // The materialized chunks, by index.
+    private final Map<Long, Chunk> chunks;
+
+    // The counters of the mined, revealed and flagged materialized cells.
+    private final CellCounters counters;
+
+    // The excluded positions of the placement of mines, by chunk index.
+    private final Map<Long, List<Position>> excludedByChunk;
+
+    // The last chunk accessed, checked before looking chunks up.
+    private Chunk lastChunk;
+
+    // Indicates if mines have been placed on this ChunkedGrid.
+    private boolean isMined;
+
+    // The seed of the placement of mines on this ChunkedGrid.
+    private long seed;
+
+    // The number of mines placed on this ChunkedGrid.
+    private long minesPlaced;
+
+    // The packed positions of the cells left to explore by a flood.
+    private long[] floodStack;
+
+    // The number of positions in floodStack.
+    private int floodSize;
+
+    // A materialized chunk, the packed states of its cells are stored in
+    // row-major order.
+    private static final class Chunk {
+
+        // The index of this Chunk.
+        final long key;
+
+        // The line of the first cell of this Chunk.
+        final int firstLine;
+
+        // The column of the first cell of this Chunk.
+        final int firstColumn;
+
+        // The number of columns of this Chunk.
+        final int width;
+
+        // The number of lines of this Chunk.
+        final int height;
+
+        // The packed states of the cells of this Chunk.
+        final byte[] states;
+
+        // Indicates if the mines around the cells of this Chunk are counted.
+        boolean counted;
+
+        Chunk(long key, int firstLine, int firstColumn, int width,
+                int height) {
+            this.key = key;
+            this.firstLine = firstLine;
+            this.firstColumn = firstColumn;
+            this.width = width;
+            this.height = height;
+            this.states = new byte[width * height];
+            this.counted = false;
+        }
+
+        // Returns the index in states of the cell at (line, column)
+        int indexOf(int line, int column) {
+            return (line - this.firstLine) * this.width
+                + column - this.firstColumn;
+        }
+    }
+
+    /**
+     * Class constructor that specifies the dimensions of the new ChunkedGrid
+     * and the number of mines on the ChunkedGrid. No chunk is materialized and
+     * no mine is placed, call placeMines() in order to place them.
+     * @param width the width of the new ChunkedGrid
+     * @param height the height of the new ChunkedGrid
+     * @param mines the number of mines to place on the new ChunkedGrid
+     * @throws IllegalArgumentException if width, height or mines are strictly
+     *         inferior to 0 or if mines is strictly superior to width * height
+     */
+    public ChunkedGrid(int width, int height, long mines) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal dimensions: %d, %d", width, height));
+        }
+        if (mines < 0 || mines > (long) width * height) {
+            throw new IllegalArgumentException(
+              String.format("Illegal number of mines: %d", mines));
+        }
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+        this.chunkColumns = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunks = new HashMap<>();
+        this.counters = new CellCounters();
+        this.excludedByChunk = new HashMap<>();
+        this.lastChunk = null;
+        this.isMined = false;
+        this.minesPlaced = 0L;
+        this.floodStack = new long[64];
+    }
+
+    /**
+     * Generates the mines of this ChunkedGrid from a random seed.
+     * @param excluded a list of positions that won't be mined
+     */
+    public void placeMines(List<Position> excluded) {
+        this.placeMines(excluded, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Generates the mines of this ChunkedGrid from the given seed. The mines
+     * of the chunks already materialized are placed immediately, the ones of
+     * the other chunks when they are materialized. If a chunk has less cells
+     * that are not excluded than its share of mines, every one of them is
+     * mined.
+     * @param excluded a list of positions that won't be mined
+     * @param seed the seed of the random generation
+     * @throws NullPointerException if excluded is null
+     */
+    public void placeMines(List<Position> excluded, long seed) {
+        Objects.requireNonNull(excluded);
+        this.isMined = true;
+        this.seed = seed;
+        this.excludedByChunk.clear();
+        for (Position position: excluded) {
+            if (position.line() < this.height
+                    && position.column() < this.width) {
+                this.excludedByChunk.computeIfAbsent(
+                  this.chunkKey(position.line(), position.column()),
+                  k -> new ArrayList<>()).add(position);
+            }
+        }
+        this.minesPlaced = this.mines;
+        for (Long key: this.excludedByChunk.keySet()) {
+            Chunk chunk = this.newChunk(key);
+            int free = chunk.states.length - this.excludedCells(chunk)
+                .cardinality();
+            this.minesPlaced -= Math.max(0, this.chunkMines(chunk) - free);
+        }
+        for (Chunk chunk: this.chunks.values()) {
+            this.placeChunkMines(chunk);
+            chunk.counted = false;
+        }
+    }
+
+    /**
+     * {@return the seed of the placement of mines on this ChunkedGrid}
+     * Meaningless if this ChunkedGrid is not mined.
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    // Returns the index of the chunk holding the cell at (line, column)
+    private long chunkKey(int line, int column) {
+        return (long) (line / CHUNK_SIZE) * this.chunkColumns
+            + column / CHUNK_SIZE;
+    }
+
+    // Creates the chunk of the given index, without materializing it
+    private Chunk newChunk(long key) {
+        int firstLine = (int) (key / this.chunkColumns) * CHUNK_SIZE;
+        int firstColumn = (int) (key % this.chunkColumns) * CHUNK_SIZE;
+        return new Chunk(key, firstLine, firstColumn,
+                Math.min(CHUNK_SIZE, this.width - firstColumn),
+                Math.min(CHUNK_SIZE, this.height - firstLine));
+    }
+
+    // Returns the chunk holding the cell at (line, column), materializing it
+    // and placing its mines if needed
+    private Chunk chunkAt(int line, int column) {
+        long key = this.chunkKey(line, column);
+        Chunk chunk = this.lastChunk;
+        if (chunk != null && chunk.key == key)
+            return chunk;
+        chunk = this.chunks.get(key);
+        if (chunk == null) {
+            chunk = this.newChunk(key);
+            if (this.isMined)
+                this.placeChunkMines(chunk);
+            this.chunks.put(key, chunk);
+        }
+        this.lastChunk = chunk;
+        return chunk;
+    }
+
+    // Returns the chunk holding the cell at (line, column), with the mines
+    // around its cells counted
+    private Chunk countedChunkAt(int line, int column) {
+        Chunk chunk = this.chunkAt(line, column);
+        if (!chunk.counted) {
+            this.countMinesAround(chunk);
+            this.lastChunk = chunk;
+        }
+        return chunk;
+    }
+
+    // Returns the number of mines of the given chunk, its share of the mines
+    // of this ChunkedGrid
+    private int chunkMines(Chunk chunk) {
+        long chunkLine = chunk.key / this.chunkColumns;
+        long chunkColumn = chunk.key % this.chunkColumns;
+        long before = chunkLine * CHUNK_SIZE * this.width
+            + chunkColumn * CHUNK_SIZE * chunk.height;
+        long after = before + chunk.states.length;
+        return (int) (this.share(after) - this.share(before));
+    }
+
+    // Returns the share of the mines of this ChunkedGrid of the given number
+    // of cells, rounded down
+    private long share(long cells) {
+        return BigInteger.valueOf(this.mines)
+            .multiply(BigInteger.valueOf(cells))
+            .divide(BigInteger.valueOf((long) this.width * this.height))
+            .longValue();
+    }
+
+    // Returns the cells of the given chunk that can not be mined
+    private BitSet excludedCells(Chunk chunk) {
+        BitSet excluded = new BitSet(chunk.states.length);
+        List<Position> positions = this.excludedByChunk.get(chunk.key);
+        if (positions != null) {
+            for (Position position: positions)
+                excluded.set(chunk.indexOf(position.line(),
+                                position.column()));
+        }
+        return excluded;
+    }
+
+    // Places the mines of the given chunk
+    private void placeChunkMines(Chunk chunk) {
+        BitSet excluded = this.excludedCells(chunk);
+        int free = chunk.states.length - excluded.cardinality();
+        int[] indices = MinePlacer.randomIndices(
+                Math.min(this.chunkMines(chunk), free), chunk.states.length,
+                excluded, new SplittableRandom(
+                  MinePlacer.derivedSeed(this.seed, chunk.key)));
+        for (int index: indices) {
+            if (Cell.isMinedState(chunk.states[index]))
+                continue;
+            chunk.states[index] |= Cell.MINED_BIT;
+            this.counters.mined(Cell.visibilityOf(chunk.states[index]));
+        }
+    }
+
+    // Counts the mines around the cells of the given chunk, looking at the
+    // mines of the neighbor chunks
+    private void countMinesAround(Chunk chunk) {
+        for (int i = 0; i < chunk.states.length; i++)
+            chunk.states[i] &= ~Cell.MINES_AROUND_MASK;
+        int firstLine = Math.max(chunk.firstLine - 1, 0);
+        int lastLine = Math.min(chunk.firstLine + chunk.height,
+                this.height - 1);
+        int firstColumn = Math.max(chunk.firstColumn - 1, 0);
+        int lastColumn = Math.min(chunk.firstColumn + chunk.width,
+                this.width - 1);
+        for (int i = firstLine; i <= lastLine; i++) {
+            for (int j = firstColumn; j <= lastColumn; j++) {
+                Chunk owner = this.chunkAt(i, j);
+                if (Cell.isMinedState(owner.states[owner.indexOf(i, j)]))
+                    this.countMine(chunk, i, j);
+            }
+        }
+        chunk.counted = true;
+    }
+
+    // Counts the mine at (line, column) around its neighbors inside chunk
+    private void countMine(Chunk chunk, int line, int column) {
+        int firstLine = Math.max(line - 1, chunk.firstLine);
+        int lastLine = Math.min(line + 1, chunk.firstLine + chunk.height - 1);
+        int firstColumn = Math.max(column - 1, chunk.firstColumn);
+        int lastColumn = Math.min(column + 1,
+                chunk.firstColumn + chunk.width - 1);
+        for (int i = firstLine; i <= lastLine; i++) {
+            for (int j = firstColumn; j <= lastColumn; j++) {
+                if (i != line || j != column)
+                    chunk.states[chunk.indexOf(i, j)]++;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(Position position) {
+        return position.line() < this.height && position.column() < this.width;
+    }
+
+    // Throws an exception if position is outside this ChunkedGrid
+    private void checkBounds(Position position) {
+        Objects.requireNonNull(position);
+        if (!this.contains(position))
+            throw new IllegalArgumentException("Illegal position: " + position);
+    }
+
+    /**
+     * {@return the cell at the given position}
+     * The returned Cell is a view over the state stored by this ChunkedGrid.
+     * @param position the position of the cell to get
+     * @throws IllegalArgumentException if position is outside this ChunkedGrid
+     * @throws NullPointerException if position is null
+     */
+    public Cell cellAt(Position position) {
+        this.checkBounds(position);
+        Chunk chunk = this.countedChunkAt(position.line(), position.column());
+        return new Cell(chunk.states,
+                chunk.indexOf(position.line(), position.column()), position,
+                this.counters);
+    }
+
+    /**
+     * {@return true if the cell at the given position was indeed revealed}
+     * @param position the position of the cell to reveal
+     * @throws IllegalArgumentException if position is outside this ChunkedGrid
+     * @throws NullPointerException if position is null
+     */
+    public boolean revealCellAt(Position position) {
+        this.checkBounds(position);
+        int line = position.line();
+        int column = position.column();
+        if (!this.reveal(line, column))
+            return false;
+        Chunk chunk = this.countedChunkAt(line, column);
+        byte state = chunk.states[chunk.indexOf(line, column)];
+        if (Cell.minesAroundOf(state) == 0 && !Cell.isMinedState(state))
+            this.flood(line, column);
+        return true;
+    }
+
+    // Reveals the cell at (line, column) if it is hidden, returns true if it
+    // was indeed revealed
+    private boolean reveal(int line, int column) {
+        Chunk chunk = this.countedChunkAt(line, column);
+        int index = chunk.indexOf(line, column);
+        byte state = chunk.states[index];
+        if (Cell.visibilityOf(state) != Visibility.HIDDEN)
+            return false;
+        chunk.states[index] = Cell.withVisibility(state, Visibility.REVEALED);
+        this.counters.visibilityChanged(Cell.isMinedState(state),
+                Visibility.HIDDEN, Visibility.REVEALED);
+        return true;
+    }
+
+    // Reveals surroundings of the empty cell at (line, column) if they are
+    // hidden and not mined and propagates to the empty ones
+    private void flood(int line, int column) {
+        this.floodSize = 0;
+        this.pushFlood(line, column);
+        while (this.floodSize > 0) {
+            long cur = this.floodStack[--this.floodSize];
+            int l = (int) (cur >>> 32);
+            int c = (int) cur;
+            int lastLine = Math.min(l + 1, this.height - 1);
+            int lastColumn = Math.min(c + 1, this.width - 1);
+            for (int i = Math.max(l - 1, 0); i <= lastLine; i++) {
+                for (int j = Math.max(c - 1, 0); j <= lastColumn; j++) {
+                    Chunk chunk = this.countedChunkAt(i, j);
+                    byte state = chunk.states[chunk.indexOf(i, j)];
+                    if (Cell.isMinedState(state) || !this.reveal(i, j))
+                        continue;
+                    if (Cell.minesAroundOf(state) == 0)
+                        this.pushFlood(i, j);
+                }
+            }
+        }
+    }
+
+    // Pushes the packed position (line, column) on the flood stack, growing
+    // it if needed
+    private void pushFlood(int line, int column) {
+        if (this.floodSize == this.floodStack.length) {
+            this.floodStack = Arrays.copyOf(this.floodStack,
+                    2 * this.floodStack.length);
+        }
+        this.floodStack[this.floodSize++] = ((long) line << 32) | column;
+    }
+
+    /**
+     * {@return true if the cell at position was flagged and became hidden or
+     * was hidden and then became flagged}
+     * @param position the position of the cell to flag or unflag
+     * @throws IllegalArgumentException if position is outside this ChunkedGrid
+     * @throws NullPointerException if position is null
+     */
+    public boolean flagCellAt(Position position) {
+        return this.cellAt(position).flag();
+    }
+
+    /**
+     * {@return the height of this ChunkedGrid}
+     */
+    public int height() {
+        return this.height;
+    }
+
+    /**
+     * {@return the width of this ChunkedGrid}
+     */
+    public int width() {
+        return this.width;
+    }
+
+    /**
+     * {@return the number of mines to place on this ChunkedGrid}
+     */
+    public long mines() {
+        return this.mines;
+    }
+
+    /**
+     * {@return the number of mines placed on this ChunkedGrid, once every
+     * chunk is materialized}
+     * Note that this number might be different than the number of mines
+     * provided at construction.
+     */
+    public long minesPlaced() {
+        return this.minesPlaced;
+    }
+
+    /**
+     * {@return true if this ChunkedGrid is mined}
+     */
+    public boolean isMined() {
+        return this.isMined;
+    }
+
+    /**
+     * {@return the number of materialized chunks of this ChunkedGrid}
+     */
+    public int materializedChunks() {
+        return this.chunks.size();
+    }
+
+    /**
+     * {@return the number of revealed safe cells of this ChunkedGrid}
+     */
+    public long revealedSafeCells() {
+        return this.counters.revealedSafeCells();
+    }
+
+    @Override
+    public long unflaggedMines() {
+        return this.mines - this.counters.flaggedCells();
+    }
+
+    /**
+     * {@return the number of flagged cells of this ChunkedGrid}
+     */
+    public long flaggedCells() {
+        return this.counters.flaggedCells();
+    }
+
+    /**
+     * {@return true if at least one of the revealed cells of this ChunkedGrid
+     * is mined}
+     */
+    public boolean hasMineRevealed() {
+        return this.counters.revealedMinedCells() > 0;
+    }
+
+    /**
+     * {@return true if all and only the safe cells of this ChunkedGrid are
+     * revealed}
+     */
+    public boolean isCompleted() {
+        return this.counters.revealedMinedCells() == 0
+            && this.counters.revealedSafeCells()
+               == (long) this.width * this.height - this.minesPlaced;
+    }
+}
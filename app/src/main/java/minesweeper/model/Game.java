@@ -1,9 +1,10 @@
 package minesweeper.model;
 
-import minesweeper.view.Observer;
-
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a game of minesweeper.
@@ -55,16 +56,25 @@ public class Game implements Observable {
      */
     public static final int MAX_MINES = MAX_HEIGHT * MAX_WIDTH;
 
-    // The grid of this Game
-    private final Grid grid;
+    // The board of this Game
+    private final Board board;
 
     // The observers of this Game.
     private final List<Observer> observers;
 
-    /**
-     * The number of unflagged mines on the grid of this Game.
-     */
-    private int unflaggedMines;
+    // Places the mines of the grid on the first move, or null to let the
+    // board place them at random.
+    private final MineLayout layout;
+
+    // The indices of the cells whose visibility changed during the current
+    // move.
+    private int[] changes;
+
+    // The number of indices in changes.
+    private int changesSize;
+
+    // Records the changes of visibility of the grid during a move.
+    private final IntConsumer changeRecorder;
 
     /**
      * Indicates if this Game has started.
@@ -91,32 +101,75 @@ public class Game implements Observable {
      * number of mines.
      */
     public Game() {
-        this.grid = new Grid(DEFAULT_WIDTH, DEFAULT_HEIGHT, DEFAULT_MINES);
-        this.observers = new ArrayList<>();
-        this.unflaggedMines = DEFAULT_MINES;
-        this.startTime = -1L;
-        this.started = false;
-        this.ended = false;
+        this(new Grid(DEFAULT_WIDTH, DEFAULT_HEIGHT, DEFAULT_MINES));
     }
 
     /**
-     * Class constructor specifying grid.
-     * @param grid the grid of the new Game
+     * Class constructor specifying board, such as a Grid, a ChunkedGrid or an
+     * InfiniteBoard.
+     * @param board the board of the new Game
      */
-    public Game(Grid grid) {
-        this.grid = grid;
+    public Game(Board board) {
+        this(board, null);
+    }
+
+    /**
+     * Class constructor specifying the dimensions and the number of mines of
+     * the grid of the new Game, and the seed of the placement of its mines.
+     * Two Games created with the same arguments and given the same moves
+     * have the same boards.
+     * @param width the width of the grid
+     * @param height the height of the grid
+     * @param mines the number of mines of the grid
+     * @param seed the seed of the placement of the mines
+     * @throws IllegalArgumentException if width, height or mines are
+     *         strictly inferior to 0 or if mines is strictly superior to
+     *         width * height
+     */
+    public Game(int width, int height, int mines, long seed) {
+        this(new Grid(width, height, mines),
+                (grid, firstClick) -> grid.placeMines(
+                    safeZone(firstClick), seed));
+    }
+
+    /**
+     * Class constructor specifying grid and the layout that places its mines
+     * on the first move.
+     * @param grid the grid of the new Game, not mined yet
+     * @param layout the layout of the mines of grid
+     * @throws NullPointerException if grid or layout are null
+     */
+    public Game(Grid grid, MineLayout layout) {
+        this((Board) grid, Objects.requireNonNull(layout));
+    }
+
+    // Class constructor specifying board and the layout of its mines
+    private Game(Board board, MineLayout layout) {
+        this.board = Objects.requireNonNull(board);
         this.observers = new ArrayList<>();
-        this.unflaggedMines = this.grid.mines();
+        this.layout = layout;
+        this.changes = new int[16];
+        this.changeRecorder = this::recordChange;
         this.startTime = -1L;
         this.started = false;
         this.ended = false;
     }
 
+    /**
+     * {@return the board of this Game}
+     */
+    public Board board() {
+        return this.board;
+    }
+
     /**
      * {@return the grid of this Game}
+     * @throws IllegalStateException if the board of this Game is not a Grid
      */
     public Grid grid() {
-        return this.grid;
+        if (!(this.board instanceof Grid))
+            throw new IllegalStateException("The board is not a Grid");
+        return (Grid) this.board;
     }
 
     @Override
@@ -124,44 +177,45 @@ public class Game implements Observable {
         this.observers.add(observer);
     }
 
+    /**
+     * Notifies every observer of an update of this Game, with a full
+     * ChangeSet: any cell may have changed.
+     */
     @Override
     public void notifyObservers() {
+        this.notifyObservers(ChangeSet.full(this.state()));
+    }
+
+    // Notifies every observer of the given changes of this Game
+    private void notifyObservers(ChangeSet changes) {
         for (Observer observer: this.observers) {
-            observer.update(this);
+            observer.update(this, changes);
         }
     }
 
     /**
-     * {@return true if at least one of the revealed cells of the grid of this
-     * Game is mined}
+     * {@return true if at least one of the revealed cells of the board of
+     * this Game is mined}
      */
     public boolean hasMineRevealed() {
-        return this.grid.hasMineRevealed();
+        return this.board.hasMineRevealed();
     }
 
     /**
      * {@return true if the cell at the given position was indeed revealed}
      * @param position the position of the cell to reveal
-     * @throws IllegalArgumentException if position is not inside the grid of
+     * @throws IllegalArgumentException if position is not inside the board of
      *                                  this Game
      * @throws NullPointerException if position is null
      */
     public boolean revealCellAt(Position position) {
         if (this.ended)
             return false;
-        boolean res = this.grid.revealCellAt(position);
-        if (!this.started) {
-            this.started = true;
-            this.ended = false;
-            this.startTime = System.currentTimeMillis();
-        }
-        if (res) {
-            Cell cell = this.grid.cellAt(position);
-            if (cell.isMined() || this.grid.isCompleted()) {
-                this.endTime = System.currentTimeMillis();
-                this.ended = true;
-            }
-        }
+        this.placeMinesAround(position);
+        boolean res = this.board.revealCellAt(position);
+        this.start();
+        if (res)
+            this.checkEnd();
         return res;
     }
 
@@ -173,55 +227,256 @@ public class Game implements Observable {
     public boolean flagCellAt(Position position) {
         if (this.ended)
             return false;
-        boolean res = this.grid.flagCellAt(position);
-        if (res) {
-            Cell cell = this.grid.cellAt(position);
-            if (cell.isFlagged())
-                this.unflaggedMines--;
-            else
-                this.unflaggedMines++;
+        this.placeMinesAround(position);
+        boolean res = this.board.flagCellAt(position);
+        this.start();
+        return res;
+    }
+
+    /**
+     * Chords the cell at the given position: if it is revealed and as many of
+     * its neighbors are flagged as there are mines around it, its hidden
+     * neighbors are revealed.
+     * @param position the position of the cell to chord
+     * @return true if at least one cell was revealed
+     * @throws IllegalArgumentException if position is not inside the board of
+     *                                  this Game
+     * @throws NullPointerException if position is null
+     */
+    public boolean chordCellAt(Position position) {
+        if (this.ended || !this.board.isMined())
+            return false;
+        Cell cell = this.board.cellAt(position);
+        if (cell.visibility() != Visibility.REVEALED || cell.isMined())
+            return false;
+        List<Position> neighbors = new ArrayList<>();
+        int flagged = 0;
+        for (Position neighbor: position.neighbors()) {
+            if (!this.board.contains(neighbor))
+                continue;
+            Visibility visibility = this.board.cellAt(neighbor).visibility();
+            if (visibility == Visibility.FLAGGED)
+                flagged++;
+            else if (visibility == Visibility.HIDDEN)
+                neighbors.add(neighbor);
         }
-        if (!started) {
-            started = true;
-            startTime = System.currentTimeMillis();
+        if (flagged != cell.minesAround())
+            return false;
+        boolean res = false;
+        for (Position neighbor: neighbors)
+            res |= this.board.revealCellAt(neighbor);
+        if (res)
+            this.checkEnd();
+        return res;
+    }
+
+    /**
+     * Plays the given move on this Game. The observers are not notified.
+     * @param move the move to play
+     * @return the result of the move, with the indices of the cells whose
+     *         visibility changed if the board of this Game is a Grid
+     * @throws IllegalArgumentException if the position of move is not inside
+     *                                  the board of this Game
+     * @throws NullPointerException if move is null
+     */
+    public MoveResult play(Move move) {
+        return this.playAll(List.of(move));
+    }
+
+    /**
+     * Plays the given moves on this Game in order, then notifies the
+     * observers once, with the ChangeSet of the batch, if at least one of
+     * them changed a cell or the state of this Game. The positions of
+     * the moves are checked before any of them is played, so that a batch
+     * with a position outside the board changes nothing. The moves played
+     * after the end of this Game change nothing.
+     * @param moves the moves to play
+     * @return the result of the batch, with the indices of the cells whose
+     *         visibility changed during the batch, in the order of their
+     *         changes, if the board of this Game is a Grid
+     * @throws IllegalArgumentException if the position of a move is not
+     *                                  inside the board of this Game
+     * @throws NullPointerException if moves is null or holds null
+     */
+    public MoveResult applyBatch(List<Move> moves) {
+        for (Move move: moves) {
+            if (!this.board.contains(move.position())) {
+                throw new IllegalArgumentException(
+                  "Illegal position: " + move.position());
+            }
+        }
+        GameState previous = this.state();
+        long unflagged = this.board.unflaggedMines();
+        MoveResult res = this.playAll(moves);
+        if (res.changed() || res.state() != previous) {
+            this.notifyObservers(new ChangeSet(res.changedCells(),
+                    unflagged - this.board.unflaggedMines(), previous,
+                    res.state(), !(this.board instanceof Grid)));
         }
         return res;
     }
 
+    // Plays moves in order, recording the changes of visibility of the grid
+    private MoveResult playAll(List<Move> moves) {
+        Grid grid = this.board instanceof Grid ? (Grid) this.board : null;
+        this.changesSize = 0;
+        if (grid != null)
+            grid.setVisibilityListener(this.changeRecorder);
+        boolean changed = false;
+        try {
+            for (Move move: moves) {
+                changed |= switch (move.type()) {
+                    case REVEAL -> this.revealCellAt(move.position());
+                    case FLAG -> this.flagCellAt(move.position());
+                    case CHORD -> this.chordCellAt(move.position());
+                };
+            }
+        } finally {
+            if (grid != null)
+                grid.setVisibilityListener(null);
+        }
+        return new MoveResult(changed, this.state(),
+                Arrays.copyOf(this.changes, this.changesSize));
+    }
+
+    // Appends index to the changes of the current move
+    private void recordChange(int index) {
+        if (this.changesSize == this.changes.length)
+            this.changes = Arrays.copyOf(this.changes, 2 * this.changesSize);
+        this.changes[this.changesSize++] = index;
+    }
+
+    // Places the mines of the board if it is not mined yet, out of position
+    // and its neighbors so that the first move is safe
+    private void placeMinesAround(Position position) {
+        if (this.board.isMined() || !this.board.contains(position))
+            return;
+        if (this.layout != null)
+            this.layout.placeMines((Grid) this.board, position);
+        else
+            this.board.placeMines(safeZone(position));
+    }
+
+    /**
+     * {@return the positions that are kept free of mines by a first move at
+     * the given position: the position and its neighbors}
+     * @param position the position of the first move
+     * @throws NullPointerException if position is null
+     */
+    public static List<Position> safeZone(Position position) {
+        List<Position> res = position.neighbors();
+        res.add(position);
+        return res;
+    }
+
+    /**
+     * {@return a keyframe of the current state of this Game, to be restored
+     * by restore()}
+     * @throws IllegalStateException if the board of this Game is not a Grid
+     */
+    public GameKeyframe keyframe() {
+        return new GameKeyframe(this.grid(), this.started, this.ended,
+                this.startTime, this.endTime);
+    }
+
     /**
-     * {@return true if the grid of this Game is mined}
+     * Restores the state of this Game from the given keyframe: the
+     * visibilities of the cells of its grid, its start and its end. The
+     * keyframe may have been taken on another Game whose grid has the same
+     * mines, such as a Game of the same settings and seed whose first move
+     * was the same, so that several Games can share the keyframes of one. The
+     * observers are not notified.
+     * @param keyframe a keyframe taken on this Game, or on another Game with
+     *                 the same mines
+     * @throws IllegalArgumentException if keyframe was taken on another Game
+     *         whose grid does not have the same mines
+     * @throws IllegalStateException if the board of this Game is not a Grid
+     * @throws NullPointerException if keyframe is null
+     */
+    public void restore(GameKeyframe keyframe) {
+        if (keyframe.grid() != this.board
+                && !this.grid().hasSameMines(keyframe.grid()))
+            throw new IllegalArgumentException("Keyframe of another game");
+        this.grid().unpackVisibilities(keyframe.visibilities());
+        this.started = keyframe.started();
+        this.ended = keyframe.ended();
+        this.startTime = keyframe.startTime();
+        this.endTime = keyframe.endTime();
+    }
+
+    // Starts this Game if it has not started yet
+    private void start() {
+        if (!this.started) {
+            this.started = true;
+            this.startTime = System.currentTimeMillis();
+        }
+    }
+
+    // Ends this Game if a mine is revealed or its board is completed
+    private void checkEnd() {
+        if (this.board.hasMineRevealed() || this.board.isCompleted()) {
+            this.endTime = System.currentTimeMillis();
+            this.ended = true;
+        }
+    }
+
+    /**
+     * {@return the state of this Game}
+     */
+    public GameState state() {
+        if (!this.started)
+            return GameState.NOT_STARTED;
+        if (!this.ended)
+            return GameState.PLAYING;
+        return this.board.hasMineRevealed() ? GameState.LOST : GameState.WON;
+    }
+
+    /**
+     * {@return true if the board of this Game is mined}
      */
     public boolean isMined() {
-        return this.grid.isMined();
+        return this.board.isMined();
     }
 
     /**
-     * Places the number of mines to place on the grid of this Game at random
+     * Places the number of mines to place on the board of this Game at random
      * positions, excluding the positions provided.
      * @param excluded a list of positions that won't be selected
      */
     public void placeMines(List<Position> excluded) {
-        this.grid.placeMines(excluded);
+        this.board.placeMines(excluded);
     }
 
     /**
-     * {@return the number of unflagged mines on the grid of this Game}
+     * {@return the number of unflagged mines on the board of this Game}
      */
-    public int unflaggedMines() {
-        return this.unflaggedMines;
+    public long unflaggedMines() {
+        return this.board.unflaggedMines();
     }
 
     /**
-     * {@return the game time in seconds, -1 if this Game has not started}
+     * {@return the game time in seconds, up to now if this Game has not
+     * ended, -1 if it has not started}
      */
     public long gameTime() {
         if (!this.started)
             return -1L;
-        return (endTime - startTime) / 1000L;
+        return this.gameTimeMillis() / 1000L;
+    }
+
+    /**
+     * {@return the game time in milliseconds, up to now if this Game has not
+     * ended, -1 if it has not started}
+     */
+    public long gameTimeMillis() {
+        if (!this.started)
+            return -1L;
+        long end = this.ended ? this.endTime : System.currentTimeMillis();
+        return end - this.startTime;
     }
 
     /**
-     * {@return true if the grid of this Game has a mine revealed or all and
+     * {@return true if the board of this Game has a mine revealed or all and
      * only the safe cells have been revealed}
      */
     public boolean hasEnded() {
@@ -0,0 +1,96 @@
+package minesweeper.model;
+
+/**
+ * A GameKeyframe is the state of a Game at one point, to be restored later
+ * on the same Game or on a Game with the same mines: the visibilities of the
+ * cells of its grid, packed on two bits by cell, and its start and end. The
+ * mines are not held: they do not change once placed. A GameKeyframe is
+ * immutable and can be restored from several threads.
+ */
+public final class GameKeyframe {
+
+    // The grid the keyframe was taken on.
+    private final Grid grid;
+
+    // The packed visibilities of the cells of the grid.
+    private final long[] visibilities;
+
+    // Indicates if the Game had started.
+    private final boolean started;
+
+    // Indicates if the Game had ended.
+    private final boolean ended;
+
+    // The start time of the Game.
+    private final long startTime;
+
+    // The end time of the Game.
+    private final long endTime;
+
+    /**
+     * Class constructor.
+     * @param grid the grid the keyframe is taken on
+     * @param started true if the Game has started
+     * @param ended true if the Game has ended
+     * @param startTime the start time of the Game
+     * @param endTime the end time of the Game
+     */
+    GameKeyframe(Grid grid, boolean started, boolean ended, long startTime,
+            long endTime) {
+        this.grid = grid;
+        this.visibilities = grid.packVisibilities();
+        this.started = started;
+        this.ended = ended;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    /**
+     * {@return the grid this keyframe was taken on}
+     */
+    Grid grid() {
+        return this.grid;
+    }
+
+    /**
+     * {@return the packed visibilities of the cells of the grid}
+     */
+    long[] visibilities() {
+        return this.visibilities;
+    }
+
+    /**
+     * {@return true if the Game had started}
+     */
+    boolean started() {
+        return this.started;
+    }
+
+    /**
+     * {@return true if the Game had ended}
+     */
+    boolean ended() {
+        return this.ended;
+    }
+
+    /**
+     * {@return the start time of the Game}
+     */
+    long startTime() {
+        return this.startTime;
+    }
+
+    /**
+     * {@return the end time of the Game}
+     */
+    long endTime() {
+        return this.endTime;
+    }
+
+    /**
+     * {@return the size of the packed visibilities, in bytes}
+     */
+    public int packedBytes() {
+        return this.visibilities.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,189 @@
+package minesweeper.model;
+
+import java.util.Objects;
+
+/**
+ * A GameSnapshot is an immutable copy of what a player can see of a Game at
+ * one point: the packed states of the cells of its grid, the mines and the
+ * numbers of mines around of the cells that are not revealed being hidden,
+ * with the ChangeSet that led to it and a version number increased by each
+ * new snapshot. It can be read from any thread without synchronization once
+ * it is published.
+ *
+ * A snapshot is derived from the previous one by copying its packed states
+ * and updating its changed cells only, so that taking a snapshot after a
+ * move costs a copy of one byte by cell.
+ */
+public final class GameSnapshot {
+
+    // The version of this snapshot.
+    private final long version;
+
+    // The width of the grid.
+    private final int width;
+
+    // The height of the grid.
+    private final int height;
+
+    // The packed states of the cells, in row-major order, masked to their
+    // visibility if they are not revealed.
+    private final byte[] states;
+
+    // The changes of the Game since the previous snapshot.
+    private final ChangeSet changes;
+
+    // The number of unflagged mines of the Game.
+    private final long unflaggedMines;
+
+    // The game time of the Game in milliseconds, -1 if it has not started.
+    private final long gameTimeMillis;
+
+    // Class constructor of the snapshot of game
+    private GameSnapshot(long version, Grid grid, byte[] states,
+            ChangeSet changes, Game game) {
+        this.version = version;
+        this.width = grid.width();
+        this.height = grid.height();
+        this.states = states;
+        this.changes = changes;
+        this.unflaggedMines = game.unflaggedMines();
+        this.gameTimeMillis = game.gameTimeMillis();
+    }
+
+    /**
+     * {@return the first snapshot of the given Game, of version 0}
+     * @param game the Game
+     * @throws IllegalStateException if the board of game is not a Grid
+     * @throws NullPointerException if game is null
+     */
+    public static GameSnapshot of(Game game) {
+        Grid grid = game.grid();
+        byte[] states = new byte[grid.width() * grid.height()];
+        for (int i = 0; i < states.length; i++)
+            states[i] = visibleState(grid, i);
+        return new GameSnapshot(0L, grid, states,
+                ChangeSet.full(game.state()), game);
+    }
+
+    /**
+     * {@return the snapshot of the given Game after the given changes, whose
+     * version follows the one of this snapshot}
+     * Only the changed cells are read from the grid, unless changes is full
+     * or the dimensions of the grid differ from the ones of this snapshot.
+     * @param game the Game
+     * @param changes the changes of game since this snapshot was taken
+     * @throws IllegalStateException if the board of game is not a Grid
+     * @throws NullPointerException if game or changes are null
+     */
+    public GameSnapshot next(Game game, ChangeSet changes) {
+        Objects.requireNonNull(changes);
+        Grid grid = game.grid();
+        byte[] states;
+        if (changes.full() || grid.width() != this.width
+                || grid.height() != this.height) {
+            states = new byte[grid.width() * grid.height()];
+            for (int i = 0; i < states.length; i++)
+                states[i] = visibleState(grid, i);
+        } else {
+            states = this.states.clone();
+            for (int index: changes.changedCells())
+                states[index] = visibleState(grid, index);
+        }
+        return new GameSnapshot(this.version + 1, grid, states, changes,
+                game);
+    }
+
+    // Returns the packed state of the cell at index of grid, masked to its
+    // visibility if it is not revealed
+    private static byte visibleState(Grid grid, int index) {
+        byte state = grid.stateAt(index);
+        if (Cell.visibilityOf(state) == Visibility.REVEALED)
+            return state;
+        return (byte) (state & Cell.VISIBILITY_MASK);
+    }
+
+    /**
+     * {@return the version of this snapshot}
+     */
+    public long version() {
+        return this.version;
+    }
+
+    /**
+     * {@return the width of the grid}
+     */
+    public int width() {
+        return this.width;
+    }
+
+    /**
+     * {@return the height of the grid}
+     */
+    public int height() {
+        return this.height;
+    }
+
+    /**
+     * {@return the changes of the Game since the previous snapshot}
+     */
+    public ChangeSet changes() {
+        return this.changes;
+    }
+
+    /**
+     * {@return the state of the Game}
+     */
+    public GameState state() {
+        return this.changes.state();
+    }
+
+    /**
+     * {@return the number of unflagged mines of the Game}
+     */
+    public long unflaggedMines() {
+        return this.unflaggedMines;
+    }
+
+    /**
+     * {@return the game time of the Game in milliseconds when this snapshot
+     * was taken, -1 if it had not started}
+     */
+    public long gameTimeMillis() {
+        return this.gameTimeMillis;
+    }
+
+    /**
+     * {@return the visibility of the cell at the given index}
+     * @param index the index of the cell
+     * @throws IllegalArgumentException if index is outside the grid
+     */
+    public Visibility visibilityAt(int index) {
+        return Cell.visibilityOf(this.stateAt(index));
+    }
+
+    /**
+     * {@return true if the cell at the given index is revealed and mined}
+     * @param index the index of the cell
+     * @throws IllegalArgumentException if index is outside the grid
+     */
+    public boolean isMinedAt(int index) {
+        return Cell.isMinedState(this.stateAt(index));
+    }
+
+    /**
+     * {@return the number of mines around the cell at the given index if it
+     * is revealed, 0 otherwise}
+     * @param index the index of the cell
+     * @throws IllegalArgumentException if index is outside the grid
+     */
+    public int minesAroundAt(int index) {
+        return Cell.minesAroundOf(this.stateAt(index));
+    }
+
+    // Returns the packed state of the cell at index
+    private byte stateAt(int index) {
+        if (index < 0 || index >= this.states.length)
+            throw new IllegalArgumentException("Illegal index: " + index);
+        return this.states[index];
+    }
+}
@@ -0,0 +1,27 @@
+package minesweeper.model;
+
+/**
+ * The GameState represents the progress of a Game.
+ */
+public enum GameState {
+
+    /**
+     * No move has been made.
+     */
+    NOT_STARTED,
+
+    /**
+     * At least one move has been made and the game has not ended.
+     */
+    PLAYING,
+
+    /**
+     * All and only the safe cells have been revealed.
+     */
+    WON,
+
+    /**
+     * A mine has been revealed.
+     */
+    LOST;
+}
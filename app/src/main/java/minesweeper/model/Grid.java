@@ -1,18 +1,23 @@
 package minesweeper.model;
 
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Objects;
-import java.util.Deque;
-import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
 
 import java.awt.Dimension;
 
 /**
  * A Grid encapsulates cells placed in order to form a grid of certain width and
- * height.
+ * height. The state of the cells is packed in a byte array in row-major order,
+ * the cell at (line, column) being at index line * width + column.
+ * A Grid maintains counters of its revealed, flagged and mined cells, updated
+ * on every change of its cells, so that its completion and the revelation of a
+ * mine are known in constant time.
  */
-public class Grid {
+public class Grid implements Board {
 
     // The width of this Grid.
     private final int width;
@@ -20,8 +25,8 @@ public class Grid {
     // The height of this Grid.
     private final int height;
 
-    // The cells of this Grid.
-    private final List<Cell> cells;
+    // The packed states of the cells of this Grid, in row-major order.
+    private final byte[] states;
 
     // The number of mines to place on this Grid.
     private final int mines;
@@ -29,6 +34,27 @@ public class Grid {
     // Indicates if mines have been placed on this Grid
     private boolean isMined;
 
+    // The seed of the last placement of mines on this Grid.
+    private long seed;
+
+    // The counters of the mined, revealed and flagged cells of this Grid.
+    private final CellCounters counters;
+
+    // Indicates if the counters are checked against a scan of the cells.
+    private boolean consistencyChecked;
+
+    // The indices of the cells left to explore by a flood, reused by floods.
+    private int[] floodStack;
+
+    // The number of indices in floodStack.
+    private int floodSize;
+
+    // Visitor of the neighbors of a newly mined cell.
+    private final IntConsumer mineCounter;
+
+    // Receives the index of every cell whose visibility changes, or null.
+    private IntConsumer visibilityListener;
+
     /**
      * Class constructor that specifies the dimensions of the new Grid and the
      * number of mines on the Grid. The Grid is not initialized with the given
@@ -53,7 +79,11 @@ public class Grid {
         this.height = height;
         this.mines = mines;
         this.isMined = false;
-        this.cells = new ArrayList<>(nbCells);
+        this.states = new byte[nbCells];
+        this.counters = new CellCounters();
+        this.floodStack = new int[Math.min(nbCells, 64)];
+        this.mineCounter = this::incrementMinesAround;
+        this.visibilityListener = null;
         this.initializeCells();
     }
 
@@ -68,59 +98,209 @@ public class Grid {
     }
 
     /**
-     * Clears the cells of this Grid and adds width * height new hidden safe
-     * cells.
+     * Resets the width * height cells of this Grid to hidden safe cells.
      */
     public void initializeCells() {
-        this.cells.clear();
-        for (int i = 0; i < this.height; i++) {
-            for (int j = 0; j < this.width; j++) {
-                Position pos = new Position(i, j);
-                this.cells.add(new Cell(Visibility.HIDDEN, 0, false, pos));
-            }
-        }
+        Arrays.fill(this.states, Cell.pack(Visibility.HIDDEN, 0, false));
         this.isMined = false;
+        this.counters.reset();
     }
 
     /**
      * Generates mines random positions and places a mine at each generated
-     * position.
+     * position. The seed of the placement is drawn at random.
      * @param excluded a list of positions that won't be selected
      */
     public void placeMines(List<Position> excluded) {
+        this.placeMines(excluded, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Generates mines random positions from the given seed and places a mine
+     * at each generated position. Placing mines with the same seed and
+     * excluded positions on a new Grid of the same dimensions and number of
+     * mines generates the same board. If there are less positions that are
+     * not excluded than mines to place, every one of them is mined.
+     * @param excluded a list of positions that won't be selected
+     * @param seed the seed of the random generation
+     * @throws NullPointerException if excluded is null
+     */
+    public void placeMines(List<Position> excluded, long seed) {
+        Objects.requireNonNull(excluded);
+        this.isMined = true;
+        this.seed = seed;
+        BitSet excludedCells = new BitSet(this.states.length);
+        for (Position position: excluded) {
+            if (position.line() < this.height
+                    && position.column() < this.width)
+                excludedCells.set(this.indexOf(position));
+        }
+        int candidates = this.states.length - excludedCells.cardinality();
+        int[] indices = MinePlacer.randomIndices(
+                Math.min(this.mines, candidates), this.states.length,
+                excludedCells, new SplittableRandom(seed));
+        for (int mineIndex: indices)
+            this.mine(mineIndex);
+    }
+
+    /**
+     * Places a mine on each cell whose index is set in mined, for the
+     * layouts drawn ahead of time. The seed of this Grid is left unchanged.
+     * @param mined the indices of the cells to mine
+     * @throws IndexOutOfBoundsException if an index of mined is outside this
+     *         Grid
+     * @throws NullPointerException if mined is null
+     */
+    public void placeMines(BitSet mined) {
+        if (mined.length() > this.states.length) {
+            throw new IndexOutOfBoundsException(
+              String.format("Illegal mined index: %d", mined.length() - 1));
+        }
         this.isMined = true;
-        List<Position> positions = Position.randomPositions(this.mines,
-                this.height, this.width, excluded);
-        for (Position position: positions) {
-            Cell cell = this.cellAt(position);
-            cell.mine();
-            List<Position> neighbors = position.neighbors();
-            for (Position pos: neighbors) {
-                if (pos.inBounds(this.width, this.height)) {
-                    Cell neighbor = this.cellAt(pos);
-                    neighbor.incrementMinesAround();
-                }
+        for (int i = mined.nextSetBit(0); i >= 0; i = mined.nextSetBit(i + 1))
+            this.mine(i);
+    }
+
+    // Places a mine on the cell at index if it is not mined yet
+    private void mine(int index) {
+        if (Cell.isMinedState(this.states[index]))
+            return;
+        this.states[index] |= Cell.MINED_BIT;
+        this.counters.mined(Cell.visibilityOf(this.states[index]));
+        this.forEachNeighbor(index, this.mineCounter);
+    }
+
+    /**
+     * {@return the seed of the last placement of mines on this Grid}
+     * Meaningless if this Grid is not mined.
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    // Increments the number of mines around the cell at index, up to the
+    // maximum number of mines around a cell
+    private void incrementMinesAround(int index) {
+        if (Cell.minesAroundOf(this.states[index]) < Cell.MAX_MINES_AROUND)
+            this.states[index]++;
+    }
+
+    /**
+     * Performs the given action on the index of every neighbor of the cell at
+     * index that is inside this Grid. Does not allocate: prefer it to
+     * {@code Position.neighbors()} in loops.
+     * @param index the index of the cell
+     * @param action the action to perform on the index of each neighbor
+     * @throws IllegalArgumentException if index is outside this Grid
+     * @throws NullPointerException if action is null
+     */
+    public void forEachNeighbor(int index, IntConsumer action) {
+        Objects.requireNonNull(action);
+        if (index < 0 || index >= this.states.length)
+            throw new IllegalArgumentException("Illegal index: " + index);
+        int line = index / this.width;
+        int column = index % this.width;
+        int firstLine = Math.max(line - 1, 0);
+        int lastLine = Math.min(line + 1, this.height - 1);
+        int firstColumn = Math.max(column - 1, 0);
+        int lastColumn = Math.min(column + 1, this.width - 1);
+        for (int i = firstLine; i <= lastLine; i++) {
+            int lineStart = i * this.width;
+            for (int j = firstColumn; j <= lastColumn; j++) {
+                if (i != line || j != column)
+                    action.accept(lineStart + j);
             }
         }
     }
 
     /**
-     * {@return the cell at the given position}
-     * @param position the position of the cell to get
+     * {@return true if the given position is inside this Grid}
+     * @param position the position
+     * @throws NullPointerException if position is null
+     */
+    @Override
+    public boolean contains(Position position) {
+        return position.line() < this.height && position.column() < this.width;
+    }
+
+    /**
+     * {@return the index of the cell at the given position}
+     * @param position the position of the cell
      * @throws IllegalArgumentException if position is outside this Grid
-     * @throws IllegalStateException if position is valid and no cell was found
-     *                               at that position
      * @throws NullPointerException if position is null
      */
-    public Cell cellAt(Position position) {
+    public int indexOf(Position position) {
         Objects.requireNonNull(position);
         if (position.line() >= this.height || position.column() >= this.width)
             throw new IllegalArgumentException("Illegal position: " + position);
-        for (Cell cell: this.cells) {
-            if (cell.position().equals(position))
-                return cell;
-        }
-        throw new IllegalStateException("No Cell found at " + position);
+        return position.line() * this.width + position.column();
+    }
+
+    /**
+     * {@return the position of the cell at the given index}
+     * @param index the index of the cell
+     * @throws IllegalArgumentException if index is outside this Grid
+     */
+    public Position positionOf(int index) {
+        if (index < 0 || index >= this.states.length)
+            throw new IllegalArgumentException("Illegal index: " + index);
+        return new Position(index / this.width, index % this.width);
+    }
+
+    /**
+     * {@return true if the cell at the given index is mined}
+     * Does not allocate: prefer it to {@code cellAt()} in loops.
+     * @param index the index of the cell
+     * @throws IllegalArgumentException if index is outside this Grid
+     */
+    public boolean isMinedAt(int index) {
+        if (index < 0 || index >= this.states.length)
+            throw new IllegalArgumentException("Illegal index: " + index);
+        return Cell.isMinedState(this.states[index]);
+    }
+
+    /**
+     * {@return the visibility of the cell at the given index}
+     * Does not allocate: prefer it to {@code cellAt()} in loops.
+     * @param index the index of the cell
+     * @throws IllegalArgumentException if index is outside this Grid
+     */
+    public Visibility visibilityAt(int index) {
+        if (index < 0 || index >= this.states.length)
+            throw new IllegalArgumentException("Illegal index: " + index);
+        return Cell.visibilityOf(this.states[index]);
+    }
+
+    /**
+     * {@return the number of mines around the cell at the given index}
+     * Does not allocate: prefer it to {@code cellAt()} in loops.
+     * @param index the index of the cell
+     * @throws IllegalArgumentException if index is outside this Grid
+     */
+    public int minesAroundAt(int index) {
+        if (index < 0 || index >= this.states.length)
+            throw new IllegalArgumentException("Illegal index: " + index);
+        return Cell.minesAroundOf(this.states[index]);
+    }
+
+    /**
+     * {@return the packed state of the cell at the given index}
+     * @param index the index of the cell, inside this Grid
+     */
+    byte stateAt(int index) {
+        return this.states[index];
+    }
+
+    /**
+     * {@return the cell at the given position}
+     * The returned Cell is a view over the state stored by this Grid.
+     * @param position the position of the cell to get
+     * @throws IllegalArgumentException if position is outside this Grid
+     * @throws NullPointerException if position is null
+     */
+    public Cell cellAt(Position position) {
+        return new Cell(this.states, this.indexOf(position), position,
+                this.counters);
     }
 
     /**
@@ -136,9 +316,17 @@ public class Grid {
      * provided at construction.
      */
     public int minesPlaced() {
+        if (this.consistencyChecked)
+            this.checkCounter("mines placed", this.counters.minedCells(),
+                    this.scanMinesPlaced());
+        return (int) this.counters.minedCells();
+    }
+
+    // Counts the mined cells of this Grid
+    int scanMinesPlaced() {
         int total = 0;
-        for (Cell cell: this.cells) {
-            if (cell.isMined())
+        for (byte state: this.states) {
+            if (Cell.isMinedState(state))
                 total++;
         }
         return total;
@@ -151,38 +339,171 @@ public class Grid {
      * @throws NullPointerException if position is null
      */
     public boolean revealCellAt(Position position) {
-        Objects.requireNonNull(position);
-        Cell cell = this.cellAt(position);
-        if (cell.reveal()) {
-            this.flood(cell);
+        int index = this.indexOf(position);
+        if (this.reveal(index)) {
+            this.flood(index);
             return true;
         }
         return false;
     }
 
+    // Reveals the cell at index if it is hidden, returns true if it was
+    // indeed revealed
+    private boolean reveal(int index) {
+        if (Cell.visibilityOf(this.states[index]) != Visibility.HIDDEN)
+            return false;
+        this.setVisibility(index, Visibility.HIDDEN, Visibility.REVEALED);
+        return true;
+    }
+
+    // Replaces the visibility of the cell at index, updates the counters and
+    // notifies the visibility listener
+    private void setVisibility(int index, Visibility from, Visibility to) {
+        byte state = this.states[index];
+        this.states[index] = Cell.withVisibility(state, to);
+        this.counters.visibilityChanged(Cell.isMinedState(state), from, to);
+        if (this.visibilityListener != null)
+            this.visibilityListener.accept(index);
+    }
+
+    /**
+     * {@return the visibilities of the cells of this Grid, packed on two bits
+     * by cell in row-major order, 32 cells by long}
+     */
+    public long[] packVisibilities() {
+        long[] packed = new long[(this.states.length + 31) / 32];
+        for (int i = 0; i < this.states.length; i++) {
+            long visibility = (this.states[i] & Cell.VISIBILITY_MASK)
+                >> Cell.VISIBILITY_SHIFT;
+            packed[i >> 5] |= visibility << ((i & 31) << 1);
+        }
+        return packed;
+    }
+
+    /**
+     * Restores the visibilities of the cells of this Grid from the given
+     * packed ones, as returned by packVisibilities(), its mines being kept.
+     * The visibility listener is not notified.
+     * @param packed the packed visibilities of the cells
+     * @throws IllegalArgumentException if packed does not hold the
+     *         visibilities of the cells of this Grid
+     * @throws NullPointerException if packed is null
+     */
+    public void unpackVisibilities(long[] packed) {
+        if (packed.length != (this.states.length + 31) / 32) {
+            throw new IllegalArgumentException(
+              String.format("Illegal packed length: %d", packed.length));
+        }
+        for (int i = 0; i < this.states.length; i++) {
+            int bits = (int) (packed[i >> 5] >>> ((i & 31) << 1)) & 0x3;
+            byte state = this.states[i];
+            int current = (state & Cell.VISIBILITY_MASK)
+                >> Cell.VISIBILITY_SHIFT;
+            if (bits == current)
+                continue;
+            if (bits > Visibility.REVEALED.ordinal()) {
+                throw new IllegalArgumentException(
+                  String.format("Illegal visibility: %d", bits));
+            }
+            Visibility from = Cell.visibilityOf(state);
+            Visibility to = Cell.visibilityOf(bits << Cell.VISIBILITY_SHIFT);
+            this.states[i] = Cell.withVisibility(state, to);
+            this.counters.visibilityChanged(Cell.isMinedState(state), from,
+                    to);
+        }
+    }
+
+    /**
+     * {@return true if this Grid and the given one are both mined, with the
+     * same dimensions and the same mines}
+     * Does not modify other, which may be read from several threads.
+     * @param other the other Grid
+     */
+    boolean hasSameMines(Grid other) {
+        if (other == this)
+            return this.isMined;
+        if (!this.isMined || !other.isMined || this.width != other.width
+                || this.height != other.height)
+            return false;
+        for (int i = 0; i < this.states.length; i++) {
+            if (((this.states[i] ^ other.states[i]) & Cell.MINED_BIT) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the listener that receives the index of every cell whose
+     * visibility is changed by revealCellAt() or flagCellAt(), floods
+     * included. The changes made through the cells returned by cellAt() are
+     * not listened.
+     * @param listener the new listener, null to remove the current one
+     */
+    public void setVisibilityListener(IntConsumer listener) {
+        this.visibilityListener = listener;
+    }
+
     // Reveals surroundings of src if they are hidden, not mined and
-    // without surrounding mines and propagates to its surroundings
-    private void flood(Cell src) {
-        if (src.minesAround() != 0 || src.isMined())
+    // without surrounding mines and propagates to its surroundings. Scanline
+    // fill: each seed is extended to the widest span of empty cells of its
+    // line, then the lines above and below the span are revealed and their
+    // empty cells become new seeds. Cells are revealed when discovered, their
+    // visibility marks them as visited.
+    private void flood(int src) {
+        byte state = this.states[src];
+        if (Cell.minesAroundOf(state) != 0 || Cell.isMinedState(state))
             return;
 
-        Deque<Cell> toExplore = new ArrayDeque<>();
-        toExplore.push(src);
-        while (!toExplore.isEmpty()) {
-            Cell cur = toExplore.pop();
-            cur.reveal();
-            if (cur.minesAround() != 0)
+        this.floodSize = 0;
+        this.pushFlood(src);
+        while (this.floodSize > 0) {
+            int seed = this.floodStack[--this.floodSize];
+            int lineStart = seed - seed % this.width;
+            int lineEnd = lineStart + this.width - 1;
+            int left = seed;
+            while (left > lineStart && this.revealEmpty(left - 1))
+                left--;
+            int right = seed;
+            while (right < lineEnd && this.revealEmpty(right + 1))
+                right++;
+            int first = Math.max(left - 1, lineStart);
+            int last = Math.min(right + 1, lineEnd);
+            this.floodSpan(first, first);
+            this.floodSpan(last, last);
+            if (lineStart > 0)
+                this.floodSpan(first - this.width, last - this.width);
+            if (lineEnd < this.states.length - 1)
+                this.floodSpan(first + this.width, last + this.width);
+        }
+    }
+
+    // Reveals the cell at index if it is hidden, safe and without mines
+    // around, returns true if it was indeed revealed
+    private boolean revealEmpty(int index) {
+        byte state = this.states[index];
+        return Cell.minesAroundOf(state) == 0 && !Cell.isMinedState(state)
+            && this.reveal(index);
+    }
+
+    // Reveals the hidden safe cells of the span [first; last] of a line and
+    // pushes the ones without mines around as new flood seeds
+    private void floodSpan(int first, int last) {
+        for (int i = first; i <= last; i++) {
+            byte state = this.states[i];
+            if (Cell.isMinedState(state) || !this.reveal(i))
                 continue;
-            List<Position> neighbors = cur.neighborsPositions();
-            for (Position position: neighbors) {
-                if (!position.inBounds(this.width, this.height))
-                    continue;
-                Cell neigh = this.cellAt(position);
-                if (neigh.isHidden() && !toExplore.contains(neigh)
-                        && !neigh.isMined())
-                    toExplore.add(neigh);
-            }
+            if (Cell.minesAroundOf(state) == 0)
+                this.pushFlood(i);
+        }
+    }
+
+    // Pushes index on the flood stack, growing it if needed
+    private void pushFlood(int index) {
+        if (this.floodSize == this.floodStack.length) {
+            this.floodStack = Arrays.copyOf(this.floodStack,
+                    Math.max(1, 2 * this.floodStack.length));
         }
+        this.floodStack[this.floodSize++] = index;
     }
 
     /**
@@ -215,9 +536,16 @@ public class Grid {
      * @param position the position of the cell to flag or unflag
      */
     public boolean flagCellAt(Position position) {
-        Objects.requireNonNull(position);
-        Cell cell = this.cellAt(position);
-        return cell.flag();
+        int index = this.indexOf(position);
+        Visibility visibility = Cell.visibilityOf(this.states[index]);
+        if (visibility == Visibility.FLAGGED) {
+            this.setVisibility(index, visibility, Visibility.HIDDEN);
+            return true;
+        } else if (visibility == Visibility.HIDDEN) {
+            this.setVisibility(index, visibility, Visibility.FLAGGED);
+            return true;
+        }
+        return false;
     }
 
     /**
@@ -232,8 +560,18 @@ public class Grid {
      * mined}
      */
     public boolean hasMineRevealed() {
-        for (Cell cell: this.cells) {
-            if (cell.isRevealed() && cell.isMined())
+        boolean res = this.counters.revealedMinedCells() > 0;
+        if (this.consistencyChecked)
+            this.checkResult("hasMineRevealed", res,
+                    this.scanHasMineRevealed());
+        return res;
+    }
+
+    // Scans the cells of this Grid for a revealed mine
+    boolean scanHasMineRevealed() {
+        for (byte state: this.states) {
+            if (Cell.isMinedState(state)
+                    && Cell.visibilityOf(state) == Visibility.REVEALED)
                 return true;
         }
         return false;
@@ -243,15 +581,88 @@ public class Grid {
      * {@return true if all and only the safe cells of this Grid are revealed}
      */
     public boolean isCompleted() {
-        for (Cell cell: this.cells) {
-            if (cell.isMined()) {
-                if (cell.isRevealed())
-                    return false;
-            } else {
-                if (cell.isHidden() || cell.isFlagged())
-                    return false;
-            }
+        boolean res = this.counters.revealedMinedCells() == 0
+            && this.counters.revealedSafeCells()
+               == this.states.length - this.counters.minedCells();
+        if (this.consistencyChecked)
+            this.checkResult("isCompleted", res, this.scanIsCompleted());
+        return res;
+    }
+
+    // Scans the cells of this Grid to determine if it is completed
+    boolean scanIsCompleted() {
+        for (byte state: this.states) {
+            boolean revealed = Cell.visibilityOf(state) == Visibility.REVEALED;
+            if (Cell.isMinedState(state) == revealed)
+                return false;
         }
         return true;
     }
+
+    /**
+     * {@return the number of revealed safe cells of this Grid}
+     */
+    public int revealedSafeCells() {
+        if (this.consistencyChecked)
+            this.checkCounter("revealed safe cells",
+                    this.counters.revealedSafeCells(),
+                    this.scanCount(Visibility.REVEALED, false));
+        return (int) this.counters.revealedSafeCells();
+    }
+
+    @Override
+    public long unflaggedMines() {
+        return this.mines - this.flaggedCells();
+    }
+
+    /**
+     * {@return the number of flagged cells of this Grid}
+     */
+    public int flaggedCells() {
+        if (this.consistencyChecked)
+            this.checkCounter("flagged cells", this.counters.flaggedCells(),
+                    this.scanCount(Visibility.FLAGGED, false)
+                    + this.scanCount(Visibility.FLAGGED, true));
+        return (int) this.counters.flaggedCells();
+    }
+
+    // Counts the cells of this Grid of the given visibility and mine state
+    int scanCount(Visibility visibility, boolean mined) {
+        int total = 0;
+        for (byte state: this.states) {
+            if (Cell.visibilityOf(state) == visibility
+                    && Cell.isMinedState(state) == mined)
+                total++;
+        }
+        return total;
+    }
+
+    /**
+     * Enables or disables the consistency checks of this Grid. When enabled,
+     * every query answered by a counter is also answered by a scan of the
+     * cells and both answers are compared. Meant for tests, as it makes the
+     * queries linear in the number of cells.
+     * @param checked true to enable the checks, false to disable them
+     */
+    public void setConsistencyChecked(boolean checked) {
+        this.consistencyChecked = checked;
+    }
+
+    // Throws an exception if a counter differs from its scanned value
+    private void checkCounter(String name, long counter, int scanned) {
+        if (counter != scanned) {
+            throw new IllegalStateException(String.format(
+              "Inconsistent %s: counted %d, scanned %d", name, counter,
+              scanned));
+        }
+    }
+
+    // Throws an exception if a query differs from its scanned result
+    private void checkResult(String name, boolean counted, boolean scanned) {
+        if (counted != scanned) {
+            throw new IllegalStateException(String.format(
+              "Inconsistent %s: counted %b, scanned %b", name, counted,
+              scanned));
+        }
+    }
 }
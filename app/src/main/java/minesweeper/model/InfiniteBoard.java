@@ -0,0 +1,283 @@
+package minesweeper.model;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An InfiniteBoard is a board without bounds other than the ones of the
+ * coordinates of a Position: its lines and columns range from 0 to
+ * Integer.MAX_VALUE. Whether a cell is mined is a pure function of the seed of
+ * the board and the coordinates of the cell, hashed and compared to the
+ * density of mines, so the mines are never stored. Only the visibility of the
+ * revealed and flagged cells is stored, in a sparse map keyed by packed
+ * coordinates, and the number of mines around a cell is computed on demand.
+ * The memory used by an InfiniteBoard then grows with the moves made.
+ */
+public class InfiniteBoard implements Board {
+
+    /**
+     * The minimum density of mines of an InfiniteBoard. Below it, the regions
+     * of cells without mines around may be infinite and revealing one of them
+     * would never end.
+     */
+    public static final double MIN_DENSITY = 0.12;
+
+    /**
+     * The maximum density of mines of an InfiniteBoard.
+     */
+    public static final double MAX_DENSITY = 1.0;
+
+    // The number of bits of a hash compared to the threshold.
+    private static final int HASH_BITS = 53;
+
+    // The number of neighbors of a cell.
+    private static final int NEIGHBORS = 8;
+
+    // The line offsets of the neighbors of a cell.
+    private static final int[] LINE_OFFSETS = {-1, -1, -1, 0, 0, 1, 1, 1};
+
+    // The column offsets of the neighbors of a cell.
+    private static final int[] COLUMN_OFFSETS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    // The seed of this InfiniteBoard.
+    private final long seed;
+
+    // The density of mines of this InfiniteBoard.
+    private final double density;
+
+    // A cell is mined if its hash is strictly inferior to the threshold.
+    private final long threshold;
+
+    // The visibility ordinals of the revealed and flagged cells, by packed
+    // position.
+    private final LongByteMap visibilities;
+
+    // The counters of the revealed and flagged cells.
+    private final CellCounters counters;
+
+    // The packed positions that are not mined.
+    private final Set<Long> excluded;
+
+    // Indicates if the safe positions have been set.
+    private boolean isMined;
+
+    // The packed positions of the cells left to explore by a flood.
+    private long[] floodStack;
+
+    // The number of positions in floodStack.
+    private int floodSize;
+
+    /**
+     * Class constructor that specifies the seed and the density of mines of
+     * the new InfiniteBoard.
+     * @param seed the seed of the new InfiniteBoard
+     * @param density the probability that a cell is mined
+     * @throws IllegalArgumentException if density is not inside
+     *         [MIN_DENSITY; MAX_DENSITY]
+     */
+    public InfiniteBoard(long seed, double density) {
+        if (!(density >= MIN_DENSITY && density <= MAX_DENSITY)) {
+            throw new IllegalArgumentException(
+              String.format("Illegal density of mines: %f", density));
+        }
+        this.seed = seed;
+        this.density = density;
+        this.threshold = density == MAX_DENSITY ? Long.MAX_VALUE
+            : (long) (density * (1L << HASH_BITS));
+        this.visibilities = new LongByteMap();
+        this.counters = new CellCounters();
+        this.excluded = new HashSet<>();
+        this.isMined = false;
+        this.floodStack = new long[64];
+    }
+
+    /**
+     * {@return the seed of this InfiniteBoard}
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * {@return the density of mines of this InfiniteBoard}
+     */
+    public double density() {
+        return this.density;
+    }
+
+    /**
+     * Makes the given positions safe. The other mines of an InfiniteBoard are
+     * determined by its seed.
+     * @param excluded a list of positions that won't be mined
+     */
+    @Override
+    public void placeMines(List<Position> excluded) {
+        Objects.requireNonNull(excluded);
+        for (Position position: excluded)
+            this.excluded.add(position.pack());
+        this.isMined = true;
+    }
+
+    @Override
+    public boolean isMined() {
+        return this.isMined;
+    }
+
+    // Returns true if the cell at the packed position is mined
+    private boolean isMinedAt(long packed) {
+        long hash = MinePlacer.derivedSeed(this.seed, packed)
+            >>> (64 - HASH_BITS);
+        return hash < this.threshold && !this.excluded.contains(packed);
+    }
+
+    // Returns the number of mines around the cell at the packed position
+    private int minesAround(long packed) {
+        int total = 0;
+        for (int k = 0; k < NEIGHBORS; k++) {
+            long neighbor = neighbor(packed, k);
+            if (neighbor >= 0 && this.isMinedAt(neighbor))
+                total++;
+        }
+        return total;
+    }
+
+    // Returns the packed position of the k-th neighbor of the cell at the
+    // packed position, -1 if it is outside this InfiniteBoard
+    private static long neighbor(long packed, int k) {
+        long line = (packed >>> 32) + LINE_OFFSETS[k];
+        long column = (packed & 0xFFFFFFFFL) + COLUMN_OFFSETS[k];
+        if (line < 0 || line > Integer.MAX_VALUE || column < 0
+                || column > Integer.MAX_VALUE)
+            return -1L;
+        return (line << 32) | column;
+    }
+
+    // Returns the visibility of the cell at the packed position
+    private Visibility visibilityAt(long packed) {
+        return Cell.visibilityOf(
+                this.visibilities.get(packed) << Cell.VISIBILITY_SHIFT);
+    }
+
+    // Sets the visibility of the cell at the packed position
+    private void setVisibility(long packed, Visibility from, Visibility to) {
+        this.visibilities.put(packed, (byte) to.ordinal());
+        this.counters.visibilityChanged(this.isMinedAt(packed), from, to);
+    }
+
+    /**
+     * {@return true, an InfiniteBoard contains every position}
+     * @param position the position
+     */
+    @Override
+    public boolean contains(Position position) {
+        return true;
+    }
+
+    /**
+     * {@return a snapshot of the cell at the given position}
+     * The changes of the returned Cell are not reflected on this
+     * InfiniteBoard.
+     * @param position the position of the cell to get
+     * @throws NullPointerException if position is null
+     */
+    @Override
+    public Cell cellAt(Position position) {
+        long packed = position.pack();
+        return new Cell(this.visibilityAt(packed), this.minesAround(packed),
+                this.isMinedAt(packed), position);
+    }
+
+    @Override
+    public boolean revealCellAt(Position position) {
+        long packed = position.pack();
+        if (this.visibilityAt(packed) != Visibility.HIDDEN)
+            return false;
+        this.setVisibility(packed, Visibility.HIDDEN, Visibility.REVEALED);
+        if (!this.isMinedAt(packed) && this.minesAround(packed) == 0)
+            this.flood(packed);
+        return true;
+    }
+
+    // Reveals surroundings of the empty cell at the packed position if they
+    // are hidden and not mined and propagates to the empty ones
+    private void flood(long src) {
+        this.floodSize = 0;
+        this.pushFlood(src);
+        while (this.floodSize > 0) {
+            long cur = this.floodStack[--this.floodSize];
+            for (int k = 0; k < NEIGHBORS; k++) {
+                long packed = neighbor(cur, k);
+                if (packed < 0 || this.visibilityAt(packed) != Visibility.HIDDEN
+                        || this.isMinedAt(packed))
+                    continue;
+                this.setVisibility(packed, Visibility.HIDDEN,
+                        Visibility.REVEALED);
+                if (this.minesAround(packed) == 0)
+                    this.pushFlood(packed);
+            }
+        }
+    }
+
+    // Pushes the packed position on the flood stack, growing it if needed
+    private void pushFlood(long packed) {
+        if (this.floodSize == this.floodStack.length) {
+            this.floodStack = Arrays.copyOf(this.floodStack,
+                    2 * this.floodStack.length);
+        }
+        this.floodStack[this.floodSize++] = packed;
+    }
+
+    @Override
+    public boolean flagCellAt(Position position) {
+        long packed = position.pack();
+        Visibility visibility = this.visibilityAt(packed);
+        if (visibility == Visibility.FLAGGED) {
+            this.setVisibility(packed, visibility, Visibility.HIDDEN);
+            return true;
+        } else if (visibility == Visibility.HIDDEN) {
+            this.setVisibility(packed, visibility, Visibility.FLAGGED);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasMineRevealed() {
+        return this.counters.revealedMinedCells() > 0;
+    }
+
+    /**
+     * {@return false, an InfiniteBoard can not be completed}
+     */
+    @Override
+    public boolean isCompleted() {
+        return false;
+    }
+
+    /**
+     * {@return the opposite of the number of flagged cells, as the number of
+     * mines of an InfiniteBoard is unbounded}
+     */
+    @Override
+    public long unflaggedMines() {
+        return -this.counters.flaggedCells();
+    }
+
+    /**
+     * {@return the number of revealed safe cells of this InfiniteBoard}
+     */
+    public long revealedSafeCells() {
+        return this.counters.revealedSafeCells();
+    }
+
+    /**
+     * {@return the number of cells of this InfiniteBoard whose visibility is
+     * stored}
+     */
+    public int storedCells() {
+        return this.visibilities.size();
+    }
+}
@@ -0,0 +1,89 @@
+package minesweeper.model;
+
+/**
+ * A LongByteMap maps long keys to byte values, without boxing. Open addressing
+ * with linear probing: the keys and values are stored in two arrays that are
+ * doubled when they are half full. Entries can not be removed. The value of a
+ * key that is not mapped is 0.
+ */
+final class LongByteMap {
+
+    // The initial capacity of a LongByteMap, a power of 2.
+    private static final int INITIAL_CAPACITY = 16;
+
+    // The keys of the entries.
+    private long[] keys;
+
+    // The values of the entries, incremented by 1 so that 0 marks a free slot.
+    private short[] values;
+
+    // The number of entries.
+    private int size;
+
+    /**
+     * Class constructor of an empty LongByteMap.
+     */
+    LongByteMap() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.values = new short[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    // Returns the slot of key, or the free slot where it would be put
+    private int slotOf(long key) {
+        int mask = this.keys.length - 1;
+        int slot = (int) MinePlacer.mix64(key) & mask;
+        while (this.values[slot] != 0 && this.keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * {@return the value mapped to key, 0 if key is not mapped}
+     * @param key the key
+     */
+    byte get(long key) {
+        short value = this.values[this.slotOf(key)];
+        return value == 0 ? 0 : (byte) (value - 1);
+    }
+
+    /**
+     * Maps key to value.
+     * @param key the key
+     * @param value the value
+     */
+    void put(long key, byte value) {
+        int slot = this.slotOf(key);
+        if (this.values[slot] == 0) {
+            if (2 * (this.size + 1) > this.keys.length) {
+                this.grow();
+                slot = this.slotOf(key);
+            }
+            this.keys[slot] = key;
+            this.size++;
+        }
+        this.values[slot] = (short) ((value & 0xFF) + 1);
+    }
+
+    // Doubles the capacity of this LongByteMap
+    private void grow() {
+        long[] oldKeys = this.keys;
+        short[] oldValues = this.values;
+        this.keys = new long[2 * oldKeys.length];
+        this.values = new short[2 * oldValues.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = this.slotOf(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * {@return the number of entries of this LongByteMap}
+     */
+    int size() {
+        return this.size;
+    }
+}
@@ -0,0 +1,17 @@
+package minesweeper.model;
+
+/**
+ * A MineLayout places the mines of a Grid once the position of its first
+ * click is known, such as a layout drawn ahead of time and moved to the first
+ * click.
+ */
+@FunctionalInterface
+public interface MineLayout {
+
+    /**
+     * Places the mines of grid, keeping firstClick and its neighbors safe.
+     * @param grid the grid to mine, not mined yet
+     * @param firstClick the position of the first click on grid
+     */
+    void placeMines(Grid grid, Position firstClick);
+}
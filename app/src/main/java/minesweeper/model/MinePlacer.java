@@ -0,0 +1,81 @@
+package minesweeper.model;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A MinePlacer draws the indices of the cells to mine on a grid. The indices
+ * are drawn by a partial Fisher-Yates shuffle of the indices that are not
+ * excluded, so that the drawing takes a time linear in the number of cells
+ * whatever the density of mines.
+ */
+public final class MinePlacer {
+
+    // Not instantiable.
+    private MinePlacer() {
+    }
+
+    /**
+     * {@return n distinct random indices inside [0; cells[ that are not set in
+     * excluded}
+     * For a given state of random, the same indices are returned.
+     * @param n the number of indices to draw
+     * @param cells the number of cells
+     * @param excluded the indices that can not be drawn
+     * @param random the random generator used to draw the indices
+     * @throws IllegalArgumentException if n or cells are strictly inferior to
+     *         0 or if n is strictly superior to the number of indices that are
+     *         not excluded
+     * @throws NullPointerException if excluded or random are null
+     */
+    public static int[] randomIndices(int n, int cells, BitSet excluded,
+            SplittableRandom random) {
+        Objects.requireNonNull(excluded);
+        Objects.requireNonNull(random);
+        if (cells < 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal number of cells: %d", cells));
+        }
+        int[] candidates = new int[cells];
+        int size = 0;
+        for (int i = 0; i < cells; i++) {
+            if (!excluded.get(i))
+                candidates[size++] = i;
+        }
+        if (n < 0 || n > size) {
+            throw new IllegalArgumentException(
+              String.format("Illegal number of random indices: %d", n));
+        }
+        for (int i = 0; i < n; i++) {
+            int j = i + random.nextInt(size - i);
+            int tmp = candidates[i];
+            candidates[i] = candidates[j];
+            candidates[j] = tmp;
+        }
+        int[] res = new int[n];
+        System.arraycopy(candidates, 0, res, 0, n);
+        return res;
+    }
+
+    /**
+     * {@return a seed derived from the given seed and key}
+     * Distinct keys give unrelated seeds, so that the drawings from the
+     * derived seeds are independent.
+     * @param seed the seed
+     * @param key the key
+     */
+    public static long derivedSeed(long seed, long key) {
+        return mix64(seed + mix64(key));
+    }
+
+    /**
+     * {@return the bits of z mixed by the finalizer of SplitMix64}
+     * @param z the bits to mix
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,72 @@
+package minesweeper.model;
+
+import java.util.Objects;
+
+/**
+ * A Move represents an action of a player on the cell at a given position.
+ * @param type the type of this Move
+ * @param position the position of the cell acted on
+ */
+public record Move(Move.Type type, Position position) {
+
+    /**
+     * The type of a Move.
+     */
+    public enum Type {
+
+        /**
+         * Reveals a cell.
+         */
+        REVEAL,
+
+        /**
+         * Flags or unflags a cell.
+         */
+        FLAG,
+
+        /**
+         * Reveals the hidden neighbors of a revealed cell whose mines around
+         * are all flagged.
+         */
+        CHORD;
+    }
+
+    /**
+     * Class constructor that specifies the type and the position of the new
+     * Move.
+     * @param type the type of the new Move
+     * @param position the position of the cell acted on
+     * @throws NullPointerException if type or position are null
+     */
+    public Move {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(position);
+    }
+
+    /**
+     * {@return a Move that reveals the cell at (line, column)}
+     * @param line the line of the cell
+     * @param column the column of the cell
+     */
+    public static Move reveal(int line, int column) {
+        return new Move(Type.REVEAL, new Position(line, column));
+    }
+
+    /**
+     * {@return a Move that flags or unflags the cell at (line, column)}
+     * @param line the line of the cell
+     * @param column the column of the cell
+     */
+    public static Move flag(int line, int column) {
+        return new Move(Type.FLAG, new Position(line, column));
+    }
+
+    /**
+     * {@return a Move that chords the cell at (line, column)}
+     * @param line the line of the cell
+     * @param column the column of the cell
+     */
+    public static Move chord(int line, int column) {
+        return new Move(Type.CHORD, new Position(line, column));
+    }
+}
@@ -0,0 +1,15 @@
+package minesweeper.model;
+
+/**
+ * A MoveResult is the outcome of a Move, or of a batch of Moves, played on a
+ * Game.
+ * @param changed true if the Moves changed the visibility of at least one
+ *                cell
+ * @param state the state of the Game after the Moves
+ * @param changedCells the indices of the cells whose visibility changed, in
+ *                     the order of their changes, empty if the board of the
+ *                     Game is not a Grid
+ */
+public record MoveResult(boolean changed, GameState state,
+        int[] changedCells) {
+}
@@ -1,7 +1,5 @@
 package minesweeper.model;
 
-import minesweeper.view.Observer;
-
 /**
  * Represents an object that is observable by Observers. Such Observers can
  * register themselves as observers of this Observable and be notified of an
@@ -0,0 +1,23 @@
+package minesweeper.model;
+
+/**
+ * Observes the updates on an observable object.
+ */
+public interface Observer {
+
+    /**
+     * Updates this Observer with the new state of the observed object.
+     * @param game the new state of the observed Game
+     */
+    void update(Game game);
+
+    /**
+     * Updates this Observer with the new state of the observed object and
+     * the changes that led to it. By default, the changes are ignored.
+     * @param game the new state of the observed Game
+     * @param changes the changes of the observed Game since the last update
+     */
+    default void update(Game game, ChangeSet changes) {
+        this.update(game);
+    }
+}
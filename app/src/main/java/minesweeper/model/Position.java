@@ -3,7 +3,8 @@ package minesweeper.model;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.BitSet;
+import java.util.SplittableRandom;
 import java.util.Objects;
 
 /**
@@ -76,8 +77,8 @@ public record Position(int line, int column) {
      * @param maxC the maximum column coordinate value
      * @param excluded a list of positions that can not be chosen
      * @throws IllegalArgumentException if n is strictly inferior to 0, if maxL
-     *         or maxC are inferior to 0 or if n is strictly superior to
-     *         maxL * maxC
+     *         or maxC are inferior to 0 or if n is strictly superior to the
+     *         number of positions of maxL * maxC that are not excluded
      * @throws NullPointerException if excluded is null
      */
     public static List<Position> randomPositions(int n, int maxL, int maxC,
@@ -91,16 +92,16 @@ public record Position(int line, int column) {
             throw new IllegalArgumentException(
               String.format("Illegal number of random positions: %d", n));
         }
-        List<Position> positions = new ArrayList<>(n);
-        Random rand = new Random();
-        for (int i = 0; i < n; i++) {
-            Position position;
-            do {
-                position = new Position(rand.nextInt(maxL), rand.nextInt(maxC));
-            } while (positions.contains(position)
-                    || excluded.contains(position));
-            positions.add(position);
+        BitSet excludedCells = new BitSet(maxL * maxC);
+        for (Position position: excluded) {
+            if (position.line() < maxL && position.column() < maxC)
+                excludedCells.set(position.line() * maxC + position.column());
         }
+        int[] indices = MinePlacer.randomIndices(n, maxL * maxC,
+                excludedCells, new SplittableRandom());
+        List<Position> positions = new ArrayList<>(n);
+        for (int index: indices)
+            positions.add(new Position(index / maxC, index % maxC));
         return positions;
     }
 
@@ -117,4 +118,21 @@ public record Position(int line, int column) {
         }
         return this.line < height && this.column < width;
     }
+
+    /**
+     * {@return the coordinates of this Position packed in a long}
+     * The line is held by the high 32 bits and the column by the low ones.
+     */
+    public long pack() {
+        return ((long) this.line << 32) | this.column;
+    }
+
+    /**
+     * {@return the Position of the given packed coordinates}
+     * @param packed coordinates packed by {@code pack()}
+     * @throws IllegalArgumentException if the coordinates are negative
+     */
+    public static Position unpack(long packed) {
+        return new Position((int) (packed >>> 32), (int) packed);
+    }
 }
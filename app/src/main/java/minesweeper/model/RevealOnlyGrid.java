@@ -32,6 +32,13 @@ public record RevealOnlyGrid(Grid grid) {
         return this.grid.width();
     }
 
+    /**
+     * {@return the number of mines of this Grid}
+     */
+    public int mines() {
+        return this.grid.mines();
+    }
+
     /**
      * Computes the dimension of this Grid. Causes the heap allocation of a new
      * Dimension object. Use {@code height()} and {@code width()} for direct
@@ -46,14 +53,39 @@ public record RevealOnlyGrid(Grid grid) {
      * {@return the cell at the given position}
      * @param position the position of the cell to get
      * @throws IllegalArgumentException if position is outside this Grid
-     * @throws IllegalStateException if position is valid and no cell was found
-     *                               at that position
      * @throws NullPointerException if position is null
      */
     public Cell cellAt(Position position) {
         return this.grid.cellAt(position);
     }
 
+    /**
+     * {@return the visibility of the cell at the given index}
+     * @param index the index of the cell, in row-major order
+     * @throws IllegalArgumentException if index is outside this Grid
+     */
+    public Visibility visibilityAt(int index) {
+        return this.grid.visibilityAt(index);
+    }
+
+    /**
+     * {@return true if the cell at the given index is mined}
+     * @param index the index of the cell, in row-major order
+     * @throws IllegalArgumentException if index is outside this Grid
+     */
+    public boolean isMinedAt(int index) {
+        return this.grid.isMinedAt(index);
+    }
+
+    /**
+     * {@return the number of mines around the cell at the given index}
+     * @param index the index of the cell, in row-major order
+     * @throws IllegalArgumentException if index is outside this Grid
+     */
+    public int minesAroundAt(int index) {
+        return this.grid.minesAroundAt(index);
+    }
+
     /**
      * {@return true if at least one of the revealed cells of this Grid is
      * mined}
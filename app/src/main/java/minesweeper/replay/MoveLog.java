@@ -0,0 +1,256 @@
+package minesweeper.replay;
+
+import java.io.IOException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import minesweeper.model.Move;
+import minesweeper.model.Position;
+
+/**
+ * A MoveLog is the content of a file written by a MoveRecorder: the games
+ * recorded in it, in the order they were recorded.
+ *
+ * A move log starts with the magic number "FMLG" and a version byte,
+ * followed by frames: the length of the payload and its CRC-32 on four bytes
+ * each, then the payload, the records flushed together. A record starts with
+ * a tag byte:
+ * <ul>
+ * <li>0 for the start of a game, followed by the width, the height and the
+ * number of mines of its grid as varints, then the seed and the time of the
+ * start on eight bytes each;</li>
+ * <li>1, 2 or 3 for a reveal, a flag or a chord, followed by the time since
+ * the previous record of the game as a varint and the difference between
+ * the index of the cell and the one of the previous move of the game, in
+ * row-major order, as a zigzag varint.</li>
+ * </ul>
+ * A move of a game played at human speed takes about six bytes. A frame cut
+ * short or whose checksum does not match, as left by a crash during a
+ * write, ends the log: the bytes from it to the end of the file are skipped.
+ */
+public final class MoveLog {
+
+    /**
+     * The magic number at the start of a move log, "FMLG".
+     */
+    static final int MAGIC = 0x464D4C47;
+
+    /**
+     * The version of the format of the move logs.
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * The length of the header of a move log, in bytes.
+     */
+    static final int FILE_HEADER = 5;
+
+    /**
+     * The length of the header of a frame, in bytes.
+     */
+    static final int FRAME_HEADER = 8;
+
+    /**
+     * The tag of the start of a game, the tag of a move being 1 plus the
+     * ordinal of its type.
+     */
+    static final byte GAME = 0;
+
+    // The types of moves by ordinal.
+    private static final Move.Type[] TYPES = Move.Type.values();
+
+    // The games of this log.
+    private final List<RecordedGame> games;
+
+    // The length of the valid part of the log, in bytes.
+    private final long validLength;
+
+    // The number of bytes skipped at the end of the log.
+    private final long skippedBytes;
+
+    // Class constructor
+    private MoveLog(List<RecordedGame> games, long validLength,
+            long skippedBytes) {
+        this.games = Collections.unmodifiableList(games);
+        this.validLength = validLength;
+        this.skippedBytes = skippedBytes;
+    }
+
+    /**
+     * {@return the move log read from the given file}
+     * The frames after a truncated or corrupted one are skipped.
+     * @param path the file to read
+     * @throws IOException if the file can not be read, is not a move log or
+     *         holds a malformed record in a valid frame
+     */
+    public static MoveLog read(Path path) throws IOException {
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (log.remaining() < FILE_HEADER || log.getInt() != MAGIC
+                || log.get() != VERSION)
+            throw new IOException("Not a move log: " + path);
+        Decoder decoder = new Decoder();
+        CRC32 crc = new CRC32();
+        while (log.remaining() >= FRAME_HEADER) {
+            int start = log.position();
+            int length = log.getInt();
+            int checksum = log.getInt();
+            if (length < 0 || length > log.remaining()) {
+                log.position(start);
+                break;
+            }
+            ByteBuffer payload = log.slice(log.position(), length);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                log.position(start);
+                break;
+            }
+            payload.rewind();
+            try {
+                decoder.decode(payload);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Malformed move log: " + path, e);
+            }
+            log.position(log.position() + length);
+        }
+        return new MoveLog(decoder.finish(), log.position(),
+                log.limit() - log.position());
+    }
+
+    /**
+     * {@return the games of this log, in the order they were recorded}
+     */
+    public List<RecordedGame> games() {
+        return this.games;
+    }
+
+    /**
+     * {@return the number of bytes of the truncated or corrupted tail of the
+     * file, skipped by the reading, 0 if the file was complete}
+     */
+    public long skippedBytes() {
+        return this.skippedBytes;
+    }
+
+    /**
+     * {@return the length of the valid part of the file, in bytes}
+     */
+    long validLength() {
+        return this.validLength;
+    }
+
+    /**
+     * {@return the varint at the position of buffer}
+     * @param buffer the buffer to read
+     * @throws IllegalArgumentException if the varint is longer than a long
+     * @throws BufferUnderflowException if the varint is cut short
+     */
+    static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Illegal varint");
+    }
+
+    // Decodes the records of the frames, game by game
+    private static final class Decoder {
+
+        // The games decoded so far.
+        private final List<RecordedGame> games = new ArrayList<>();
+
+        // The moves of the current game, or null before the first game.
+        private List<RecordedMove> moves;
+
+        // The width of the grid of the current game.
+        private int width;
+
+        // The height of the grid of the current game.
+        private int height;
+
+        // The number of mines of the grid of the current game.
+        private int mines;
+
+        // The seed of the placement of the mines of the current game.
+        private long seed;
+
+        // The time of the start of the current game.
+        private long startNanos;
+
+        // The time of the previous record of the current game.
+        private long lastNanos;
+
+        // The index of the previous move of the current game.
+        private int lastIndex;
+
+        // Decodes the records of payload
+        void decode(ByteBuffer payload) {
+            while (payload.hasRemaining()) {
+                byte tag = payload.get();
+                if (tag == GAME)
+                    this.startGame(payload);
+                else if (tag > GAME && tag <= TYPES.length)
+                    this.move(TYPES[tag - 1], payload);
+                else
+                    throw new IllegalArgumentException("Illegal tag: " + tag);
+            }
+        }
+
+        // Ends the current game and starts the one of payload
+        private void startGame(ByteBuffer payload) {
+            this.endGame();
+            this.width = (int) getVarint(payload);
+            this.height = (int) getVarint(payload);
+            this.mines = (int) getVarint(payload);
+            this.seed = payload.getLong();
+            this.startNanos = payload.getLong();
+            this.lastNanos = this.startNanos;
+            this.lastIndex = 0;
+            this.moves = new ArrayList<>();
+        }
+
+        // Appends the move of the given type of payload to the current game
+        private void move(Move.Type type, ByteBuffer payload) {
+            if (this.moves == null)
+                throw new IllegalArgumentException("Move out of a game");
+            this.lastNanos += getVarint(payload);
+            long zigzag = getVarint(payload);
+            int index = this.lastIndex
+                + (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+            if (index < 0 || index >= this.width * this.height) {
+                throw new IllegalArgumentException(
+                  String.format("Illegal index: %d", index));
+            }
+            this.lastIndex = index;
+            this.moves.add(new RecordedMove(this.lastNanos, new Move(type,
+                    new Position(index / this.width, index % this.width))));
+        }
+
+        // Adds the current game, if any, to the decoded games
+        private void endGame() {
+            if (this.moves != null) {
+                this.games.add(new RecordedGame(this.width, this.height,
+                        this.mines, this.seed, this.startNanos,
+                        List.copyOf(this.moves)));
+            }
+        }
+
+        // Ends the current game and returns the decoded games
+        List<RecordedGame> finish() {
+            this.endGame();
+            this.moves = null;
+            return this.games;
+        }
+    }
+}
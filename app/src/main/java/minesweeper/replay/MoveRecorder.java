@@ -0,0 +1,229 @@
+package minesweeper.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.zip.CRC32;
+
+import minesweeper.model.Move;
+import minesweeper.model.Position;
+
+/**
+ * A MoveRecorder appends the moves of games to a move log, described by
+ * MoveLog, each with the time at which it was received.
+ *
+ * The records are encoded into a buffer and written as a frame by a single
+ * write on the FileChannel of the log: when the buffer is full, when its
+ * oldest record is older than a second, and on flush() and close(). Recording
+ * a move between two writes only encodes a few bytes into the buffer, so
+ * that it adds no latency to the move itself.
+ *
+ * An existing log is truncated to its valid frames before appending to it,
+ * so that the tail left by a crash does not hide the new games. A file
+ * shorter than the header of a log is overwritten.
+ *
+ * A MoveRecorder is not thread safe: it is meant to be used by the thread
+ * that plays the moves.
+ */
+public final class MoveRecorder implements Closeable {
+
+    // The capacity of the buffer of the records, in bytes.
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // The maximum length of a record, in bytes.
+    private static final int MAX_RECORD = 48;
+
+    // The maximum time a record stays in the buffer while others follow, in
+    // nanoseconds.
+    private static final long FLUSH_NANOS = 1_000_000_000L;
+
+    // The channel of the log.
+    private final FileChannel channel;
+
+    // The header of the frame to write.
+    private final ByteBuffer header;
+
+    // The records not written yet.
+    private final ByteBuffer buffer;
+
+    // The header and the records, written together.
+    private final ByteBuffer[] frame;
+
+    // Computes the checksums of the frames.
+    private final CRC32 crc;
+
+    // Indicates if a game was started.
+    private boolean started;
+
+    // The width of the grid of the current game.
+    private int width;
+
+    // The height of the grid of the current game.
+    private int height;
+
+    // The time of the previous record of the current game.
+    private long lastNanos;
+
+    // The index of the previous move of the current game.
+    private int lastIndex;
+
+    // The time of the oldest record of the buffer.
+    private long oldestNanos;
+
+    /**
+     * Class constructor that opens the log at the given path, creating it if
+     * it does not exist and appending to it otherwise.
+     * @param path the path of the log
+     * @throws IOException if the log can not be opened, or if the existing
+     *         file is not a move log
+     */
+    public MoveRecorder(Path path) throws IOException {
+        long valid = Files.exists(path)
+            && Files.size(path) >= MoveLog.FILE_HEADER
+            ? MoveLog.read(path).validLength() : 0L;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        this.header = ByteBuffer.allocate(MoveLog.FRAME_HEADER);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.frame = new ByteBuffer[] {this.header, this.buffer};
+        this.crc = new CRC32();
+        this.started = false;
+        try {
+            this.channel.truncate(valid);
+            this.channel.position(valid);
+            if (valid == 0) {
+                this.header.putInt(MoveLog.MAGIC).put(MoveLog.VERSION);
+                this.header.flip();
+                while (this.header.hasRemaining())
+                    this.channel.write(this.header);
+            }
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records the start of a game, the moves recorded next belonging to it.
+     * @param width the width of the grid
+     * @param height the height of the grid
+     * @param mines the number of mines of the grid
+     * @param seed the seed of the placement of the mines
+     * @param nanos the time of the start, as given by System.nanoTime()
+     * @throws IllegalArgumentException if width, height or mines are
+     *         strictly inferior to 0
+     * @throws IOException if the buffer is written and the write fails
+     */
+    public void startGame(int width, int height, int mines, long seed,
+            long nanos) throws IOException {
+        if (width < 0 || height < 0 || mines < 0) {
+            throw new IllegalArgumentException(String.format(
+              "Illegal settings: %d, %d, %d", width, height, mines));
+        }
+        this.reserve(nanos);
+        this.buffer.put(MoveLog.GAME);
+        putVarint(this.buffer, width);
+        putVarint(this.buffer, height);
+        putVarint(this.buffer, mines);
+        this.buffer.putLong(seed).putLong(nanos);
+        this.started = true;
+        this.width = width;
+        this.height = height;
+        this.lastNanos = nanos;
+        this.lastIndex = 0;
+        this.flushIfOld(nanos);
+    }
+
+    /**
+     * Records a move of the current game.
+     * @param move the move
+     * @param nanos the time of the move, as given by System.nanoTime()
+     * @throws IllegalArgumentException if the position of move is not inside
+     *         the grid of the current game
+     * @throws IllegalStateException if no game was started
+     * @throws IOException if the buffer is written and the write fails
+     */
+    public void record(Move move, long nanos) throws IOException {
+        if (!this.started)
+            throw new IllegalStateException("No game started");
+        Position position = move.position();
+        if (position.line() < 0 || position.line() >= this.height
+                || position.column() < 0 || position.column() >= this.width)
+            throw new IllegalArgumentException(
+              "Illegal position: " + position);
+        int index = position.line() * this.width + position.column();
+        int delta = index - this.lastIndex;
+        this.reserve(nanos);
+        this.buffer.put((byte) (MoveLog.GAME + 1 + move.type().ordinal()));
+        putVarint(this.buffer, Math.max(0L, nanos - this.lastNanos));
+        putVarint(this.buffer, ((delta << 1) ^ (delta >> 31)) & 0xFFFFFFFFL);
+        this.lastNanos = Math.max(nanos, this.lastNanos);
+        this.lastIndex = index;
+        this.flushIfOld(nanos);
+    }
+
+    // Writes the buffer if it has no room for a record, then notes the time
+    // of the next record if it is the oldest one
+    private void reserve(long nanos) throws IOException {
+        if (this.buffer.remaining() < MAX_RECORD)
+            this.flush();
+        if (this.buffer.position() == 0)
+            this.oldestNanos = nanos;
+    }
+
+    // Writes the buffer if its oldest record is older than FLUSH_NANOS
+    private void flushIfOld(long nanos) throws IOException {
+        if (nanos - this.oldestNanos >= FLUSH_NANOS)
+            this.flush();
+    }
+
+    // Appends the unsigned varint of value to buffer
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes the records not written yet to the log, as one frame.
+     * @throws IOException if the write fails
+     */
+    public void flush() throws IOException {
+        if (this.buffer.position() == 0)
+            return;
+        this.buffer.flip();
+        this.crc.reset();
+        this.crc.update(this.buffer);
+        this.buffer.rewind();
+        this.header.clear();
+        this.header.putInt(this.buffer.remaining())
+            .putInt((int) this.crc.getValue());
+        this.header.flip();
+        while (this.buffer.hasRemaining())
+            this.channel.write(this.frame);
+        this.buffer.clear();
+    }
+
+    /**
+     * Writes the records not written yet, forces them to the storage and
+     * closes the log.
+     * @throws IOException if the write fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+            this.channel.force(false);
+        } finally {
+            this.channel.close();
+        }
+    }
+}
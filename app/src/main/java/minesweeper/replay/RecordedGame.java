@@ -0,0 +1,28 @@
+package minesweeper.replay;
+
+import java.util.List;
+
+import minesweeper.model.Game;
+
+/**
+ * A RecordedGame is a game read from a move log: the settings and the seed
+ * of its grid, and its moves in the order they were played.
+ * @param width the width of the grid
+ * @param height the height of the grid
+ * @param mines the number of mines of the grid
+ * @param seed the seed of the placement of the mines
+ * @param startNanos the time at which the game was recorded, in nanoseconds
+ *                   as given by System.nanoTime() in the recording session
+ * @param moves the moves of the game, by increasing time
+ */
+public record RecordedGame(int width, int height, int mines, long seed,
+        long startNanos, List<RecordedMove> moves) {
+
+    /**
+     * {@return a new Game of the settings and the seed of this RecordedGame,
+     * on which its moves can be played again}
+     */
+    public Game newGame() {
+        return new Game(this.width, this.height, this.mines, this.seed);
+    }
+}
@@ -0,0 +1,13 @@
+package minesweeper.replay;
+
+import minesweeper.model.Move;
+
+/**
+ * A RecordedMove is a Move read from a move log, with the time at which it
+ * was received.
+ * @param nanos the time of the move, in nanoseconds as given by
+ *              System.nanoTime() in the recording session
+ * @param move the move
+ */
+public record RecordedMove(long nanos, Move move) {
+}
@@ -0,0 +1,28 @@
+package minesweeper.replay;
+
+/**
+ * A RenderReport describes the frames written by a ReplayRenderer.
+ * @param frames the number of frames written
+ * @param workers the number of workers that rendered them
+ * @param bytes the total size of the frames, in bytes
+ * @param elapsedNanos the duration of the rendering in nanoseconds
+ */
+public record RenderReport(int frames, int workers, long bytes,
+        long elapsedNanos) {
+
+    /**
+     * {@return the number of frames written by second}
+     */
+    public double framesPerSecond() {
+        return this.frames * 1e9 / Math.max(1L, this.elapsedNanos);
+    }
+
+    /**
+     * {@return a summary of this report, on one line}
+     */
+    public String summary() {
+        return String.format("%d frames in %.2f s: %.1f frames/s on %d "
+                + "workers, %d KiB", this.frames, this.elapsedNanos / 1e9,
+                this.framesPerSecond(), this.workers, this.bytes / 1024);
+    }
+}
@@ -0,0 +1,240 @@
+package minesweeper.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import minesweeper.model.Game;
+import minesweeper.model.GameKeyframe;
+import minesweeper.model.Move;
+import minesweeper.model.MoveResult;
+
+/**
+ * A Replay plays a RecordedGame again on a Game of its own, from any of its
+ * moves: its position is the number of moves played.
+ *
+ * The moves are played once on creation, a keyframe of the Game being taken
+ * every KEYFRAME_MOVES moves, or sooner once the moves since the previous
+ * keyframe changed an eighth of the cells, as by large floods. Seeking back,
+ * or far ahead, restores the last keyframe before the target, found by
+ * binary search, then plays the moves after it only: a seek costs the
+ * unpacking of a keyframe and less than KEYFRAME_MOVES moves, whatever the
+ * length of the game.
+ *
+ * The observers of the Game are notified once by seek: with the changes of
+ * the moves played if the Game was not restored, in full otherwise.
+ */
+public final class Replay {
+
+    /**
+     * The maximum number of moves between two keyframes.
+     */
+    public static final int KEYFRAME_MOVES = 64;
+
+    // The divisor of the number of cells whose visibility changed since the
+    // previous keyframe from which a keyframe is taken.
+    private static final int KEYFRAME_CELLS_DIVISOR = 8;
+
+    // The recorded game.
+    private final RecordedGame recorded;
+
+    // The Game the moves are played on.
+    private final Game game;
+
+    // The moves of the recorded game.
+    private final List<Move> moves;
+
+    // The times of the moves since the start of the game, in nanoseconds.
+    private final long[] elapsed;
+
+    // The positions of the keyframes, increasing.
+    private final int[] keyframePositions;
+
+    // The keyframes, by position.
+    private final List<GameKeyframe> keyframes;
+
+    // The number of moves played.
+    private int position;
+
+    /**
+     * Class constructor that plays the moves of the given game once to take
+     * its keyframes, then moves the Replay back to the start of the game.
+     * @param recorded the recorded game
+     * @throws NullPointerException if recorded is null
+     */
+    public Replay(RecordedGame recorded) {
+        this.recorded = Objects.requireNonNull(recorded);
+        this.game = recorded.newGame();
+        int length = recorded.moves().size();
+        this.moves = new ArrayList<>(length);
+        this.elapsed = new long[length];
+        for (int i = 0; i < length; i++) {
+            RecordedMove move = recorded.moves().get(i);
+            this.moves.add(move.move());
+            this.elapsed[i] = move.nanos() - recorded.startNanos();
+        }
+        int cells = recorded.width() * recorded.height();
+        int threshold = Math.max(1, cells / KEYFRAME_CELLS_DIVISOR);
+        List<Integer> positions = new ArrayList<>();
+        this.keyframes = new ArrayList<>();
+        positions.add(0);
+        this.keyframes.add(this.game.keyframe());
+        int changed = 0;
+        for (int i = 0; i < length; i++) {
+            MoveResult result = this.game.play(this.moves.get(i));
+            changed += result.changedCells().length;
+            if (i + 1 - positions.get(positions.size() - 1) >= KEYFRAME_MOVES
+                    || changed >= threshold) {
+                positions.add(i + 1);
+                this.keyframes.add(this.game.keyframe());
+                changed = 0;
+            }
+        }
+        this.keyframePositions = positions.stream().mapToInt(p -> p)
+            .toArray();
+        this.game.restore(this.keyframes.get(0));
+        this.position = 0;
+    }
+
+    // Class constructor of a fork of replay, on a Game of its own with the
+    // mines of the Game of replay, placed by the first moves of the game
+    private Replay(Replay replay) {
+        this.recorded = replay.recorded;
+        this.game = replay.recorded.newGame();
+        this.moves = replay.moves;
+        this.elapsed = replay.elapsed;
+        this.keyframePositions = replay.keyframePositions;
+        this.keyframes = replay.keyframes;
+        for (Move move: this.moves) {
+            if (this.game.isMined())
+                break;
+            this.game.play(move);
+        }
+        if (this.game.isMined())
+            this.game.restore(this.keyframes.get(0));
+        this.position = 0;
+    }
+
+    /**
+     * {@return a new Replay of the same game, at its start, which shares the
+     * moves and the keyframes of this one but plays them on a Game of its
+     * own}
+     * Only the moves that place the mines are played: a fork costs much less
+     * than a new Replay. Forks can be taken and used on several threads, as
+     * long as this Replay is not seeked meanwhile.
+     */
+    public Replay fork() {
+        return new Replay(this);
+    }
+
+    /**
+     * {@return the recorded game}
+     */
+    public RecordedGame recorded() {
+        return this.recorded;
+    }
+
+    /**
+     * {@return the Game the moves are played on}
+     * Its moves should only be played by this Replay.
+     */
+    public Game game() {
+        return this.game;
+    }
+
+    /**
+     * {@return the number of moves of the recorded game}
+     */
+    public int length() {
+        return this.moves.size();
+    }
+
+    /**
+     * {@return the number of moves played}
+     */
+    public int position() {
+        return this.position;
+    }
+
+    /**
+     * {@return the number of keyframes}
+     */
+    public int keyframes() {
+        return this.keyframes.size();
+    }
+
+    /**
+     * {@return the number of moves played at the given keyframe}
+     * The first keyframe is at position 0, and the positions increase by at
+     * most KEYFRAME_MOVES from one keyframe to the next.
+     * @param keyframe the index of the keyframe
+     * @throws IndexOutOfBoundsException if keyframe is not inside
+     *         [0; keyframes()[
+     */
+    public int keyframePosition(int keyframe) {
+        return this.keyframePositions[keyframe];
+    }
+
+    /**
+     * {@return the time since the start of the game at which the given
+     * number of moves were played, in nanoseconds}
+     * @param position the number of moves played
+     * @throws IllegalArgumentException if position is not inside
+     *         [0; length()]
+     */
+    public long elapsedNanos(int position) {
+        this.checkPosition(position);
+        return position == 0 ? 0L : this.elapsed[position - 1];
+    }
+
+    /**
+     * {@return the number of moves played at the given time since the start
+     * of the game}
+     * @param elapsedNanos the time since the start of the game, in
+     *                     nanoseconds
+     */
+    public int positionAt(long elapsedNanos) {
+        int i = Arrays.binarySearch(this.elapsed, elapsedNanos);
+        if (i < 0)
+            return -i - 1;
+        while (i < this.elapsed.length && this.elapsed[i] == elapsedNanos)
+            i++;
+        return i;
+    }
+
+    /**
+     * Plays the recorded game up to the given number of moves, backward or
+     * forward, and notifies the observers of the Game once.
+     * @param position the number of moves to play
+     * @throws IllegalArgumentException if position is not inside
+     *         [0; length()]
+     */
+    public void seek(int position) {
+        this.checkPosition(position);
+        if (position == this.position)
+            return;
+        int k = Arrays.binarySearch(this.keyframePositions, position);
+        if (k < 0)
+            k = -k - 2;
+        int keyframe = this.keyframePositions[k];
+        if (position > this.position && keyframe <= this.position) {
+            this.game.applyBatch(this.moves.subList(this.position,
+                    position));
+        } else {
+            this.game.restore(this.keyframes.get(k));
+            for (Move move: this.moves.subList(keyframe, position))
+                this.game.play(move);
+            this.game.notifyObservers();
+        }
+        this.position = position;
+    }
+
+    // Throws an exception if position is not inside [0; length()]
+    private void checkPosition(int position) {
+        if (position < 0 || position > this.moves.size()) {
+            throw new IllegalArgumentException(
+              String.format("Illegal position: %d", position));
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package minesweeper.replay;
+
+import javax.imageio.ImageIO;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import minesweeper.model.ChangeObserver;
+import minesweeper.model.ChangeSet;
+import minesweeper.model.Game;
+import minesweeper.model.GameSnapshot;
+import minesweeper.view.GridView;
+
+/**
+ * A ReplayRenderer renders the frames of a RecordedGame without display, by
+ * painting a GridView into BufferedImages, and writes them as a sequence of
+ * PNG images named after their index by FRAME_NAME.
+ *
+ * A frame is rendered every step moves from the start of the game, the end
+ * of the game having a frame of its own. The frames are split into segments
+ * between consecutive keyframes of a Replay, built once, which the workers
+ * take in any order: each worker plays the game on a fork of the Replay and
+ * a GridView of its own, restores the shared keyframe of its segment and
+ * plays the moves of the segment forward, so that the segments are rendered
+ * independently across the cores. The frames only depend on the game, not
+ * on the number of workers.
+ *
+ * Each worker paints its frames into an image of its own, reused from frame
+ * to frame and written before the next frame is painted: within a segment,
+ * only the cells changed since the previous frame are painted over it, as
+ * by GridView.cellsChanged(). The workers are at most maxFrames: at most
+ * maxFrames frames are held in memory at once, whatever the parallelism.
+ */
+public final class ReplayRenderer {
+
+    /**
+     * The format of the name of a frame, of its index.
+     */
+    public static final String FRAME_NAME = "frame-%06d.png";
+
+    // The recorded game.
+    private final RecordedGame recorded;
+
+    // The side length of the cells, in pixels.
+    private final int sideLength;
+
+    // The number of moves between two frames.
+    private final int step;
+
+    // The maximum number of frames held in memory.
+    private final int maxFrames;
+
+    /**
+     * Class constructor.
+     * @param recorded the game to render
+     * @param sideLength the side length of the cells, in pixels
+     * @param step the number of moves between two frames
+     * @param maxFrames the maximum number of frames held in memory
+     * @throws NullPointerException if recorded is null
+     * @throws IllegalArgumentException if sideLength is not inside
+     *         [GridView.MIN_SIDE_LENGTH; GridView.MAX_SIDE_LENGTH], or if
+     *         step or maxFrames are inferior or equal to 0
+     */
+    public ReplayRenderer(RecordedGame recorded, int sideLength, int step,
+            int maxFrames) {
+        if (sideLength < GridView.MIN_SIDE_LENGTH
+                || sideLength > GridView.MAX_SIDE_LENGTH) {
+            throw new IllegalArgumentException(
+              String.format("Illegal side length: %d", sideLength));
+        }
+        if (step <= 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal step: %d", step));
+        }
+        if (maxFrames <= 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal number of frames: %d", maxFrames));
+        }
+        this.recorded = Objects.requireNonNull(recorded);
+        this.sideLength = sideLength;
+        this.step = step;
+        this.maxFrames = maxFrames;
+    }
+
+    /**
+     * {@return the number of frames of the game}
+     */
+    public int frames() {
+        return (this.recorded.moves().size() + this.step - 1) / this.step
+            + 1;
+    }
+
+    /**
+     * {@return the number of moves played at the given frame}
+     * @param frame the index of the frame
+     * @throws IllegalArgumentException if frame is not inside [0; frames()[
+     */
+    public int positionOf(int frame) {
+        if (frame < 0 || frame >= this.frames()) {
+            throw new IllegalArgumentException(
+              String.format("Illegal frame: %d", frame));
+        }
+        return (int) Math.min((long) frame * this.step,
+                this.recorded.moves().size());
+    }
+
+    /**
+     * Renders the frames of the game on at most parallelism workers and
+     * writes them into the given directory, created if needed.
+     * @param directory the directory of the frames
+     * @param parallelism the maximum number of workers
+     * @return the report of the rendering
+     * @throws IOException if a frame can not be written
+     * @throws IllegalArgumentException if parallelism is inferior or equal
+     *         to 0
+     * @throws IllegalStateException if a worker fails
+     */
+    public RenderReport render(Path directory, int parallelism)
+            throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal parallelism: %d", parallelism));
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Replay replay = new Replay(this.recorded);
+        int[] segments = this.segments(replay);
+        int workers = Math.min(Math.min(parallelism, this.maxFrames),
+                segments.length - 1);
+        AtomicInteger nextSegment = new AtomicInteger();
+        LongAdder bytes = new LongAdder();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            tasks.add(new Worker(replay, directory, segments, nextSegment,
+                        bytes));
+        }
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            for (Future<Void> future: pool.invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rendering interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IllegalStateException("Rendering failed",
+                    e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new RenderReport(this.frames(), workers, bytes.sum(),
+                System.nanoTime() - start);
+    }
+
+    // Returns the index of the first frame of each segment between two
+    // keyframes of replay that holds frames, followed by frames()
+    private int[] segments(Replay replay) {
+        int[] segments = new int[replay.keyframes() + 1];
+        int count = 0;
+        for (int k = 0; k < replay.keyframes(); k++) {
+            int first = (replay.keyframePosition(k) + this.step - 1)
+                / this.step;
+            if (count == 0 || first > segments[count - 1])
+                segments[count++] = first;
+        }
+        segments[count++] = this.frames();
+        return Arrays.copyOf(segments, count);
+    }
+
+    // A worker renders segments of frames until there is none left.
+    private final class Worker implements Callable<Void> {
+
+        // The replay whose keyframes are shared by the workers.
+        private final Replay shared;
+
+        // The fork of the shared replay played by this Worker, or null until
+        // it starts.
+        private Replay replay;
+
+        // The directory of the frames.
+        private final Path directory;
+
+        // The first frame of each segment, followed by the number of frames.
+        private final int[] segments;
+
+        // The index of the next segment to render.
+        private final AtomicInteger nextSegment;
+
+        // The total size of the frames written.
+        private final LongAdder bytes;
+
+        // The snapshot of the Game of the replay.
+        private GameSnapshot snapshot;
+
+        // The cells changed since the previous frame.
+        private final BitSet changed = new BitSet();
+
+        // Indicates if any cell may have changed since the previous frame.
+        private boolean full = true;
+
+        // Creates a worker that renders with a fork of shared
+        private Worker(Replay shared, Path directory, int[] segments,
+                AtomicInteger nextSegment, LongAdder bytes) {
+            this.shared = shared;
+            this.directory = directory;
+            this.segments = segments;
+            this.nextSegment = nextSegment;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            this.replay = this.shared.fork();
+            this.snapshot = GameSnapshot.of(this.replay.game());
+            this.replay.game().add((ChangeObserver) this::update);
+            GridView view = new GridView();
+            view.setModel(this.snapshot);
+            view.setSideLength(sideLength);
+            view.setSize(view.getPreferredSize());
+            BufferedImage image = new BufferedImage(view.getWidth(),
+                    view.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            try {
+                int segment;
+                while ((segment = this.nextSegment.getAndIncrement())
+                        < this.segments.length - 1) {
+                    for (int frame = this.segments[segment];
+                            frame < this.segments[segment + 1]; frame++) {
+                        this.replay.seek(positionOf(frame));
+                        this.paint(view, graphics);
+                        this.write(image, frame);
+                    }
+                }
+            } finally {
+                graphics.dispose();
+            }
+            return null;
+        }
+
+        // Records the changes of game since the previous frame
+        private void update(Game game, ChangeSet changes) {
+            this.snapshot = this.snapshot.next(game, changes);
+            if (changes.full()) {
+                this.full = true;
+                return;
+            }
+            for (int index: changes.changedCells())
+                this.changed.set(index);
+        }
+
+        // Paints the cells changed since the previous frame over it, as
+        // GridView.cellsChanged() would, or the whole grid after a keyframe
+        // was restored or when most cells changed
+        private void paint(GridView view, Graphics2D graphics) {
+            view.setModel(this.snapshot);
+            int width = this.snapshot.width();
+            int cells = width * this.snapshot.height();
+            int l = sideLength;
+            if (this.full || this.changed.cardinality() > cells / 8) {
+                graphics.setClip(0, 0, view.getWidth(), view.getHeight());
+                view.paintComponent(graphics);
+            } else {
+                for (int i = this.changed.nextSetBit(0); i >= 0;
+                        i = this.changed.nextSetBit(i + 1)) {
+                    graphics.setClip((i % width) * l, (i / width) * l, l + 1,
+                            l + 1);
+                    view.paintComponent(graphics);
+                }
+            }
+            this.full = false;
+            this.changed.clear();
+        }
+
+        // Writes image as the given frame
+        private void write(BufferedImage image, int frame)
+                throws IOException {
+            Path path = this.directory.resolve(
+                    String.format(FRAME_NAME, frame));
+            if (!ImageIO.write(image, "png", path.toFile()))
+                throw new IOException("No PNG writer");
+            this.bytes.add(Files.size(path));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package minesweeper.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import minesweeper.model.MinePlacer;
+
+/**
+ * A BlockRunner processes a number of independent random items, such as
+ * games or grids, spread across the cores.
+ *
+ * The items are split into blocks of BLOCK_SIZE items, each drawn by its own
+ * random generator seeded from the master seed and the index of the block.
+ * The workers take the blocks in any order, process their items in order
+ * with the generator of the block, and merge their statistics once there is
+ * no block left: sums of the statistics of the blocks only depend on the
+ * master seed and the number of items, not on the number of workers.
+ */
+public final class BlockRunner {
+
+    /**
+     * The number of items of a block.
+     */
+    public static final int BLOCK_SIZE = 1024;
+
+    /**
+     * A Worker processes the items of the blocks it takes, reusing its state
+     * from one item to the next.
+     */
+    public interface Worker {
+
+        /**
+         * Processes one item.
+         * @param random the generator of the block of the item
+         */
+        void process(SplittableRandom random);
+
+        /**
+         * Merges the statistics of this Worker, once there is no block left.
+         */
+        void merge();
+    }
+
+    // The name of the task, in the messages of the exceptions.
+    private final String task;
+
+    // The name of the items, in the messages of the exceptions.
+    private final String items;
+
+    /**
+     * Class constructor.
+     * @param task the name of the task, such as "Simulation"
+     * @param items the name of the items, such as "games"
+     */
+    public BlockRunner(String task, String items) {
+        this.task = task;
+        this.items = items;
+    }
+
+    /**
+     * Processes the given number of items on parallelism workers.
+     * @param count the number of items to process
+     * @param seed the master seed of the items
+     * @param parallelism the number of workers
+     * @param workers creates the workers, called parallelism times
+     * @return the duration of the processing in nanoseconds
+     * @throws IllegalArgumentException if count is strictly inferior to 0 or
+     *         if parallelism is inferior or equal to 0
+     * @throws IllegalStateException if a worker fails
+     */
+    public long run(long count, long seed, int parallelism,
+            Supplier<? extends Worker> workers) {
+        if (count < 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal number of %s: %d", this.items, count));
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal parallelism: %d", parallelism));
+        }
+        AtomicLong nextBlock = new AtomicLong();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            Worker worker = workers.get();
+            tasks.add(() -> drain(worker, count, seed, nextBlock));
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            for (Future<Void> future: pool.invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(this.task + " interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(this.task + " failed",
+                    e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Processes the items of blocks with worker until there is none left,
+    // then merges its statistics
+    private static Void drain(Worker worker, long count, long seed,
+            AtomicLong nextBlock) {
+        long block;
+        while ((block = nextBlock.getAndIncrement()) * BLOCK_SIZE < count) {
+            SplittableRandom random = new SplittableRandom(
+                    MinePlacer.derivedSeed(seed, block));
+            long end = Math.min(count, (block + 1) * BLOCK_SIZE);
+            for (long i = block * BLOCK_SIZE; i < end; i++)
+                worker.process(random);
+        }
+        worker.merge();
+        return null;
+    }
+}
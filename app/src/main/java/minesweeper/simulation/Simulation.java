@@ -0,0 +1,214 @@
+package minesweeper.simulation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Position;
+
+/**
+ * A Simulation plays independent games of minesweeper on grids of given
+ * dimensions and number of mines, spread across the cores, and reports their
+ * statistics. Each game starts with a click at a random position, whose
+ * surroundings are kept free of mines, then reveals the hidden cells in a
+ * random order until it ends.
+ *
+ * The games are split into blocks of BLOCK_SIZE games by a BlockRunner, each
+ * drawn by its own random generator seeded from the master seed and the
+ * index of the block, so that the statistics only depend on the master seed
+ * and the number of games, not on the number of workers. Each worker reuses
+ * its Grid from one game to the next and merges its statistics into
+ * lock-free accumulators when it is done.
+ */
+public final class Simulation {
+
+    /**
+     * The number of games of a block.
+     */
+    public static final int BLOCK_SIZE = BlockRunner.BLOCK_SIZE;
+
+    // Runs the games on the cores.
+    private static final BlockRunner RUNNER = new BlockRunner("Simulation",
+            "games");
+
+    // The width of the grids.
+    private final int width;
+
+    // The height of the grids.
+    private final int height;
+
+    // The number of mines of the grids.
+    private final int mines;
+
+    /**
+     * Class constructor that specifies the dimensions and the number of mines
+     * of the grids of the new Simulation.
+     * @param width the width of the grids
+     * @param height the height of the grids
+     * @param mines the number of mines of the grids
+     * @throws IllegalArgumentException if width or height are inferior or
+     *         equal to 0, if mines is strictly inferior to 0 or if mines is
+     *         strictly superior to width * height
+     */
+    public Simulation(int width, int height, int mines) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal dimensions: %d, %d", width, height));
+        }
+        if (mines < 0 || mines > width * height) {
+            throw new IllegalArgumentException(
+              String.format("Illegal number of mines: %d", mines));
+        }
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+    }
+
+    /**
+     * Plays the given number of games on parallelism workers.
+     * @param games the number of games to play
+     * @param seed the master seed of the games
+     * @param parallelism the number of workers
+     * @return the statistics of the games
+     * @throws IllegalArgumentException if games is strictly inferior to 0 or
+     *         if parallelism is inferior or equal to 0
+     * @throws IllegalStateException if a worker fails
+     */
+    public SimulationReport run(long games, long seed, int parallelism) {
+        Accumulators accumulators = new Accumulators(
+                this.width * this.height);
+        long elapsed = RUNNER.run(games, seed, parallelism,
+                () -> new Worker(accumulators));
+        return accumulators.report(this.width, this.height, this.mines,
+                games, elapsed);
+    }
+
+    /**
+     * Plays the given number of games on as many workers as there are
+     * available processors.
+     * @param games the number of games to play
+     * @param seed the master seed of the games
+     * @return the statistics of the games
+     * @throws IllegalArgumentException if games is strictly inferior to 0
+     */
+    public SimulationReport run(long games, long seed) {
+        return this.run(games, seed,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    // The statistics of a Simulation, shared by its workers.
+    private static final class Accumulators {
+
+        // The number of won games.
+        private final LongAdder wins = new LongAdder();
+
+        // The number of clicks that revealed cells, over all games.
+        private final LongAdder moves = new LongAdder();
+
+        // The number of games by number of cells revealed by the first click.
+        private final AtomicLongArray firstClick;
+
+        // Creates accumulators for grids of cells cells
+        private Accumulators(int cells) {
+            this.firstClick = new AtomicLongArray(cells + 1);
+        }
+
+        // Merges the statistics of a worker
+        private void merge(long wins, long moves, long[] firstClick) {
+            this.wins.add(wins);
+            this.moves.add(moves);
+            for (int i = 0; i < firstClick.length; i++) {
+                if (firstClick[i] != 0)
+                    this.firstClick.addAndGet(i, firstClick[i]);
+            }
+        }
+
+        // Returns the report of the accumulated statistics
+        private SimulationReport report(int width, int height, int mines,
+                long games, long elapsed) {
+            long[] histogram = new long[this.firstClick.length()];
+            for (int i = 0; i < histogram.length; i++)
+                histogram[i] = this.firstClick.get(i);
+            return new SimulationReport(width, height, mines, games,
+                    this.wins.sum(), this.moves.sum(), histogram, elapsed);
+        }
+    }
+
+    // A worker plays the games of the blocks it takes.
+    private final class Worker implements BlockRunner.Worker {
+
+        // The accumulators of the Simulation.
+        private final Accumulators accumulators;
+
+        // The grid of the games of this Worker, reused from game to game.
+        private final Grid grid;
+
+        // The order in which the cells are clicked.
+        private final int[] order;
+
+        // The number of games won by this Worker.
+        private long wins;
+
+        // The number of clicks that revealed cells, over the games of this
+        // Worker.
+        private long moves;
+
+        // The number of games of this Worker by number of cells revealed by
+        // the first click.
+        private final long[] firstClick;
+
+        // Creates a worker that merges into accumulators
+        private Worker(Accumulators accumulators) {
+            this.accumulators = accumulators;
+            this.grid = new Grid(width, height, mines);
+            this.order = new int[width * height];
+            this.firstClick = new long[this.order.length + 1];
+        }
+
+        @Override
+        public void process(SplittableRandom random) {
+            int opened = this.playFirstClick(random);
+            this.firstClick[opened]++;
+            this.moves++;
+            this.moves += this.playRandomly(random);
+            if (this.grid.isCompleted())
+                this.wins++;
+        }
+
+        @Override
+        public void merge() {
+            this.accumulators.merge(this.wins, this.moves, this.firstClick);
+        }
+
+        // Resets the grid, places its mines around a random position and
+        // clicks it, returns the number of cells it revealed
+        private int playFirstClick(SplittableRandom random) {
+            this.grid.initializeCells();
+            int first = random.nextInt(this.order.length);
+            Position position = this.grid.positionOf(first);
+            this.grid.placeMines(Game.safeZone(position), random.nextLong());
+            this.grid.revealCellAt(position);
+            return this.grid.revealedSafeCells();
+        }
+
+        // Clicks the cells in a random order until the game ends, returns the
+        // number of clicks that revealed a cell
+        private long playRandomly(SplittableRandom random) {
+            for (int i = 0; i < this.order.length; i++) {
+                int j = random.nextInt(i + 1);
+                this.order[i] = this.order[j];
+                this.order[j] = i;
+            }
+            long clicks = 0;
+            for (int index: this.order) {
+                if (this.grid.hasMineRevealed() || this.grid.isCompleted())
+                    break;
+                if (this.grid.revealCellAt(this.grid.positionOf(index)))
+                    clicks++;
+            }
+            return clicks;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package minesweeper.simulation;
+
+import java.util.Arrays;
+
+/**
+ * A SimulationReport holds the statistics of the games played by a
+ * Simulation.
+ * @param width the width of the grids
+ * @param height the height of the grids
+ * @param mines the number of mines of the grids
+ * @param games the number of games played
+ * @param wins the number of games won
+ * @param moves the number of clicks that revealed cells, over all games
+ * @param firstClick the number of games by number of cells revealed by their
+ *                   first click
+ * @param elapsedNanos the duration of the Simulation in nanoseconds
+ */
+public record SimulationReport(int width, int height, int mines, long games,
+        long wins, long moves, long[] firstClick, long elapsedNanos) {
+
+    /**
+     * {@return the ratio of won games, 0 if no game was played}
+     */
+    public double winRate() {
+        return this.games == 0 ? 0.0 : (double) this.wins / this.games;
+    }
+
+    /**
+     * {@return the average number of cells revealed by a first click, 0 if no
+     * game was played}
+     */
+    public double averageOpening() {
+        if (this.games == 0)
+            return 0.0;
+        long total = 0;
+        for (int i = 0; i < this.firstClick.length; i++)
+            total += i * this.firstClick[i];
+        return (double) total / this.games;
+    }
+
+    /**
+     * {@return the ratio of games whose first click revealed more than one
+     * cell, 0 if no game was played}
+     */
+    public double openingRate() {
+        if (this.games == 0)
+            return 0.0;
+        long single = this.firstClick.length > 1 ? this.firstClick[1] : 0;
+        return (double) (this.games - this.firstClick[0] - single)
+            / this.games;
+    }
+
+    /**
+     * {@return the smallest number n of cells such that the first click of at
+     * least the given ratio of games revealed at most n cells}
+     * @param ratio the ratio of games, inside [0; 1]
+     * @throws IllegalArgumentException if ratio is not inside [0; 1]
+     */
+    public int firstClickQuantile(double ratio) {
+        if (!(ratio >= 0.0 && ratio <= 1.0)) {
+            throw new IllegalArgumentException(
+              String.format("Illegal ratio: %f", ratio));
+        }
+        long cumulated = 0;
+        for (int i = 0; i < this.firstClick.length; i++) {
+            cumulated += this.firstClick[i];
+            if (cumulated >= ratio * this.games)
+                return i;
+        }
+        return this.firstClick.length - 1;
+    }
+
+    /**
+     * {@return the number of games played by second}
+     */
+    public double gamesPerSecond() {
+        return this.games * 1e9 / Math.max(1L, this.elapsedNanos);
+    }
+
+    /**
+     * {@return true if the other report holds the same statistics, whatever
+     * their durations}
+     * @param other the other report
+     */
+    public boolean sameStatistics(SimulationReport other) {
+        return this.width == other.width && this.height == other.height
+            && this.mines == other.mines && this.games == other.games
+            && this.wins == other.wins && this.moves == other.moves
+            && Arrays.equals(this.firstClick, other.firstClick);
+    }
+
+    /**
+     * {@return a summary of this report on several lines}
+     */
+    public String summary() {
+        return String.format("%dx%d, %d mines: %d games%n"
+                + "  win rate: %.4f%n"
+                + "  first click: %.2f cells on average, %.4f openings, "
+                + "median %d, 90th percentile %d%n"
+                + "  clicks: %.2f per game%n"
+                + "  %.3f s, %.0f games/s",
+                this.width, this.height, this.mines, this.games,
+                this.winRate(), this.averageOpening(), this.openingRate(),
+                this.firstClickQuantile(0.5), this.firstClickQuantile(0.9),
+                this.games == 0 ? 0.0 : (double) this.moves / this.games,
+                this.elapsedNanos / 1e9, this.gamesPerSecond());
+    }
+}
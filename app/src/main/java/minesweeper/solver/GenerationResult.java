@@ -0,0 +1,20 @@
+package minesweeper.solver;
+
+import minesweeper.model.Grid;
+
+/**
+ * A GenerationResult is a grid generated by a NoGuessGenerator and the
+ * metrics of its generation.
+ * @param grid the generated grid, mined and not revealed
+ * @param seed the seed of the placement of the mines of the grid
+ * @param noGuess true if the grid can be completed without guessing, false
+ *                if the generation timed out and fell back to a layout that
+ *                may require guessing
+ * @param attempts the number of candidate layouts up to the generated one
+ * @param tested the number of candidate layouts tested by the workers, some
+ *               of them after the generated one
+ * @param elapsedNanos the duration of the generation in nanoseconds
+ */
+public record GenerationResult(Grid grid, long seed, boolean noGuess,
+        long attempts, long tested, long elapsedNanos) {
+}
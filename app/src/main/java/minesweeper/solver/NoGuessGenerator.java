@@ -0,0 +1,211 @@
+package minesweeper.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import minesweeper.model.Game;
+import minesweeper.model.GameState;
+import minesweeper.model.Grid;
+import minesweeper.model.MinePlacer;
+import minesweeper.model.Move;
+import minesweeper.model.MoveResult;
+import minesweeper.model.Position;
+import minesweeper.model.RevealOnlyGrid;
+
+/**
+ * A NoGuessGenerator generates grids that a Solver completes from the first
+ * click without guessing. Candidate layouts are placed by Grid.placeMines()
+ * from seeds derived from a master seed, the first one being attempt 0, and
+ * tested in parallel. The workers take the attempts in increasing order and
+ * the first attempt that succeeds wins: as soon as an attempt succeeds, the
+ * workers testing later attempts are cancelled, the ones testing earlier
+ * attempts finish in case one of them succeeds too, even past the timeout.
+ * When an attempt succeeds before the timeout, the generated grid is thus
+ * the one of the first attempt that succeeds, which only depends on the
+ * master seed, not on the number of workers.
+ *
+ * Until an attempt succeeds, the timeout cancels all of them: whether one
+ * succeeds in time depends on the number of workers and on the speed of the
+ * machine. If none does, the layout of attempt 0 is used as a fallback,
+ * which may require guessing.
+ */
+public class NoGuessGenerator {
+
+    // The width of the grids.
+    private final int width;
+
+    // The height of the grids.
+    private final int height;
+
+    // The number of mines of the grids.
+    private final int mines;
+
+    // The number of workers.
+    private final int parallelism;
+
+    // The number of grids generated.
+    private final LongAdder boards;
+
+    // The number of attempts of the generated grids.
+    private final LongAdder attempts;
+
+    // The number of generated grids that fell back to a guessing layout.
+    private final LongAdder fallbacks;
+
+    /**
+     * Class constructor that specifies the dimensions and the number of mines
+     * of the generated grids, and the number of workers.
+     * @param width the width of the grids
+     * @param height the height of the grids
+     * @param mines the number of mines of the grids
+     * @param parallelism the number of workers
+     * @throws IllegalArgumentException if width, height or mines are strictly
+     *         inferior to 0, if mines is strictly superior to width * height
+     *         or if parallelism is inferior or equal to 0
+     */
+    public NoGuessGenerator(int width, int height, int mines,
+            int parallelism) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal dimensions: %d, %d", width, height));
+        }
+        if (mines < 0 || mines > width * height) {
+            throw new IllegalArgumentException(
+              String.format("Illegal number of mines: %d", mines));
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(
+              String.format("Illegal parallelism: %d", parallelism));
+        }
+        this.width = width;
+        this.height = height;
+        this.mines = mines;
+        this.parallelism = parallelism;
+        this.boards = new LongAdder();
+        this.attempts = new LongAdder();
+        this.fallbacks = new LongAdder();
+    }
+
+    /**
+     * Generates a grid whose mines are out of the first click and its
+     * neighbors and that can be completed from the first click without
+     * guessing, unless the timeout expires. The grid is mined but not
+     * revealed. A Game created with the seed of the result, given the same
+     * first click, has the same layout.
+     * @param firstClick the position of the first click
+     * @param seed the master seed
+     * @param timeout the maximum duration of the search
+     * @return the generated grid and its metrics
+     * @throws IllegalArgumentException if firstClick is outside the grids
+     * @throws IllegalStateException if a worker fails
+     * @throws NullPointerException if firstClick or timeout are null
+     */
+    public GenerationResult generate(Position firstClick, long seed,
+            Duration timeout) {
+        Objects.requireNonNull(timeout);
+        if (firstClick.line() >= this.height
+                || firstClick.column() >= this.width) {
+            throw new IllegalArgumentException(
+              String.format("Illegal first click: %s", firstClick));
+        }
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        AtomicLong nextAttempt = new AtomicLong();
+        AtomicLong winner = new AtomicLong(Long.MAX_VALUE);
+        LongAdder tested = new LongAdder();
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < this.parallelism; i++) {
+            workers.add(() -> {
+                long attempt;
+                while ((attempt = nextAttempt.getAndIncrement())
+                        < winner.get() && System.nanoTime() < deadline) {
+                    tested.increment();
+                    if (this.test(firstClick,
+                            MinePlacer.derivedSeed(seed, attempt), attempt,
+                            winner, deadline))
+                        winner.accumulateAndGet(attempt, Math::min);
+                }
+                return null;
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            for (Future<Void> future: pool.invokeAll(workers))
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generation failed",
+                    e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        boolean noGuess = winner.get() != Long.MAX_VALUE;
+        long attempt = noGuess ? winner.get() : 0L;
+        long layoutSeed = MinePlacer.derivedSeed(seed, attempt);
+        Grid grid = new Grid(this.width, this.height, this.mines);
+        grid.placeMines(Game.safeZone(firstClick), layoutSeed);
+        this.boards.increment();
+        this.attempts.add(attempt + 1);
+        if (!noGuess)
+            this.fallbacks.increment();
+        return new GenerationResult(grid, layoutSeed, noGuess, attempt + 1,
+                tested.sum(), System.nanoTime() - start);
+    }
+
+    // Plays the game of the given seed from firstClick with a Solver,
+    // returns true if it is won without guessing, false if it is not or if
+    // the test is cancelled by an earlier winner or, while there is no
+    // winner, by the deadline
+    private boolean test(Position firstClick, long seed, long attempt,
+            AtomicLong winner, long deadline) {
+        Game game = new Game(this.width, this.height, this.mines, seed);
+        game.play(new Move(Move.Type.REVEAL, firstClick));
+        Grid grid = game.grid();
+        Solver solver = new Solver(new RevealOnlyGrid(grid));
+        int safe;
+        while ((safe = solver.nextSafe()) >= 0) {
+            long first = winner.get();
+            if (first < attempt || (first == Long.MAX_VALUE
+                    && System.nanoTime() >= deadline))
+                return false;
+            MoveResult result = game.play(
+                    new Move(Move.Type.REVEAL, grid.positionOf(safe)));
+            solver.update(result.changedCells());
+        }
+        return game.state() == GameState.WON;
+    }
+
+    /**
+     * {@return the number of grids generated by this NoGuessGenerator}
+     */
+    public long boards() {
+        return this.boards.sum();
+    }
+
+    /**
+     * {@return the average number of attempts of the grids generated by this
+     * NoGuessGenerator, 0 if none was generated}
+     */
+    public double averageAttempts() {
+        long boards = this.boards.sum();
+        return boards == 0 ? 0.0 : (double) this.attempts.sum() / boards;
+    }
+
+    /**
+     * {@return the number of grids generated by this NoGuessGenerator that
+     * fell back to a layout that may require guessing}
+     */
+    public long fallbacks() {
+        return this.fallbacks.sum();
+    }
+}
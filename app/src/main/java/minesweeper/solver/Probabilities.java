@@ -0,0 +1,26 @@
+package minesweeper.solver;
+
+/**
+ * The Probabilities are the probabilities that the cells of a grid are
+ * mined, computed by a ProbabilityEngine from the state visible by a player.
+ * @param values the probability of each cell, in row-major order: 0 for the
+ *               revealed cells, 1 for the flagged ones and NaN for all the
+ *               hidden ones if the result is not complete
+ * @param components the number of independent components of the frontier
+ * @param reusedComponents the number of components whose solution was
+ *                         reused from an earlier computation
+ * @param complete false if a component was too large to be enumerated or if
+ *                 the visible state is inconsistent
+ */
+public record Probabilities(double[] values, int components,
+        int reusedComponents, boolean complete) {
+
+    /**
+     * {@return the probability that the cell at index is mined}
+     * @param index the index of the cell
+     * @throws IndexOutOfBoundsException if index is outside the grid
+     */
+    public double at(int index) {
+        return this.values[index];
+    }
+}
@@ -0,0 +1,603 @@
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import minesweeper.model.Cell;
+import minesweeper.model.Position;
+import minesweeper.model.RevealOnlyGrid;
+import minesweeper.model.Visibility;
+
+/**
+ * A ProbabilityEngine computes the exact probability that each hidden cell
+ * of a grid is mined, from the state visible by a player and the number of
+ * mines of the grid. The flagged cells are assumed to be mined.
+ *
+ * The hidden cells next to a revealed cell form the frontier, the other
+ * hidden cells the interior. The frontier is split into independent
+ * components, the cells of a component being linked by the revealed cells
+ * they share. The mine configurations of each component are enumerated by
+ * backtracking and counted by number of mines. The components are then
+ * combined, each configuration being weighted by the number of ways to place
+ * the remaining mines in the interior, a binomial coefficient.
+ *
+ * The solution of a component is cached under the cells and the numbers that
+ * define it, so that the components untouched by a move are not enumerated
+ * again. The cache only keeps the components of the last computation.
+ */
+public class ProbabilityEngine {
+
+    /**
+     * The maximum number of steps of the enumeration of a component. Beyond
+     * it, the computation gives up and its result is not complete.
+     */
+    public static final long MAX_STEPS = 20_000_000L;
+
+    // The visible state of a hidden cell in a snapshot.
+    private static final byte HIDDEN = -1;
+
+    // The visible state of a flagged cell in a snapshot.
+    private static final byte FLAGGED = -2;
+
+    // The grid of this ProbabilityEngine.
+    private final RevealOnlyGrid grid;
+
+    // The width of the grid.
+    private final int width;
+
+    // The height of the grid.
+    private final int height;
+
+    // The logarithms of the factorials from 0 to the number of cells.
+    private final double[] logFactorials;
+
+    // The solutions of the components of the last computation.
+    private Map<ComponentKey, Solution> cache;
+
+    /**
+     * Class constructor that specifies the grid of the new ProbabilityEngine.
+     * @param grid the grid whose probabilities are computed
+     * @throws NullPointerException if grid is null
+     */
+    public ProbabilityEngine(RevealOnlyGrid grid) {
+        this.grid = Objects.requireNonNull(grid);
+        this.width = grid.width();
+        this.height = grid.height();
+        int cells = this.width * this.height;
+        this.logFactorials = new double[cells + 1];
+        for (int i = 1; i <= cells; i++)
+            this.logFactorials[i] = this.logFactorials[i - 1] + Math.log(i);
+        this.cache = new HashMap<>();
+    }
+
+    /**
+     * {@return the probabilities of the current state of the grid}
+     */
+    public Probabilities compute() {
+        return this.compute(this.snapshot());
+    }
+
+    /**
+     * Reads the visible state of the grid on the calling thread, such as the
+     * event dispatch thread, and computes its probabilities with executor, so
+     * that the calling thread is not blocked by the computation.
+     * @param executor the executor of the computation
+     * @return the future probabilities of the current state of the grid
+     * @throws NullPointerException if executor is null
+     */
+    public CompletableFuture<Probabilities> computeAsync(Executor executor) {
+        Objects.requireNonNull(executor);
+        byte[] snapshot = this.snapshot();
+        return CompletableFuture.supplyAsync(() -> this.compute(snapshot),
+                executor);
+    }
+
+    // Returns the visible state of the cells of the grid: HIDDEN, FLAGGED or
+    // the number of mines around a revealed cell
+    private byte[] snapshot() {
+        byte[] res = new byte[this.width * this.height];
+        for (int i = 0; i < this.height; i++) {
+            for (int j = 0; j < this.width; j++) {
+                Cell cell = this.grid.cellAt(new Position(i, j));
+                Visibility visibility = cell.visibility();
+                res[i * this.width + j] = visibility == Visibility.REVEALED
+                    ? (byte) cell.minesAround()
+                    : visibility == Visibility.FLAGGED ? FLAGGED : HIDDEN;
+            }
+        }
+        return res;
+    }
+
+    // Computes the probabilities of the given snapshot
+    private synchronized Probabilities compute(byte[] cells) {
+        int n = cells.length;
+        double[] values = new double[n];
+        int flags = 0;
+        int[] parent = new int[n];
+        boolean[] frontier = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            if (cells[i] == FLAGGED) {
+                values[i] = 1.0;
+                flags++;
+            }
+        }
+        // Links the hidden neighbors of each revealed cell
+        int[] neighbors = new int[Cell.MAX_MINES_AROUND];
+        for (int i = 0; i < n; i++) {
+            if (cells[i] < 0)
+                continue;
+            int size = this.hiddenNeighbors(cells, i, neighbors);
+            for (int k = 0; k < size; k++) {
+                frontier[neighbors[k]] = true;
+                union(parent, neighbors[0], neighbors[k]);
+            }
+        }
+        // Groups the frontier cells and the revealed cells by component
+        Map<Integer, Component> byRoot = new HashMap<>();
+        List<Component> components = new ArrayList<>();
+        int interior = 0;
+        for (int i = 0; i < n; i++) {
+            if (cells[i] != HIDDEN)
+                continue;
+            if (!frontier[i]) {
+                interior++;
+                continue;
+            }
+            Component component = byRoot.computeIfAbsent(find(parent, i),
+                    root -> new Component());
+            if (component.vars.isEmpty())
+                components.add(component);
+            component.vars.add(i);
+        }
+        for (int i = 0; i < n; i++) {
+            if (cells[i] < 0)
+                continue;
+            int size = this.hiddenNeighbors(cells, i, neighbors);
+            int target = cells[i] - this.flaggedNeighbors(cells, i);
+            if (size == 0) {
+                if (target != 0)
+                    return incomplete(cells, values, components.size(), 0);
+                continue;
+            }
+            Component component = byRoot.get(find(parent, neighbors[0]));
+            component.constraints.add(i);
+            component.targets.add(target);
+        }
+        // Solves the components, reusing the cached solutions
+        Map<ComponentKey, Solution> used = new HashMap<>();
+        int reused = 0;
+        Solution[] solutions = new Solution[components.size()];
+        int[][] vars = new int[components.size()][];
+        for (int c = 0; c < solutions.length; c++) {
+            Component component = components.get(c);
+            vars[c] = component.vars.stream().mapToInt(i -> i).toArray();
+            ComponentKey key = component.key();
+            Solution solution = this.cache.get(key);
+            if (solution != null)
+                reused++;
+            else
+                solution = this.solve(cells, vars[c], component);
+            if (solution == null) {
+                this.cache = used;
+                return incomplete(cells, values, solutions.length, reused);
+            }
+            used.put(key, solution);
+            solutions[c] = solution;
+        }
+        this.cache = used;
+        int mines = this.grid.mines() - flags;
+        if (!this.combine(solutions, vars, interior, mines, cells, values))
+            return incomplete(cells, values, solutions.length, reused);
+        return new Probabilities(values, solutions.length, reused, true);
+    }
+
+    // Returns incomplete probabilities, NaN for every hidden cell
+    private static Probabilities incomplete(byte[] cells, double[] values,
+            int components, int reused) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == HIDDEN)
+                values[i] = Double.NaN;
+        }
+        return new Probabilities(values, components, reused, false);
+    }
+
+    // Combines the solutions of the components with the interior and fills
+    // values with the probabilities of the hidden cells, returns false if no
+    // configuration is possible
+    private boolean combine(Solution[] solutions, int[][] vars, int interior,
+            int mines, byte[] cells, double[] values) {
+        int k = solutions.length;
+        int frontierSize = 0;
+        for (int[] v: vars)
+            frontierSize += v.length;
+        int length = Math.max(0, Math.min(frontierSize, mines)) + 1;
+        // weights[t]: ways to place the mines left by t frontier mines
+        double[] weights = new double[length];
+        double maxLog = Double.NEGATIVE_INFINITY;
+        for (int t = 0; t < length; t++) {
+            int left = mines - t;
+            if (left >= 0 && left <= interior)
+                maxLog = Math.max(maxLog, this.logBinomial(interior, left));
+        }
+        if (maxLog == Double.NEGATIVE_INFINITY)
+            return false;
+        for (int t = 0; t < length; t++) {
+            int left = mines - t;
+            if (left >= 0 && left <= interior)
+                weights[t] = Math.exp(this.logBinomial(interior, left)
+                        - maxLog);
+        }
+        // The components before c hold from low[c] to high[c] mines
+        int[] low = new int[k + 1];
+        int[] high = new int[k + 1];
+        for (int c = 0; c < k; c++) {
+            low[c + 1] = low[c] + solutions[c].low();
+            high[c + 1] = Math.min(length - 1, high[c] + solutions[c].high());
+            if (low[c + 1] > high[c + 1])
+                return false;
+        }
+        // suffixes[c][t - low[c]]: weight of t mines in the components
+        // before c, summed over the configurations of the components from c
+        double[][] suffixes = new double[k + 1][];
+        suffixes[k] = Arrays.copyOfRange(weights, low[k], high[k] + 1);
+        for (int c = k - 1; c >= 0; c--) {
+            Solution solution = solutions[c];
+            double[] suffix = new double[high[c] - low[c] + 1];
+            for (int t = low[c]; t <= high[c]; t++) {
+                double sum = 0.0;
+                for (int j = solution.low(); j <= solution.high(); j++) {
+                    if (t + j >= low[c + 1] && t + j <= high[c + 1])
+                        sum += solution.counts()[j]
+                            * suffixes[c + 1][t + j - low[c + 1]];
+                }
+                suffix[t - low[c]] = sum;
+            }
+            suffixes[c] = normalize(suffix);
+        }
+        // prefix[a - low[c]]: number of configurations of a mines in the
+        // components before c
+        double[] prefix = {1.0};
+        for (int c = 0; c < k; c++) {
+            Solution solution = solutions[c];
+            double[] next = suffixes[c + 1];
+            double total = 0.0;
+            double[] minedWeights = new double[vars[c].length];
+            for (int j = solution.low(); j <= solution.high(); j++) {
+                if (solution.counts()[j] == 0.0)
+                    continue;
+                double weight = 0.0;
+                for (int a = low[c]; a <= high[c]; a++) {
+                    if (a + j >= low[c + 1] && a + j <= high[c + 1])
+                        weight += prefix[a - low[c]]
+                            * next[a + j - low[c + 1]];
+                }
+                total += solution.counts()[j] * weight;
+                double[] mined = solution.mined()[j];
+                for (int v = 0; v < mined.length; v++)
+                    minedWeights[v] += mined[v] * weight;
+            }
+            if (total == 0.0)
+                return false;
+            for (int v = 0; v < vars[c].length; v++)
+                values[vars[c][v]] = minedWeights[v] / total;
+            double[] nextPrefix = new double[high[c + 1] - low[c + 1] + 1];
+            for (int a = low[c]; a <= high[c]; a++) {
+                double count = prefix[a - low[c]];
+                if (count == 0.0)
+                    continue;
+                for (int j = solution.low(); j <= solution.high(); j++) {
+                    if (a + j <= high[c + 1])
+                        nextPrefix[a + j - low[c + 1]]
+                            += count * solution.counts()[j];
+                }
+            }
+            prefix = normalize(nextPrefix);
+        }
+        if (interior > 0) {
+            double total = 0.0;
+            double mined = 0.0;
+            for (int t = low[k]; t <= high[k]; t++) {
+                double weight = prefix[t - low[k]] * weights[t];
+                total += weight;
+                mined += weight * (mines - t) / interior;
+            }
+            if (total == 0.0)
+                return false;
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] == HIDDEN && !this.isFrontier(cells, i))
+                    values[i] = mined / total;
+            }
+        }
+        return true;
+    }
+
+    // Divides the values by their maximum, the scale of the weights cancels
+    // out in the probabilities
+    private static double[] normalize(double[] values) {
+        double max = 0.0;
+        for (double value: values)
+            max = Math.max(max, value);
+        if (max > 0.0) {
+            for (int i = 0; i < values.length; i++)
+                values[i] /= max;
+        }
+        return values;
+    }
+
+    // Returns the logarithm of the binomial coefficient (n r)
+    private double logBinomial(int n, int r) {
+        return this.logFactorials[n] - this.logFactorials[r]
+            - this.logFactorials[n - r];
+    }
+
+    // Enumerates the mine configurations of component, whose cells are vars,
+    // returns null if it takes more than MAX_STEPS steps
+    private Solution solve(byte[] cells, int[] vars, Component component) {
+        int nv = vars.length;
+        int nc = component.constraints.size();
+        int[] targets = new int[nc];
+        int[] free = new int[nc];
+        int[] assigned = new int[nc];
+        int[][] varConstraints = new int[nv][];
+        int[] neighbors = new int[Cell.MAX_MINES_AROUND];
+        List<List<Integer>> byVar = new ArrayList<>();
+        for (int v = 0; v < nv; v++)
+            byVar.add(new ArrayList<>());
+        int[][] constraintVars = new int[nc][];
+        for (int c = 0; c < nc; c++) {
+            int cell = component.constraints.get(c);
+            targets[c] = component.targets.get(c);
+            int size = this.hiddenNeighbors(cells, cell, neighbors);
+            free[c] = size;
+            constraintVars[c] = new int[size];
+            for (int k = 0; k < size; k++) {
+                int v = Arrays.binarySearch(vars, neighbors[k]);
+                constraintVars[c][k] = v;
+                byVar.get(v).add(c);
+            }
+        }
+        for (int v = 0; v < nv; v++)
+            varConstraints[v] = byVar.get(v).stream().mapToInt(i -> i)
+                .toArray();
+        int[] order = enumerationOrder(nv, varConstraints, constraintVars);
+        double[] counts = new double[nv + 1];
+        double[][] mined = new double[nv + 1][];
+        int[] value = new int[nv];
+        int[] choice = new int[nv];
+        Arrays.fill(choice, -1);
+        int minesAssigned = 0;
+        long steps = 0;
+        int depth = 0;
+        while (depth >= 0) {
+            int v = order[depth];
+            if (choice[depth] >= 0) {
+                unassign(v, choice[depth], varConstraints, free, assigned);
+                minesAssigned -= choice[depth];
+            }
+            int next = choice[depth] + 1;
+            choice[depth] = -1;
+            for (; next <= 1; next++) {
+                if (++steps > MAX_STEPS)
+                    return null;
+                if (assign(v, next, varConstraints, free, assigned, targets)) {
+                    choice[depth] = next;
+                    break;
+                }
+            }
+            if (choice[depth] < 0) {
+                depth--;
+                continue;
+            }
+            value[v] = choice[depth];
+            minesAssigned += choice[depth];
+            if (depth < nv - 1) {
+                depth++;
+                continue;
+            }
+            counts[minesAssigned]++;
+            if (mined[minesAssigned] == null)
+                mined[minesAssigned] = new double[nv];
+            double[] row = mined[minesAssigned];
+            for (int u = 0; u < nv; u++)
+                row[u] += value[u];
+        }
+        int low = 0;
+        while (low < nv && counts[low] == 0.0)
+            low++;
+        int high = nv;
+        while (high > low && counts[high] == 0.0)
+            high--;
+        if (counts[low] == 0.0)
+            return new Solution(counts, mined, 0, -1);
+        for (int j = low; j <= high; j++) {
+            if (mined[j] == null)
+                mined[j] = new double[nv];
+        }
+        return new Solution(counts, mined, low, high);
+    }
+
+    // Assigns value to v if it keeps its constraints satisfiable, returns
+    // true if it was assigned
+    private static boolean assign(int v, int value, int[][] varConstraints,
+            int[] free, int[] assigned, int[] targets) {
+        boolean satisfiable = true;
+        for (int c: varConstraints[v]) {
+            free[c]--;
+            assigned[c] += value;
+            if (assigned[c] > targets[c] || assigned[c] + free[c] < targets[c])
+                satisfiable = false;
+        }
+        if (!satisfiable)
+            unassign(v, value, varConstraints, free, assigned);
+        return satisfiable;
+    }
+
+    // Cancels the assignment of value to v
+    private static void unassign(int v, int value, int[][] varConstraints,
+            int[] free, int[] assigned) {
+        for (int c: varConstraints[v]) {
+            free[c]++;
+            assigned[c] -= value;
+        }
+    }
+
+    // Returns the variables in breadth-first order along their constraints,
+    // so that the constraints are closed early and prune the enumeration
+    private static int[] enumerationOrder(int nv, int[][] varConstraints,
+            int[][] constraintVars) {
+        int[] order = new int[nv];
+        boolean[] seen = new boolean[nv];
+        int head = 0;
+        int tail = 0;
+        for (int start = 0; start < nv; start++) {
+            if (seen[start])
+                continue;
+            seen[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int v = order[head++];
+                for (int c: varConstraints[v]) {
+                    for (int u: constraintVars[c]) {
+                        if (!seen[u]) {
+                            seen[u] = true;
+                            order[tail++] = u;
+                        }
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    // Fills res with the hidden neighbors of the cell at index, returns their
+    // number
+    private int hiddenNeighbors(byte[] cells, int index, int[] res) {
+        int size = 0;
+        int line = index / this.width;
+        int column = index % this.width;
+        for (int l = Math.max(0, line - 1);
+                l <= Math.min(this.height - 1, line + 1); l++) {
+            for (int c = Math.max(0, column - 1);
+                    c <= Math.min(this.width - 1, column + 1); c++) {
+                if (cells[l * this.width + c] == HIDDEN)
+                    res[size++] = l * this.width + c;
+            }
+        }
+        return size;
+    }
+
+    // Returns the number of flagged neighbors of the cell at index
+    private int flaggedNeighbors(byte[] cells, int index) {
+        int total = 0;
+        int line = index / this.width;
+        int column = index % this.width;
+        for (int l = Math.max(0, line - 1);
+                l <= Math.min(this.height - 1, line + 1); l++) {
+            for (int c = Math.max(0, column - 1);
+                    c <= Math.min(this.width - 1, column + 1); c++) {
+                if (cells[l * this.width + c] == FLAGGED)
+                    total++;
+            }
+        }
+        return total;
+    }
+
+    // Returns true if the cell at index has a revealed neighbor
+    private boolean isFrontier(byte[] cells, int index) {
+        int line = index / this.width;
+        int column = index % this.width;
+        for (int l = Math.max(0, line - 1);
+                l <= Math.min(this.height - 1, line + 1); l++) {
+            for (int c = Math.max(0, column - 1);
+                    c <= Math.min(this.width - 1, column + 1); c++) {
+                if (cells[l * this.width + c] >= 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the root of the set of i, compressing the path
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // Merges the sets of i and j
+    private static void union(int[] parent, int i, int j) {
+        parent[find(parent, i)] = find(parent, j);
+    }
+
+    // The frontier cells and the revealed cells of a component.
+    private static final class Component {
+
+        // The indices of the hidden cells, in increasing order.
+        private final List<Integer> vars = new ArrayList<>();
+
+        // The indices of the revealed cells.
+        private final List<Integer> constraints = new ArrayList<>();
+
+        // The mines left around each revealed cell.
+        private final List<Integer> targets = new ArrayList<>();
+
+        // Returns the key of the solution of this Component
+        private ComponentKey key() {
+            int[] data = new int[this.vars.size()
+                + 2 * this.constraints.size() + 1];
+            int i = 0;
+            data[i++] = this.vars.size();
+            for (int v: this.vars)
+                data[i++] = v;
+            for (int c = 0; c < this.constraints.size(); c++) {
+                data[i++] = this.constraints.get(c);
+                data[i++] = this.targets.get(c);
+            }
+            return new ComponentKey(data);
+        }
+    }
+
+    // The cells and numbers that define a component, in a canonical order.
+    private static final class ComponentKey {
+
+        // The number of hidden cells, the hidden cells, then the revealed
+        // cells each followed by its mines left.
+        private final int[] data;
+
+        // The hash of data.
+        private final int hash;
+
+        // Creates the key of the given data
+        private ComponentKey(int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ComponentKey other
+                && Arrays.equals(this.data, other.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    // The configurations of a component: counts[j] configurations hold j
+    // mines, and in mined[j][v] of them the v-th hidden cell is mined, j
+    // ranging from low to high.
+    private record Solution(double[] counts, double[][] mined, int low,
+            int high) {
+    }
+}
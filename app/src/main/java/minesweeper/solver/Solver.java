@@ -0,0 +1,387 @@
+package minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import minesweeper.model.Cell;
+import minesweeper.model.Position;
+import minesweeper.model.RevealOnlyGrid;
+import minesweeper.model.Visibility;
+
+/**
+ * A Solver deduces the cells of a grid that are certainly safe and the ones
+ * that are certainly mined from the state visible by a player: the
+ * visibility of the cells and the number of mines around the revealed ones.
+ * Flags are ignored, as a player may set them wrongly.
+ *
+ * Each revealed cell with unknown neighbors is a constraint: its unknown
+ * neighbors hold its number of mines around minus its known mined
+ * neighbors. The constraints are solved by two rules:
+ * <ul>
+ *   <li>single point: if a constraint has no mine left, its unknown neighbors
+ *   are safe, if it has as many mines left as unknown neighbors, they are
+ *   mined;</li>
+ *   <li>subset: if the unknown neighbors of a constraint are a subset of the
+ *   ones of another, the difference holds the difference of their mines
+ *   left, the single point rule then applies to the difference.</li>
+ * </ul>
+ * The revealed cells with unknown neighbors form the frontier of the grid.
+ * The Solver is incremental: it is told the cells changed by each move and
+ * only re-examines the constraints they touch, the ones of the newly revealed
+ * cells and of their revealed neighbors, then the ones touched by the
+ * deductions that follow, so that the cost of a move does not depend on the
+ * size of the grid.
+ */
+public class Solver {
+
+    // The status of a cell whose content is unknown.
+    private static final byte UNKNOWN = 0;
+
+    // The status of a hidden cell that is certainly safe.
+    private static final byte SAFE = 1;
+
+    // The status of a hidden cell that is certainly mined.
+    private static final byte MINE = 2;
+
+    // The status of a revealed cell.
+    private static final byte REVEALED = 3;
+
+    // The grid analyzed by this Solver.
+    private final RevealOnlyGrid grid;
+
+    // The width of the grid.
+    private final int width;
+
+    // The height of the grid.
+    private final int height;
+
+    // The status of each cell of the grid, in row-major order.
+    private final byte[] status;
+
+    // The number of mines around each revealed cell.
+    private final byte[] minesAround;
+
+    // The revealed cells whose constraint is to be examined.
+    private int[] queue;
+
+    // The number of cells in queue.
+    private int queueSize;
+
+    // Indicates the cells that are in queue.
+    private final boolean[] queued;
+
+    // The hidden cells deduced safe, some of them may be revealed since.
+    private int[] safeCells;
+
+    // The number of cells in safeCells.
+    private int safeSize;
+
+    // The number of cells deduced mined.
+    private int mines;
+
+    // The number of constraints examined.
+    private long examined;
+
+    // The unknown neighbors of the constraint being examined.
+    private final int[] unknown;
+
+    // The unknown neighbors of the constraint it is compared to.
+    private final int[] otherUnknown;
+
+    /**
+     * Class constructor that specifies the grid to analyze. The visible state
+     * of the whole grid is read once, the following moves are told with
+     * update().
+     * @param grid the grid to analyze
+     * @throws NullPointerException if grid is null
+     */
+    public Solver(RevealOnlyGrid grid) {
+        this.grid = Objects.requireNonNull(grid);
+        this.width = grid.width();
+        this.height = grid.height();
+        int cells = this.width * this.height;
+        this.status = new byte[cells];
+        this.minesAround = new byte[cells];
+        this.queue = new int[64];
+        this.queued = new boolean[cells];
+        this.safeCells = new int[64];
+        this.unknown = new int[Cell.MAX_MINES_AROUND];
+        this.otherUnknown = new int[Cell.MAX_MINES_AROUND];
+        for (int i = 0; i < cells; i++)
+            this.read(i);
+        this.propagate();
+    }
+
+    /**
+     * Tells this Solver the cells whose visibility changed since the last
+     * update, such as the changed cells of a MoveResult, and deduces what
+     * follows from them.
+     * @param changedCells the indices of the changed cells
+     * @throws IndexOutOfBoundsException if an index is outside the grid
+     * @throws NullPointerException if changedCells is null
+     */
+    public void update(int[] changedCells) {
+        for (int index: changedCells)
+            this.read(index);
+        this.propagate();
+    }
+
+    // Reads the visible state of the cell at index, and if it is newly
+    // revealed, queues its constraint and the ones of its neighbors
+    private void read(int index) {
+        if (this.status[index] == REVEALED)
+            return;
+        Cell cell = this.grid.cellAt(this.positionOf(index));
+        if (cell.visibility() != Visibility.REVEALED)
+            return;
+        this.status[index] = REVEALED;
+        this.minesAround[index] = (byte) cell.minesAround();
+        this.enqueue(index);
+        this.enqueueNeighbors(index);
+    }
+
+    // Examines the queued constraints until there is none left
+    private void propagate() {
+        while (this.queueSize > 0) {
+            int index = this.queue[--this.queueSize];
+            this.queued[index] = false;
+            this.examine(index);
+        }
+    }
+
+    // Applies the rules to the constraint of the revealed cell at index
+    private void examine(int index) {
+        this.examined++;
+        int size = this.unknownNeighbors(index, this.unknown);
+        if (size == 0)
+            return;
+        int left = this.minesLeft(index);
+        if (left == 0) {
+            this.markAll(this.unknown, size, SAFE);
+            return;
+        }
+        if (left == size) {
+            this.markAll(this.unknown, size, MINE);
+            return;
+        }
+        int line = index / this.width;
+        int column = index % this.width;
+        int firstLine = Math.max(0, line - 2);
+        int lastLine = Math.min(this.height - 1, line + 2);
+        int firstColumn = Math.max(0, column - 2);
+        int lastColumn = Math.min(this.width - 1, column + 2);
+        for (int l = firstLine; l <= lastLine; l++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int other = l * this.width + c;
+                if (other == index || this.status[other] != REVEALED)
+                    continue;
+                if (this.compare(size, left, other)) {
+                    // The other comparisons are done on the next examination
+                    this.enqueue(index);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Applies the subset rule to the constraint being examined, whose size
+    // unknown neighbors are in unknown, and to the one at other, returns true
+    // if a deduction was made
+    private boolean compare(int size, int left, int other) {
+        int otherSize = this.unknownNeighbors(other, this.otherUnknown);
+        if (otherSize == 0)
+            return false;
+        int otherLeft = this.minesLeft(other);
+        if (otherSize > size
+                && contains(this.otherUnknown, otherSize, this.unknown, size))
+            return this.markDifference(this.otherUnknown, otherSize,
+                    this.unknown, size, otherLeft - left);
+        if (size > otherSize
+                && contains(this.unknown, size, this.otherUnknown, otherSize))
+            return this.markDifference(this.unknown, size,
+                    this.otherUnknown, otherSize, left - otherLeft);
+        return false;
+    }
+
+    // Marks the cells of set that are not in subset if the difference holds
+    // no mine or only mines, returns true if they were marked
+    private boolean markDifference(int[] set, int size, int[] subset,
+            int subsetSize, int left) {
+        int differenceSize = size - subsetSize;
+        byte mark;
+        if (left == 0)
+            mark = SAFE;
+        else if (left == differenceSize)
+            mark = MINE;
+        else
+            return false;
+        for (int i = 0; i < size; i++) {
+            if (!contains(subset, subsetSize, set[i]))
+                this.mark(set[i], mark);
+        }
+        return true;
+    }
+
+    // Returns true if every cell of subset is in set
+    private static boolean contains(int[] set, int size, int[] subset,
+            int subsetSize) {
+        for (int i = 0; i < subsetSize; i++) {
+            if (!contains(set, size, subset[i]))
+                return false;
+        }
+        return true;
+    }
+
+    // Returns true if cell is in the size first cells of set
+    private static boolean contains(int[] set, int size, int cell) {
+        for (int i = 0; i < size; i++) {
+            if (set[i] == cell)
+                return true;
+        }
+        return false;
+    }
+
+    // Fills res with the unknown neighbors of the cell at index, returns
+    // their number
+    private int unknownNeighbors(int index, int[] res) {
+        int size = 0;
+        int line = index / this.width;
+        int column = index % this.width;
+        for (int l = Math.max(0, line - 1);
+                l <= Math.min(this.height - 1, line + 1); l++) {
+            for (int c = Math.max(0, column - 1);
+                    c <= Math.min(this.width - 1, column + 1); c++) {
+                int neighbor = l * this.width + c;
+                if (this.status[neighbor] == UNKNOWN)
+                    res[size++] = neighbor;
+            }
+        }
+        return size;
+    }
+
+    // Returns the number of mines around the revealed cell at index that are
+    // not known yet
+    private int minesLeft(int index) {
+        int left = this.minesAround[index];
+        int line = index / this.width;
+        int column = index % this.width;
+        for (int l = Math.max(0, line - 1);
+                l <= Math.min(this.height - 1, line + 1); l++) {
+            for (int c = Math.max(0, column - 1);
+                    c <= Math.min(this.width - 1, column + 1); c++) {
+                if (this.status[l * this.width + c] == MINE)
+                    left--;
+            }
+        }
+        return left;
+    }
+
+    // Marks the size first cells of cells
+    private void markAll(int[] cells, int size, byte mark) {
+        for (int i = 0; i < size; i++)
+            this.mark(cells[i], mark);
+    }
+
+    // Marks the unknown cell at index as safe or mined and queues the
+    // constraints it touches
+    private void mark(int index, byte mark) {
+        if (this.status[index] != UNKNOWN)
+            return;
+        this.status[index] = mark;
+        if (mark == SAFE) {
+            if (this.safeSize == this.safeCells.length)
+                this.safeCells = Arrays.copyOf(this.safeCells,
+                        2 * this.safeSize);
+            this.safeCells[this.safeSize++] = index;
+        } else {
+            this.mines++;
+        }
+        this.enqueueNeighbors(index);
+    }
+
+    // Queues the constraints of the revealed neighbors of the cell at index
+    private void enqueueNeighbors(int index) {
+        int line = index / this.width;
+        int column = index % this.width;
+        for (int l = Math.max(0, line - 1);
+                l <= Math.min(this.height - 1, line + 1); l++) {
+            for (int c = Math.max(0, column - 1);
+                    c <= Math.min(this.width - 1, column + 1); c++) {
+                int neighbor = l * this.width + c;
+                if (neighbor != index && this.status[neighbor] == REVEALED)
+                    this.enqueue(neighbor);
+            }
+        }
+    }
+
+    // Queues the constraint of the revealed cell at index
+    private void enqueue(int index) {
+        if (this.queued[index])
+            return;
+        if (this.queueSize == this.queue.length)
+            this.queue = Arrays.copyOf(this.queue, 2 * this.queueSize);
+        this.queued[index] = true;
+        this.queue[this.queueSize++] = index;
+    }
+
+    // Returns the position of the cell at index
+    private Position positionOf(int index) {
+        return new Position(index / this.width, index % this.width);
+    }
+
+    /**
+     * {@return the index of a hidden cell deduced safe, -1 if there is none}
+     * The cell stays known as safe until it is revealed.
+     */
+    public int nextSafe() {
+        while (this.safeSize > 0) {
+            int index = this.safeCells[this.safeSize - 1];
+            if (this.status[index] == SAFE)
+                return index;
+            this.safeSize--;
+        }
+        return -1;
+    }
+
+    /**
+     * {@return true if the cell at index is hidden and deduced safe}
+     * @param index the index of the cell
+     * @throws IndexOutOfBoundsException if index is outside the grid
+     */
+    public boolean isSafe(int index) {
+        return this.status[index] == SAFE;
+    }
+
+    /**
+     * {@return true if the cell at index is deduced mined}
+     * @param index the index of the cell
+     * @throws IndexOutOfBoundsException if index is outside the grid
+     */
+    public boolean isMine(int index) {
+        return this.status[index] == MINE;
+    }
+
+    /**
+     * {@return true if the cell at index is revealed}
+     * @param index the index of the cell
+     * @throws IndexOutOfBoundsException if index is outside the grid
+     */
+    public boolean isRevealed(int index) {
+        return this.status[index] == REVEALED;
+    }
+
+    /**
+     * {@return the number of cells deduced mined}
+     */
+    public int mines() {
+        return this.mines;
+    }
+
+    /**
+     * {@return the number of constraints examined since the creation of this
+     * Solver}
+     */
+    public long examined() {
+        return this.examined;
+    }
+}
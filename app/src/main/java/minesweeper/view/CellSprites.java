@@ -0,0 +1,124 @@
+package minesweeper.view;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+
+/**
+ * The pre-rendered images of the cells of a GridView, one by appearance of a
+ * cell: hidden, flagged, mine and revealed with 0 to 8 mines around. A sprite
+ * spans the side length of a cell plus one pixel for its border, so that
+ * painting a cell is a single blit.
+ *
+ * The sprites are rendered for a single side length and background: a
+ * GridView renders new sprites when they change, the stale ones being
+ * dropped, so that a paint does not allocate.
+ */
+final class CellSprites {
+
+    /**
+     * The appearance of a hidden cell.
+     */
+    static final byte HIDDEN = 0;
+
+    /**
+     * The appearance of a flagged cell.
+     */
+    static final byte FLAGGED = 1;
+
+    /**
+     * The appearance of a revealed mined cell.
+     */
+    static final byte MINE = 2;
+
+    /**
+     * The appearance of a revealed safe cell, plus its number of mines
+     * around.
+     */
+    static final byte REVEALED = 3;
+
+    // The number of appearances.
+    private static final int APPEARANCES = REVEALED + 9;
+
+    // The side length of the cells of the sprites.
+    private final int sideLength;
+
+    // The background of the revealed cells.
+    private final Color background;
+
+    // The sprites by appearance.
+    private final BufferedImage[] sprites;
+
+    /**
+     * Class constructor that renders the sprites of cells of the given side
+     * length.
+     * @param sideLength the side length of the cells, strictly positive
+     * @param background the background of the revealed cells
+     * @param font the font of the numbers of mines around
+     * @param configuration the configuration the sprites are drawn on, to
+     *                      render them in a compatible format, or null
+     */
+    CellSprites(int sideLength, Color background, Font font,
+            GraphicsConfiguration configuration) {
+        this.sideLength = sideLength;
+        this.background = background;
+        this.sprites = new BufferedImage[APPEARANCES];
+        for (int i = 0; i < APPEARANCES; i++) {
+            BufferedImage sprite = configuration == null
+                ? new BufferedImage(sideLength + 1, sideLength + 1,
+                        BufferedImage.TYPE_INT_RGB)
+                : configuration.createCompatibleImage(sideLength + 1,
+                        sideLength + 1);
+            Graphics2D g2d = sprite.createGraphics();
+            try {
+                this.render(g2d, (byte) i, font);
+            } finally {
+                g2d.dispose();
+            }
+            this.sprites[i] = sprite;
+        }
+    }
+
+    // Renders the cell of the given appearance at the origin of g2d
+    private void render(Graphics2D g2d, byte appearance, Font font) {
+        int l = this.sideLength;
+        int o = l / 2;
+        if (appearance == HIDDEN)
+            g2d.setPaint(Color.YELLOW);
+        else if (appearance == FLAGGED)
+            g2d.setPaint(Color.RED);
+        else
+            g2d.setPaint(this.background);
+        g2d.fillRect(0, 0, l + 1, l + 1);
+        if (appearance >= MINE && appearance != REVEALED) {
+            String text = appearance == MINE ? "X"
+                : Integer.toString(appearance - REVEALED);
+            g2d.setPaint(Color.BLACK);
+            g2d.setFont(font);
+            g2d.drawString(text, (int) (0.75 * o), (int) (1.5 * o));
+        }
+        g2d.setPaint(Color.GRAY);
+        g2d.drawRect(0, 0, l, l);
+    }
+
+    /**
+     * {@return true if these sprites are rendered for the given side length
+     * and background}
+     * @param sideLength the side length of the cells
+     * @param background the background of the revealed cells
+     */
+    boolean fits(int sideLength, Color background) {
+        return this.sideLength == sideLength
+            && this.background.equals(background);
+    }
+
+    /**
+     * {@return the sprite of the given appearance}
+     * @param appearance the appearance of the cell
+     */
+    BufferedImage sprite(byte appearance) {
+        return this.sprites[appearance];
+    }
+}
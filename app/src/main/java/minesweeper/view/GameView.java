@@ -3,17 +3,29 @@ package minesweeper.view;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
 
-import minesweeper.model.Game;
-import minesweeper.model.RevealOnlyGrid;
+import minesweeper.analysis.BoardAnalyzer;
+import minesweeper.analysis.BoardMetrics;
+import minesweeper.model.ChangeSet;
+import minesweeper.model.GameSnapshot;
+import minesweeper.model.GameState;
+import minesweeper.model.Grid;
+import minesweeper.model.Visibility;
 
 import java.awt.Dimension;
 import java.awt.BorderLayout;
 
+import java.util.BitSet;
+
 /**
- * Defines the view of a Game.
+ * Defines the view of a Game, from the GameSnapshots published by the
+ * thread of its model. The view is only updated for the changes of each
+ * snapshot: the counter of unflagged mines when flags change, the changed
+ * cells of the grid and the end game dialog when the Game ends.
  */
-public class GameView extends JPanel implements Observer {
+public class GameView extends JPanel {
     
     /**
      * The grid view of this GameView.
@@ -26,16 +38,11 @@ public class GameView extends JPanel implements Observer {
     private final JLabel unflaggedMinesLabel;
 
     /**
-     * The model of this GameView.
-     */
-    private Game model;
-
-    /**
-     * Class constructor that displays the grid at its center.
+     * Class constructor that displays the grid at its center, in a scroll
+     * pane.
      */
     public GameView() {
         this.gridView = new GridView();
-        this.model = null;
         this.unflaggedMinesLabel = new JLabel();
         this.setLayout(new BorderLayout());
 
@@ -43,35 +50,69 @@ public class GameView extends JPanel implements Observer {
         panel.add(unflaggedMinesLabel);
 
         this.add(panel, BorderLayout.PAGE_START);
-        this.add(gridView, BorderLayout.CENTER);
+        this.add(new JScrollPane(gridView), BorderLayout.CENTER);
+    }
+
+    /**
+     * Publishes a new snapshot of the Game, to be displayed on the event
+     * dispatch thread. Can be called from any thread: the snapshots are
+     * displayed in the order of their publication.
+     * @param snapshot the new snapshot
+     */
+    public void publish(GameSnapshot snapshot) {
+        SwingUtilities.invokeLater(() -> this.update(snapshot));
     }
 
-    @Override
-    public void update(Game model) {
-        this.model = model;
-        this.gridView.setModel(new RevealOnlyGrid(model.grid()));
-        int unflagged = model.unflaggedMines();
-        StringBuilder newLabel = new StringBuilder();
-        newLabel.append(unflagged);
-        this.unflaggedMinesLabel.setText(newLabel.toString());
-        this.gridView.repaint();
-        if (this.model.hasEnded())
-            this.displayEndGameDialog();
+    // Displays the changes of snapshot
+    private void update(GameSnapshot snapshot) {
+        ChangeSet changes = snapshot.changes();
+        boolean full = changes.full();
+        this.gridView.setModel(snapshot);
+        if (full || changes.flagsDelta() != 0) {
+            long unflagged = snapshot.unflaggedMines();
+            StringBuilder newLabel = new StringBuilder();
+            newLabel.append(unflagged);
+            this.unflaggedMinesLabel.setText(newLabel.toString());
+        }
+        if (full)
+            this.gridView.repaint();
+        else
+            this.gridView.cellsChanged(changes.changedCells());
+        if (changes.ended())
+            this.displayEndGameDialog(snapshot);
     }
 
-    // Displays the end game dialog
-    private void displayEndGameDialog() {
+    // Displays the end game dialog of the game of snapshot
+    private void displayEndGameDialog(GameSnapshot snapshot) {
         StringBuilder builder = new StringBuilder();
         builder.append("The game has ended\n");
         builder.append("Time: ");
-        if (this.model != null)
-            builder.append(this.model.gameTime());
-        else
-            builder.append("0.0s");
+        builder.append(snapshot.gameTimeMillis() / 1000L);
+        if (snapshot.state() == GameState.WON) {
+            BoardMetrics metrics = new BoardAnalyzer().analyze(
+                    wonGrid(snapshot));
+            builder.append(String.format("\n3BV: %d (%.2f 3BV/s)",
+                    metrics.threeBV(), metrics.threeBVPerSecond(
+                        snapshot.gameTimeMillis())));
+        }
         JOptionPane.showInternalMessageDialog(null, builder.toString(),
                 "Game ended", JOptionPane.INFORMATION_MESSAGE);
     }
 
+    // Returns the grid of the won game of snapshot, whose mines are the
+    // cells left unrevealed
+    private static Grid wonGrid(GameSnapshot snapshot) {
+        BitSet mines = new BitSet();
+        for (int i = 0; i < snapshot.width() * snapshot.height(); i++) {
+            if (snapshot.visibilityAt(i) != Visibility.REVEALED)
+                mines.set(i);
+        }
+        Grid grid = new Grid(snapshot.width(), snapshot.height(),
+                mines.cardinality());
+        grid.placeMines(mines);
+        return grid;
+    }
+
     /**
      * {@return the grid view of this GameView}
      */
@@ -2,149 +2,312 @@ package minesweeper.view;
 
 import javax.swing.JPanel;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 
 import java.awt.Dimension;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.BasicStroke;
 import java.awt.Point;
 import java.awt.Font;
-import java.awt.geom.Rectangle2D;
-import java.awt.geom.Rectangle2D.Double;
+import java.awt.Rectangle;
+import java.awt.event.MouseWheelEvent;
 
-import minesweeper.model.RevealOnlyGrid;
+import java.util.Arrays;
+
+import minesweeper.model.GameSnapshot;
 import minesweeper.model.Position;
-import minesweeper.model.Cell;
 import minesweeper.model.Visibility;
 
 /**
  * The graphical representation of the Grid
+ *
+ * A GridView displays the immutable GameSnapshots of the Game, published by
+ * the thread of the model: a paint reads the cells of the current snapshot
+ * without locking, whatever the model thread is doing.
+ *
+ * A GridView keeps the appearance of each cell as it was last painted. The
+ * changes of the model are repainted by cellsChanged(), which requests the
+ * repaint of the regions of the cells whose appearance changed only, and a
+ * paint only draws the cells that intersect its clip bounds, so that the
+ * cost of a repaint scales with the number of changed cells rather than
+ * with the size of the grid. Each cell is painted as a single blit of the
+ * pre-rendered sprite of its appearance.
+ *
+ * The cells have a side length of their own, fitted to the viewport when the
+ * dimensions of the grid change and zoomed by Ctrl + mouse wheel, so that a
+ * GridView is meant to be displayed in a JScrollPane: only the cells in the
+ * visible part of the grid are painted.
  */
-public class GridView extends JPanel {
+public class GridView extends JPanel implements Scrollable {
 
     /**
-     * The grid model to display.
+     * The minimum side length of a cell, in pixels.
      */
-    private RevealOnlyGrid model;
+    public static final int MIN_SIDE_LENGTH = 4;
 
     /**
-     * The previous grid dimensions.
+     * The maximum side length of a cell, in pixels.
      */
-    private Dimension previousGridDim;
+    public static final int MAX_SIDE_LENGTH = 64;
+
+    // The minimum side length of a cell fitted to the viewport, for the
+    // numbers of mines around to stay readable.
+    private static final int MIN_FIT_SIDE_LENGTH = 16;
+
+    // The factor of the side length of the cells by notch of the wheel.
+    private static final double ZOOM_FACTOR = 1.25;
+
+    // The size of the viewport of a GridView.
+    private static final Dimension VIEWPORT_SIZE = new Dimension(1000, 800);
+
+    // The appearance of a cell that has not been painted yet.
+    private static final byte UNPAINTED = -1;
 
     /**
-     * The current grid dimensions.
+     * The snapshot of the grid to display.
      */
-    private Dimension currentGridDim;
+    private GameSnapshot model;
 
     /**
-     * The center points of the cells of the grid.
+     * The current grid dimensions.
      */
-    private Point[][] centerPoints;
+    private Dimension currentGridDim;
 
     /**
      * Font size for number of mines around a cell.
      */
     private static final int FONT_SIZE = 15;
 
+    // The appearances of the cells as last painted, in row-major order.
+    private byte[] painted;
+
+    // The sprites of the cells, rendered for the current side length, or
+    // null before the first paint.
+    private CellSprites sprites;
+
+    // The side length of the cells, in pixels.
+    private int sideLength;
+
     /**
      * Class constructor.
      */
     public GridView() {
         this.model = null;
-        this.previousGridDim = null;
         this.currentGridDim = null;
-        this.centerPoints = null;
+        this.painted = new byte[0];
+        this.sprites = null;
+        this.sideLength = MIN_FIT_SIDE_LENGTH;
         this.setLayout(null);
-        this.setPreferredSize(new Dimension(1000, 800));
+        this.addMouseWheelListener(this::zoom);
     }
 
     /**
-     * Sets the new model of this GridView and updates the current grid
-     * dimensions.
-     * @param model the new model
+     * Sets the new snapshot displayed by this GridView and updates the
+     * current grid dimensions. The cells are not repainted: see repaint()
+     * and cellsChanged().
+     * @param model the new snapshot
      */
-    public void setModel(RevealOnlyGrid model) {
+    public void setModel(GameSnapshot model) {
         this.model = model;
-        this.currentGridDim = this.model.dimension();        
+        if (this.currentGridDim != null
+                && this.currentGridDim.width == model.width()
+                && this.currentGridDim.height == model.height())
+            return;
+        this.currentGridDim = new Dimension(model.width(), model.height());
+        int cells = model.width() * model.height();
+        if (this.painted.length != cells)
+            this.painted = new byte[cells];
+        Arrays.fill(this.painted, UNPAINTED);
+        this.setSideLength(this.fittedSideLength());
+        this.revalidate();
     }
 
-    /**
-     * {@return the model of this GridView}
-     */
-    public RevealOnlyGrid model() {
-        return this.model;
+    // Returns the side length of the cells that fits the grid in the
+    // viewport, or the minimum fitted one if the grid is too large
+    private int fittedSideLength() {
+        JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(
+                JViewport.class, this);
+        Dimension extent = viewport == null || viewport.getWidth() == 0
+            ? VIEWPORT_SIZE : viewport.getExtentSize();
+        int l = Math.min((extent.width - 1) / this.currentGridDim.width,
+                (extent.height - 1) / this.currentGridDim.height);
+        return Math.max(l, MIN_FIT_SIDE_LENGTH);
     }
 
     /**
-     * {@return the side length of a cell based on the dimensions of this panel
-     * and the grid}
-     */ 
-    public int sideLength() {
-        return Math.min(this.getWidth() / this.currentGridDim.width,
-                this.getHeight() / this.currentGridDim.height);
+     * Sets the side length of the cells of this GridView, clamped to
+     * [MIN_SIDE_LENGTH; MAX_SIDE_LENGTH], and resizes it accordingly.
+     * @param sideLength the new side length of the cells, in pixels
+     */
+    public void setSideLength(int sideLength) {
+        int l = Math.max(MIN_SIDE_LENGTH, Math.min(MAX_SIDE_LENGTH,
+                sideLength));
+        if (l == this.sideLength)
+            return;
+        this.sideLength = l;
+        if (this.model != null)
+            this.setSize(this.getPreferredSize());
+        this.revalidate();
+        this.repaint();
     }
 
-    // Computes the center points of every cell of the grid
-    private void computeCellCenterPoints() {
-        int gh = this.currentGridDim.height;
-        int gw = this.currentGridDim.width;
-        this.centerPoints = new Point[gh][gw];
-        int l = this.sideLength();
-        int offset = l / 2;
-        for (int i = 0; i < gh; i++) {
-            for (int j = 0; j < gw; j++) {
-                this.centerPoints[i][j] =
-                    new Point(offset + j * l, offset + i * l);
+    // Zooms in or out around the mouse on Ctrl + wheel, keeping the point
+    // under the mouse in place, and scrolls the enclosing pane otherwise
+    private void zoom(MouseWheelEvent event) {
+        JScrollPane pane = (JScrollPane) SwingUtilities.getAncestorOfClass(
+                JScrollPane.class, this);
+        if (!event.isControlDown() || this.model == null) {
+            if (pane != null) {
+                pane.dispatchEvent(
+                        SwingUtilities.convertMouseEvent(this, event, pane));
             }
+            return;
         }
+        int previous = this.sideLength;
+        double rotation = event.getPreciseWheelRotation();
+        int l = (int) Math.round(previous * Math.pow(ZOOM_FACTOR, -rotation));
+        if (l == previous && rotation != 0)
+            l += rotation < 0 ? 1 : -1;
+        this.setSideLength(l);
+        if (pane == null || this.sideLength == previous)
+            return;
+        JViewport viewport = pane.getViewport();
+        Point mouse = event.getPoint();
+        Point view = viewport.getViewPosition();
+        Dimension extent = viewport.getExtentSize();
+        Dimension size = this.getPreferredSize();
+        double ratio = (double) this.sideLength / previous;
+        int x = (int) (mouse.x * ratio) - (mouse.x - view.x);
+        int y = (int) (mouse.y * ratio) - (mouse.y - view.y);
+        x = Math.max(0, Math.min(x, size.width - extent.width));
+        y = Math.max(0, Math.min(y, size.height - extent.height));
+        viewport.setViewPosition(new Point(x, y));
     }
 
     /**
-     * {@return the center points of every cell of the grid}
+     * {@return the size of the cells of the grid, or the size of the
+     * viewport without grid}
      */
-    public Point[][] centerPoints() {
-        return this.centerPoints;
+    @Override
+    public Dimension getPreferredSize() {
+        if (this.model == null)
+            return new Dimension(VIEWPORT_SIZE);
+        return new Dimension(this.currentGridDim.width * this.sideLength + 1,
+                this.currentGridDim.height * this.sideLength + 1);
     }
 
-    // Updates center points on grid dimension update if they changed
-    private void checkUpToDateDimensions() {
-        if (!this.currentGridDim.equals(this.previousGridDim)) {
-            this.previousGridDim = this.currentGridDim;
-            this.computeCellCenterPoints();
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(VIEWPORT_SIZE);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation,
+            int direction) {
+        return this.sideLength;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible,
+            int orientation, int direction) {
+        int extent = orientation == SwingConstants.HORIZONTAL
+            ? visible.width : visible.height;
+        return Math.max(this.sideLength,
+                extent - extent % this.sideLength - this.sideLength);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+
+    /**
+     * Requests the repaint of the cells at the given indices whose appearance
+     * changed since they were last painted, and of these cells only.
+     * @param indices the indices of the cells that may have changed, in
+     *                row-major order
+     * @throws NullPointerException if indices is null
+     */
+    public void cellsChanged(int[] indices) {
+        if (this.model == null || this.sprites == null)
+            return;
+        int width = this.currentGridDim.width;
+        int l = this.sideLength();
+        for (int index: indices) {
+            if (this.painted[index] != this.appearanceAt(index)) {
+                this.repaint((index % width) * l, (index / width) * l,
+                        l + 1, l + 1);
+            }
         }
     }
 
-    // Draws on the given Graphics2D object the view of a hidden cell
-    private void hiddenCellView(Graphics2D g2d, int i, int j, int l) {
-        g2d.setPaint(Color.YELLOW);
-        g2d.fillRect(j*l, i*l, l, l);
+    // Returns the appearance of the cell at index in the model
+    private byte appearanceAt(int index) {
+        Visibility visibility = this.model.visibilityAt(index);
+        if (visibility == Visibility.HIDDEN)
+            return CellSprites.HIDDEN;
+        if (visibility == Visibility.FLAGGED)
+            return CellSprites.FLAGGED;
+        if (this.model.isMinedAt(index))
+            return CellSprites.MINE;
+        return (byte) (CellSprites.REVEALED + this.model.minesAroundAt(index));
     }
 
-    // Draws on the given Graphics2D object the view of a flagged cell
-    private void flaggedCellView(Graphics2D g2d, int i, int j, int l) {
-        g2d.setPaint(Color.RED);
-        g2d.fillRect(j*l, i*l, l, l);
+    /**
+     * {@return the snapshot displayed by this GridView}
+     */
+    public GameSnapshot model() {
+        return this.model;
     }
 
-    // Draws on the given Graphics2D object the view of a revealed cell
-    private void revealedCellView(Graphics2D g2d, Cell cell, int i, int j,
-            int l, int o) {
-        StringBuilder builder = new StringBuilder();
+    /**
+     * {@return the side length of a cell, in pixels, as zoomed}
+     */
+    public int sideLength() {
+        return this.sideLength;
+    }
 
-        if (cell.isMined())
-            builder.append("X");
-        else
-            builder.append(cell.minesAround());
+    /**
+     * {@return the position of the cell under the given point, in the
+     * coordinates of this GridView, null if there is none}
+     * Constant time: the cell is found by integer division of the point by
+     * the side length of the cells, whatever the zoom and the scroll, which
+     * are already applied to the coordinates of this GridView.
+     * @param point the point
+     * @throws NullPointerException if point is null
+     */
+    public Position positionAt(Point point) {
+        if (this.model == null || point.x < 0 || point.y < 0)
+            return null;
+        int line = point.y / this.sideLength;
+        int column = point.x / this.sideLength;
+        if (line >= this.currentGridDim.height
+                || column >= this.currentGridDim.width)
+            return null;
+        return new Position(line, column);
+    }
 
-        String fontName = g2d.getFont().getFontName();
-        if (cell.minesAround() != 0 || cell.isMined()) {
-            g2d.setPaint(Color.BLACK);
-            g2d.setFont(new Font(fontName, Font.PLAIN, FONT_SIZE));
-            g2d.drawString(builder.toString(), (int)(j * l + (0.75) * o),
-                    (int)(i * l + (1.5) * o));
+    // Returns the sprites of the cells of side length l, rendering them if
+    // the side length or the background changed
+    private CellSprites sprites(Graphics2D g2d, int l) {
+        Color background = this.getBackground();
+        if (this.sprites == null || !this.sprites.fits(l, background)) {
+            Font font = new Font(g2d.getFont().getFontName(), Font.PLAIN,
+                    FONT_SIZE);
+            this.sprites = new CellSprites(l, background, font,
+                    this.getGraphicsConfiguration());
         }
+        return this.sprites;
     }
 
     @Override
@@ -154,28 +317,27 @@ public class GridView extends JPanel {
         if (this.model == null)
             return;
 
-        checkUpToDateDimensions();
-
         int l = this.sideLength();
-        int o = l / 2;
         Graphics2D g2d = (Graphics2D) graphics;
+        CellSprites sprites = this.sprites(g2d, l);
 
-        // Draw cells
-        BasicStroke stroke = new BasicStroke(5.0f);
-        for (int i = 0; i < this.centerPoints.length; i++) {
-            for (int j = 0; j < this.centerPoints[i].length; j++) {
-                Rectangle2D.Double cellBorder =
-                    new Rectangle2D.Double(j * l - o, i * l - o, l, l);
-                Cell cell = this.model.cellAt(new Position(i, j));
-                Visibility visibility = cell.visibility();
-                if (visibility == Visibility.HIDDEN)
-                    this.hiddenCellView(g2d, i, j, l);
-                else if (visibility == Visibility.FLAGGED)
-                    this.flaggedCellView(g2d, i, j, l);
-                else
-                    this.revealedCellView(g2d, cell, i, j, l, o);
-                g2d.setPaint(Color.GRAY);
-                g2d.draw(new Rectangle2D.Double(j * l, i * l, l, l));
+        // Draw the cells that intersect the clip, at most the visible part of
+        // the grid, a cell spanning l + 1 pixels with its border
+        int gh = this.currentGridDim.height;
+        int gw = this.currentGridDim.width;
+        Rectangle clip = g2d.getClipBounds();
+        if (clip == null)
+            clip = this.getVisibleRect();
+        int firstLine = Math.max(0, (clip.y - 1) / l);
+        int lastLine = Math.min(gh - 1, (clip.y + clip.height) / l);
+        int firstColumn = Math.max(0, (clip.x - 1) / l);
+        int lastColumn = Math.min(gw - 1, (clip.x + clip.width) / l);
+        for (int i = firstLine; i <= lastLine; i++) {
+            for (int j = firstColumn; j <= lastColumn; j++) {
+                int index = i * gw + j;
+                byte appearance = this.appearanceAt(index);
+                g2d.drawImage(sprites.sprite(appearance), j * l, i * l, null);
+                this.painted[index] = appearance;
             }
         }
     }
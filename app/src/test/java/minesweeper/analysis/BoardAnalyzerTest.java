@@ -0,0 +1,110 @@
+package minesweeper.analysis;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Position;
+import minesweeper.model.Visibility;
+
+class BoardAnalyzerTest {
+
+    // Counts the clicks that clear grid: one by opening, revealed with its
+    // surroundings, then one by safe cell left hidden
+    private static int clicks(Grid grid) {
+        int n = grid.width() * grid.height();
+        int clicks = 0;
+        for (int i = 0; i < n; i++) {
+            if (!grid.isMinedAt(i) && grid.minesAroundAt(i) == 0
+                    && grid.revealCellAt(grid.positionOf(i)))
+                clicks++;
+        }
+        for (int i = 0; i < n; i++) {
+            Position position = grid.positionOf(i);
+            if (!grid.isMinedAt(i) && grid.cellAt(position).visibility()
+                    != Visibility.REVEALED) {
+                grid.revealCellAt(position);
+                clicks++;
+            }
+        }
+        return clicks;
+    }
+
+    // Returns a grid of the given dimensions mined at the given indices
+    private static Grid grid(int width, int height, int... mines) {
+        BitSet mined = new BitSet();
+        for (int mine: mines)
+            mined.set(mine);
+        Grid grid = new Grid(width, height, mines.length);
+        grid.placeMines(mined);
+        return grid;
+    }
+
+    @Test
+    void gridWithoutMinesIsOneOpening() {
+        BoardMetrics metrics = new BoardAnalyzer().analyze(grid(8, 5));
+        assertEquals(1, metrics.threeBV());
+        assertEquals(1, metrics.openings());
+        assertEquals(0, metrics.isolatedCells());
+        assertEquals(0, metrics.largestIsolatedRegion());
+    }
+
+    @Test
+    void cellsAroundMinesAreIsolated() {
+        // Two mines in the corners of a 3x2 grid: no opening, the safe cells
+        // form a single region.
+        BoardMetrics metrics = new BoardAnalyzer().analyze(grid(3, 2, 0, 5));
+        assertEquals(4, metrics.threeBV());
+        assertEquals(0, metrics.openings());
+        assertEquals(4, metrics.isolatedCells());
+        assertArrayEquals(new int[] {4}, metrics.isolatedRegions());
+    }
+
+    @Test
+    void openingsSeparatedByNumbersAreDistinct() {
+        // A column of mines splits a 5x3 grid into two openings.
+        BoardMetrics metrics = new BoardAnalyzer().analyze(
+                grid(5, 3, 2, 7, 12));
+        assertEquals(2, metrics.threeBV());
+        assertEquals(2, metrics.openings());
+        assertEquals(0, metrics.isolatedCells());
+    }
+
+    @Test
+    void threeBVIsTheNumberOfClicksThatClearTheGrid() {
+        BoardAnalyzer analyzer = new BoardAnalyzer();
+        for (long seed = 0; seed < 200; seed++) {
+            int side = 4 + (int) (seed % 13);
+            Grid grid = new Grid(side, side + 3, side * (side + 3) / 5);
+            grid.placeMines(Game.safeZone(new Position(1, 1)), seed);
+            BoardMetrics metrics = analyzer.analyze(grid);
+            int sum = 0;
+            for (int size: metrics.isolatedRegions())
+                sum += size;
+            assertEquals(metrics.isolatedCells(), sum);
+            assertEquals(metrics.openings() + metrics.isolatedCells(),
+                    metrics.threeBV());
+            assertEquals(clicks(grid), metrics.threeBV());
+        }
+    }
+
+    @Test
+    void isolatedRegionsAreInDecreasingOrder() {
+        Grid grid = new Grid(30, 16, 170);
+        grid.placeMines(Game.safeZone(new Position(8, 15)), 3L);
+        int[] regions = new BoardAnalyzer().analyze(grid).isolatedRegions();
+        assertTrue(regions.length > 1);
+        for (int i = 1; i < regions.length; i++)
+            assertTrue(regions[i - 1] >= regions[i]);
+    }
+
+    @Test
+    void threeBVPerSecondOfAnInstantGameIsZero() {
+        BoardMetrics metrics = new BoardMetrics(10, 2, 8, new int[] {8});
+        assertEquals(0.0, metrics.threeBVPerSecond(0L));
+        assertEquals(5.0, metrics.threeBVPerSecond(2000L));
+    }
+}
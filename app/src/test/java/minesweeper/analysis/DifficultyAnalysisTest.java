@@ -0,0 +1,52 @@
+package minesweeper.analysis;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DifficultyAnalysisTest {
+
+    @Test
+    void analysisWithIllegalDimensionsThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DifficultyAnalysis(9, 0, 0));
+    }
+
+    @Test
+    void runWithIllegalNumberOfBoardsThrowsException() {
+        DifficultyAnalysis analysis = new DifficultyAnalysis(9, 9, 10);
+        assertThrows(IllegalArgumentException.class,
+                () -> analysis.run(-1, 1L, 2));
+    }
+
+    @Test
+    void reportCountsEveryBoard() {
+        DifficultyReport report = new DifficultyAnalysis(9, 9, 10)
+            .run(3000, 1L, 2);
+        assertEquals(3000, report.boards());
+        long total = 0;
+        for (long count: report.threeBV())
+            total += count;
+        assertEquals(3000, total);
+        assertEquals(0, report.threeBV()[0]);
+        assertTrue(report.averageOpenings() >= 1.0);
+        assertTrue(report.threeBVQuantile(0.1)
+                <= report.threeBVQuantile(0.9));
+    }
+
+    @Test
+    void runIsReproducibleWhateverTheParallelism() {
+        DifficultyAnalysis analysis = new DifficultyAnalysis(30, 16, 99);
+        DifficultyReport r1 = analysis.run(5000, 42L, 1);
+        DifficultyReport r2 = analysis.run(5000, 42L, 4);
+        assertTrue(r1.sameStatistics(r2));
+    }
+
+    @Test
+    void gridsWithoutMinesAreOneClick() {
+        DifficultyReport report = new DifficultyAnalysis(8, 8, 0)
+            .run(100, 3L, 2);
+        assertEquals(100, report.threeBV()[1]);
+        assertEquals(1.0, report.averageThreeBV());
+        assertEquals(0, report.largestIsolatedRegion());
+    }
+}
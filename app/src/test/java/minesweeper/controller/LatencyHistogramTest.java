@@ -0,0 +1,65 @@
+package minesweeper.controller;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptyHistogramHasNoDuration() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.count());
+        assertEquals(0L, histogram.percentile(0.5));
+        assertEquals(0L, histogram.percentile(1.0));
+    }
+
+    @Test
+    void percentileIsTheUpperBoundOfTheBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(1000);
+        histogram.record(1023);
+        assertEquals(4L, histogram.count());
+        assertEquals(1L, histogram.percentile(0.5));
+        assertEquals(1023L, histogram.percentile(0.75));
+        assertEquals(1023L, histogram.percentile(1.0));
+    }
+
+    @Test
+    void percentileCoversTheGivenRatio() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++)
+            histogram.record(100);
+        histogram.record(1_000_000);
+        assertEquals(127L, histogram.percentile(0.5));
+        assertEquals(127L, histogram.percentile(0.99));
+        assertEquals((1L << 20) - 1, histogram.percentile(1.0));
+    }
+
+    @Test
+    void negativeDurationIsRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1L, histogram.count());
+        assertEquals(1L, histogram.percentile(1.0));
+    }
+
+    @Test
+    void largestDurationHasNoUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.percentile(1.0));
+    }
+
+    @Test
+    void illegalRatioThrowsException() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThrows(IllegalArgumentException.class,
+                () -> histogram.percentile(-0.1));
+        assertThrows(IllegalArgumentException.class,
+                () -> histogram.percentile(1.1));
+        assertThrows(IllegalArgumentException.class,
+                () -> histogram.percentile(Double.NaN));
+    }
+}
@@ -0,0 +1,155 @@
+package minesweeper.controller;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.Game;
+import minesweeper.model.GameSnapshot;
+import minesweeper.model.GameState;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.model.Position;
+import minesweeper.model.Visibility;
+import minesweeper.replay.MoveLog;
+import minesweeper.replay.MoveRecorder;
+import minesweeper.replay.RecordedGame;
+import minesweeper.replay.RecordedMove;
+
+class ModelThreadTest {
+
+    // Returns the next snapshot published to snapshots
+    private static GameSnapshot next(BlockingQueue<GameSnapshot> snapshots)
+            throws InterruptedException {
+        GameSnapshot snapshot = snapshots.poll(10, TimeUnit.SECONDS);
+        assertNotNull(snapshot);
+        return snapshot;
+    }
+
+    @Test
+    void gameIsPublishedOnStart() throws InterruptedException {
+        BlockingQueue<GameSnapshot> snapshots = new LinkedBlockingQueue<>();
+        try (ModelThread thread = new ModelThread(new Game(9, 9, 10, 42L),
+                    snapshots::add)) {
+            GameSnapshot snapshot = next(snapshots);
+            assertTrue(snapshot.changes().full());
+            assertEquals(GameState.NOT_STARTED, snapshot.state());
+        }
+    }
+
+    @Test
+    void submittedMovesArePlayedOnTheModelThread()
+            throws InterruptedException {
+        BlockingQueue<GameSnapshot> snapshots = new LinkedBlockingQueue<>();
+        Game game = new Game(9, 9, 10, 42L);
+        Game expected = new Game(9, 9, 10, 42L);
+        expected.play(Move.reveal(4, 4));
+        try (ModelThread thread = new ModelThread(game, snapshots::add)) {
+            next(snapshots);
+            thread.submit(List.of(Move.reveal(4, 4)),
+                    new long[] {System.nanoTime()});
+            GameSnapshot snapshot = next(snapshots);
+            assertSame(snapshot, thread.snapshot());
+            assertFalse(snapshot.changes().full());
+            assertEquals(GameState.PLAYING, snapshot.state());
+            for (int i = 0; i < 81; i++) {
+                assertEquals(expected.grid().visibilityAt(i),
+                        snapshot.visibilityAt(i));
+            }
+            assertEquals(1L, thread.latencies().count());
+        }
+    }
+
+    @Test
+    void versionsIncreaseByOne() throws InterruptedException {
+        BlockingQueue<GameSnapshot> snapshots = new LinkedBlockingQueue<>();
+        try (ModelThread thread = new ModelThread(new Game(9, 9, 10, 42L),
+                    snapshots::add)) {
+            long version = next(snapshots).version();
+            for (int i = 0; i < 4; i++) {
+                thread.submit(List.of(Move.flag(0, i)),
+                        new long[] {System.nanoTime()});
+            }
+            long flags = 0;
+            while (flags < 4) {
+                GameSnapshot snapshot = next(snapshots);
+                assertEquals(++version, snapshot.version());
+                flags += snapshot.changes().flagsDelta();
+            }
+            assertEquals(6L, thread.snapshot().unflaggedMines());
+        }
+    }
+
+    @Test
+    void movesOutsideOfTheBoardAreIgnored() throws InterruptedException {
+        BlockingQueue<GameSnapshot> snapshots = new LinkedBlockingQueue<>();
+        try (ModelThread thread = new ModelThread(new Game(9, 9, 10, 42L),
+                    snapshots::add)) {
+            next(snapshots);
+            thread.submit(List.of(Move.flag(20, 20), Move.flag(0, 0)),
+                    new long[] {System.nanoTime(), System.nanoTime()});
+            GameSnapshot snapshot = next(snapshots);
+            assertEquals(Visibility.FLAGGED, snapshot.visibilityAt(0));
+            assertEquals(1L, thread.latencies().count());
+        }
+    }
+
+    @Test
+    void replacedGameIsPublishedInFull() throws InterruptedException {
+        BlockingQueue<GameSnapshot> snapshots = new LinkedBlockingQueue<>();
+        try (ModelThread thread = new ModelThread(new Game(9, 9, 10, 42L),
+                    snapshots::add)) {
+            next(snapshots);
+            thread.setGame(new Game(30, 16, 99, 42L));
+            thread.submit(List.of(new Move(Move.Type.FLAG,
+                            new Position(15, 29))),
+                    new long[] {System.nanoTime()});
+            GameSnapshot snapshot = next(snapshots);
+            assertTrue(snapshot.changes().full());
+            assertEquals(30, snapshot.width());
+            snapshot = next(snapshots);
+            assertEquals(Visibility.FLAGGED,
+                    snapshot.visibilityAt(15 * 30 + 29));
+        }
+    }
+
+    @Test
+    void recordedGameIsReplayedFromItsSeed()
+            throws IOException, InterruptedException {
+        Path path = Files.createTempFile("moves", ".log");
+        BlockingQueue<GameSnapshot> snapshots = new LinkedBlockingQueue<>();
+        List<Move> moves = List.of(Move.reveal(4, 4), Move.flag(0, 0),
+                Move.reveal(8, 8));
+        try {
+            ModelThread thread = new ModelThread(
+                    new Game(new Grid(9, 9, 10)), snapshots::add,
+                    new MoveRecorder(path));
+            for (Move move: moves)
+                thread.submit(List.of(move), new long[] {System.nanoTime()});
+            thread.close();
+            GameSnapshot last = thread.snapshot();
+            List<RecordedGame> games = MoveLog.read(path).games();
+            assertEquals(1, games.size());
+            RecordedGame recorded = games.get(0);
+            assertEquals(moves, recorded.moves().stream()
+                    .map(RecordedMove::move).toList());
+            Game replayed = recorded.newGame();
+            replayed.applyBatch(moves);
+            for (int i = 0; i < 81; i++) {
+                assertEquals(replayed.grid().visibilityAt(i),
+                        last.visibilityAt(i));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package minesweeper.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardPoolTest {
+
+    // The settings of the games of the tests.
+    private static final BoardPool.Settings EXPERT =
+        new BoardPool.Settings(30, 16, 99);
+
+    // Waits until the pool has a layout ready for settings
+    private static void awaitLayout(BoardPool pool,
+            BoardPool.Settings settings) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (pool.available(settings) == 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void settingsWithIllegalDimensionsThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoardPool.Settings(0, 4, 0));
+    }
+
+    @Test
+    void poolWithIllegalCapacityThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BoardPool(BoardPool.RANDOM, 0, 1, 1L));
+    }
+
+    @Test
+    void takeWithoutLayoutReadyDoesNotBlock() {
+        try (BoardPool pool = new BoardPool(
+                (settings, start, seed) -> {
+                    try {
+                        Thread.sleep(60_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return BoardPool.RANDOM.generate(settings, start, seed);
+                }, 2, 2, 1L)) {
+            long start = System.nanoTime();
+            Game game = pool.take(EXPERT);
+            assertTrue(System.nanoTime() - start < 1_000_000_000L);
+            assertEquals(1, pool.misses());
+            assertTrue(game.revealCellAt(new Position(3, 3)));
+            assertFalse(game.hasMineRevealed());
+        }
+    }
+
+    @Test
+    void layoutIsTranslatedToTheFirstClick() throws InterruptedException {
+        try (BoardPool pool = new BoardPool(BoardPool.RANDOM, 2, 2, 3L)) {
+            pool.take(EXPERT);
+            for (int i = 0; i < 16; i++) {
+                Position click = new Position(i, (7 * i) % 30);
+                awaitLayout(pool, EXPERT);
+                Game game = pool.take(EXPERT);
+                game.revealCellAt(click);
+                Grid grid = game.grid();
+                assertEquals(99, grid.minesPlaced());
+                for (Position position: Game.safeZone(click)) {
+                    if (grid.contains(position))
+                        assertFalse(grid.cellAt(position).isMined());
+                }
+            }
+            assertEquals(16, pool.hits());
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedSettingsAreEvicted() throws InterruptedException {
+        BoardPool.Settings beginner = new BoardPool.Settings(9, 9, 10);
+        try (BoardPool pool = new BoardPool(BoardPool.RANDOM, 1, 1, 5L)) {
+            pool.take(beginner);
+            awaitLayout(pool, beginner);
+            pool.take(EXPERT);
+            awaitLayout(pool, EXPERT);
+            assertFalse(pool.contains(beginner));
+            assertTrue(pool.contains(EXPERT));
+        }
+    }
+}
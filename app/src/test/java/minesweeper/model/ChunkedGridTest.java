@@ -0,0 +1,125 @@
+package minesweeper.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class ChunkedGridTest {
+
+    @Test
+    void chunkedGridWithNegativeWidthThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ChunkedGrid(-1, 4, 0));
+    }
+
+    @Test
+    void chunkedGridWithMoreMinesThanCellsThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ChunkedGrid(100000, 100000, 10000000001L));
+    }
+
+    @Test
+    void cellAtPositionOutsideChunkedGridThrowsException() {
+        ChunkedGrid sut = new ChunkedGrid(100, 100, 0);
+        Position pos = new Position(4, 100);
+        assertThrows(IllegalArgumentException.class, () -> sut.cellAt(pos));
+    }
+
+    @Test
+    void newChunkedGridHasNoMaterializedChunk() {
+        ChunkedGrid sut = new ChunkedGrid(100000, 100000, 1500000000L);
+        sut.placeMines(new ArrayList<>(), 1L);
+        assertEquals(0, sut.materializedChunks());
+    }
+
+    @Test
+    void revealOnHugeChunkedGridMaterializesFewChunks() {
+        ChunkedGrid sut = new ChunkedGrid(100000, 100000, 2000000000L);
+        Position pos = new Position(50000, 50000);
+        List<Position> excluded = pos.neighbors();
+        excluded.add(pos);
+        sut.placeMines(excluded, 1L);
+        assertTrue(sut.revealCellAt(pos));
+        assertFalse(sut.hasMineRevealed());
+        assertTrue(sut.materializedChunks() < 100);
+    }
+
+    @Test
+    void layoutDoesNotDependOnTheOrderOfTouchedChunks() {
+        ChunkedGrid first = new ChunkedGrid(300, 200, 9000);
+        ChunkedGrid second = new ChunkedGrid(300, 200, 9000);
+        first.placeMines(new ArrayList<>(), 77L);
+        second.placeMines(new ArrayList<>(), 77L);
+        // Materialize the chunks in opposite orders
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < 300; j++) {
+                assertNotNull(first.cellAt(new Position(i, j)));
+                assertNotNull(second.cellAt(new Position(199 - i, 299 - j)));
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < 300; j++) {
+                Position pos = new Position(i, j);
+                assertEquals(first.cellAt(pos).isMined(),
+                        second.cellAt(pos).isMined());
+                assertEquals(first.cellAt(pos).minesAround(),
+                        second.cellAt(pos).minesAround());
+            }
+        }
+    }
+
+    @Test
+    void minesAroundAreCountedAcrossChunks() {
+        ChunkedGrid sut = new ChunkedGrid(150, 130, 4000);
+        sut.placeMines(new ArrayList<>(), 3L);
+        int total = 0;
+        for (int i = 0; i < 130; i++) {
+            for (int j = 0; j < 150; j++) {
+                Position pos = new Position(i, j);
+                if (sut.cellAt(pos).isMined())
+                    total++;
+                int expected = 0;
+                for (Position neighbor: pos.neighbors()) {
+                    if (neighbor.inBounds(150, 130)
+                            && sut.cellAt(neighbor).isMined())
+                        expected++;
+                }
+                assertEquals(expected, sut.cellAt(pos).minesAround());
+            }
+        }
+        assertEquals(4000, total);
+        assertEquals(4000L, sut.minesPlaced());
+    }
+
+    @Test
+    void excludedPositionsAreNotMined() {
+        ChunkedGrid sut = new ChunkedGrid(64, 64, 4095);
+        Position pos = new Position(10, 10);
+        List<Position> excluded = pos.neighbors();
+        excluded.add(pos);
+        sut.placeMines(excluded, 5L);
+        for (Position position: excluded)
+            assertFalse(sut.cellAt(position).isMined());
+        assertEquals(64 * 64 - 9, sut.minesPlaced());
+    }
+
+    @Test
+    void chunkedGridWithoutMinesIsCompletedByOneReveal() {
+        ChunkedGrid sut = new ChunkedGrid(200, 100, 0);
+        sut.placeMines(new ArrayList<>(), 0L);
+        sut.revealCellAt(Position.ORIGIN);
+        assertTrue(sut.isCompleted());
+        assertEquals(200L * 100, sut.revealedSafeCells());
+    }
+
+    @Test
+    void flaggingCellOfChunkedGridUpdatesFlaggedCells() {
+        ChunkedGrid sut = new ChunkedGrid(1000, 1000, 0);
+        Position pos = new Position(999, 999);
+        assertTrue(sut.flagCellAt(pos));
+        assertEquals(1L, sut.flaggedCells());
+        assertFalse(sut.revealCellAt(pos));
+    }
+}
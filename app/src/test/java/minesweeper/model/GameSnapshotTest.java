@@ -0,0 +1,89 @@
+package minesweeper.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class GameSnapshotTest {
+
+    // Asserts that snapshot shows the revealed cells of grid only
+    private static void assertShows(Grid grid, GameSnapshot snapshot) {
+        assertEquals(grid.width(), snapshot.width());
+        assertEquals(grid.height(), snapshot.height());
+        for (int i = 0; i < grid.width() * grid.height(); i++) {
+            Visibility visibility = grid.visibilityAt(i);
+            assertEquals(visibility, snapshot.visibilityAt(i));
+            boolean revealed = visibility == Visibility.REVEALED;
+            assertEquals(revealed && grid.isMinedAt(i),
+                    snapshot.isMinedAt(i));
+            assertEquals(revealed ? grid.minesAroundAt(i) : 0,
+                    snapshot.minesAroundAt(i));
+        }
+    }
+
+    @Test
+    void firstSnapshotIsFull() {
+        Game game = new Game(9, 9, 10, 42L);
+        GameSnapshot snapshot = GameSnapshot.of(game);
+        assertEquals(0L, snapshot.version());
+        assertTrue(snapshot.changes().full());
+        assertEquals(GameState.NOT_STARTED, snapshot.state());
+        assertEquals(10L, snapshot.unflaggedMines());
+        assertEquals(-1L, snapshot.gameTimeMillis());
+        assertShows(game.grid(), snapshot);
+    }
+
+    @Test
+    void nextSnapshotShowsTheChanges() {
+        Game game = new Game(16, 16, 40, 7L);
+        GameSnapshot[] snapshot = {GameSnapshot.of(game)};
+        game.add((ChangeObserver) (g, changes) ->
+                snapshot[0] = snapshot[0].next(g, changes));
+        game.applyBatch(List.of(Move.reveal(8, 8)));
+        assertEquals(1L, snapshot[0].version());
+        assertFalse(snapshot[0].changes().full());
+        assertShows(game.grid(), snapshot[0]);
+        for (int i = 0; i < 256; i++) {
+            if (game.grid().visibilityAt(i) == Visibility.HIDDEN) {
+                game.applyBatch(List.of(new Move(Move.Type.FLAG,
+                        game.grid().positionOf(i))));
+                break;
+            }
+        }
+        assertEquals(2L, snapshot[0].version());
+        assertEquals(39L, snapshot[0].unflaggedMines());
+        assertShows(game.grid(), snapshot[0]);
+    }
+
+    @Test
+    void snapshotIsNotChangedByLaterMoves() {
+        Game game = new Game(9, 9, 10, 42L);
+        GameSnapshot first = GameSnapshot.of(game);
+        game.applyBatch(List.of(Move.reveal(4, 4)));
+        GameSnapshot next = first.next(game, ChangeSet.full(game.state()));
+        assertEquals(Visibility.HIDDEN, first.visibilityAt(40));
+        assertEquals(Visibility.REVEALED, next.visibilityAt(40));
+        assertEquals(GameState.NOT_STARTED, first.state());
+    }
+
+    @Test
+    void nextSnapshotOfAnotherGridIsFull() {
+        Game game = new Game(9, 9, 10, 42L);
+        Game other = new Game(30, 16, 99, 42L);
+        other.applyBatch(List.of(Move.reveal(8, 15)));
+        GameSnapshot snapshot = GameSnapshot.of(game).next(other,
+                ChangeSet.full(other.state()));
+        assertEquals(1L, snapshot.version());
+        assertShows(other.grid(), snapshot);
+    }
+
+    @Test
+    void indexOutsideOfGridThrowsException() {
+        GameSnapshot snapshot = GameSnapshot.of(new Game(9, 9, 10, 42L));
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.visibilityAt(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> snapshot.isMinedAt(81));
+    }
+}
@@ -0,0 +1,299 @@
+package minesweeper.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+class GameTest {
+
+    @Test
+    void newGameIsNotStarted() {
+        Game game = new Game(9, 9, 10, 42L);
+        assertEquals(GameState.NOT_STARTED, game.state());
+        assertFalse(game.isMined());
+    }
+
+    @Test
+    void firstRevealIsSafeWithItsNeighbors() {
+        for (long seed = 0; seed < 50; seed++) {
+            Game game = new Game(9, 9, 71, seed);
+            MoveResult result = game.play(Move.reveal(4, 4));
+            assertTrue(result.changed());
+            Grid grid = game.grid();
+            assertFalse(grid.cellAt(new Position(4, 4)).isMined());
+            for (Position neighbor: new Position(4, 4).neighbors())
+                assertFalse(grid.cellAt(neighbor).isMined());
+        }
+    }
+
+    @Test
+    void firstFlagPlacesTheMinesOutOfItsNeighborhood() {
+        Game game = new Game(9, 9, 71, 3L);
+        assertTrue(game.play(Move.flag(0, 0)).changed());
+        assertTrue(game.isMined());
+        assertFalse(game.grid().cellAt(Position.ORIGIN).isMined());
+        assertEquals(GameState.PLAYING, game.state());
+    }
+
+    @Test
+    void gamesWithSameSeedHaveSameBoards() {
+        Game g1 = new Game(16, 16, 40, 7L);
+        Game g2 = new Game(16, 16, 40, 7L);
+        g1.play(Move.reveal(3, 5));
+        g2.play(Move.reveal(3, 5));
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                Position position = new Position(i, j);
+                assertEquals(g1.grid().cellAt(position).isMined(),
+                        g2.grid().cellAt(position).isMined());
+            }
+        }
+    }
+
+    @Test
+    void resultHoldsTheIndicesOfTheChangedCells() {
+        Game game = new Game(8, 8, 0, 1L);
+        MoveResult result = game.play(Move.reveal(0, 0));
+        int[] changed = result.changedCells().clone();
+        Arrays.sort(changed);
+        for (int i = 0; i < 64; i++)
+            assertEquals(i, changed[i]);
+        assertEquals(GameState.WON, result.state());
+    }
+
+    @Test
+    void moveOnEndedGameChangesNothing() {
+        Game game = new Game(8, 8, 0, 1L);
+        game.play(Move.reveal(0, 0));
+        MoveResult result = game.play(Move.flag(2, 2));
+        assertFalse(result.changed());
+        assertEquals(0, result.changedCells().length);
+    }
+
+    @Test
+    void revealOfMineLosesTheGame() {
+        Game game = new Game(9, 9, 71, 11L);
+        game.play(Move.reveal(4, 4));
+        Grid grid = game.grid();
+        Position mined = null;
+        for (int i = 0; i < grid.height() && mined == null; i++) {
+            for (int j = 0; j < grid.width() && mined == null; j++) {
+                if (grid.cellAt(new Position(i, j)).isMined())
+                    mined = new Position(i, j);
+            }
+        }
+        MoveResult result = game.play(new Move(Move.Type.REVEAL, mined));
+        assertEquals(GameState.LOST, result.state());
+        assertTrue(game.hasEnded());
+    }
+
+    @Test
+    void chordRevealsHiddenNeighborsWhenMinesAreFlagged() {
+        Game game = new Game(16, 16, 40, 5L);
+        game.play(Move.reveal(8, 8));
+        Grid grid = game.grid();
+        Position border = null;
+        for (int i = 0; i < grid.height() && border == null; i++) {
+            for (int j = 0; j < grid.width() && border == null; j++) {
+                Position position = new Position(i, j);
+                if (grid.cellAt(position).visibility() == Visibility.REVEALED
+                        && hasHiddenSafeNeighbor(grid, position))
+                    border = position;
+            }
+        }
+        assertNotNull(border);
+        Move chord = new Move(Move.Type.CHORD, border);
+        assertFalse(game.play(chord).changed());
+        for (Position neighbor: border.neighbors()) {
+            if (grid.contains(neighbor) && grid.cellAt(neighbor).isMined())
+                game.play(new Move(Move.Type.FLAG, neighbor));
+        }
+        assertTrue(game.play(chord).changed());
+        assertFalse(hasHiddenSafeNeighbor(grid, border));
+    }
+
+    // Returns true if a neighbor of position is hidden and not mined
+    private static boolean hasHiddenSafeNeighbor(Grid grid,
+            Position position) {
+        for (Position neighbor: position.neighbors()) {
+            if (!grid.contains(neighbor))
+                continue;
+            Cell cell = grid.cellAt(neighbor);
+            if (cell.visibility() == Visibility.HIDDEN && !cell.isMined())
+                return true;
+        }
+        return false;
+    }
+
+    @Test
+    void chordOfHiddenCellChangesNothing() {
+        Game game = new Game(9, 9, 10, 5L);
+        assertFalse(game.play(Move.chord(0, 0)).changed());
+        assertEquals(GameState.NOT_STARTED, game.state());
+    }
+
+    @Test
+    void moveOutsideOfGridThrowsException() {
+        Game game = new Game(9, 9, 10, 5L);
+        assertThrows(IllegalArgumentException.class,
+                () -> game.play(Move.reveal(9, 0)));
+        assertFalse(game.isMined());
+    }
+
+    @Test
+    void playWithNullMoveThrowsException() {
+        Game game = new Game(9, 9, 10, 5L);
+        assertThrows(NullPointerException.class, () -> game.play(null));
+    }
+
+    @Test
+    void gameOnInfiniteBoardPlacesMinesOnFirstMove() {
+        Game game = new Game(new InfiniteBoard(9L, 0.2));
+        MoveResult result = game.play(Move.reveal(100, 100));
+        assertTrue(result.changed());
+        assertEquals(GameState.PLAYING, result.state());
+        assertEquals(0, result.changedCells().length);
+    }
+
+    @Test
+    void layoutPlacesTheMinesOnTheFirstMove() {
+        Position[] clicked = new Position[1];
+        Game game = new Game(new Grid(9, 9, 10), (grid, firstClick) -> {
+            clicked[0] = firstClick;
+            grid.placeMines(Game.safeZone(firstClick), 1L);
+        });
+        assertFalse(game.isMined());
+        game.play(Move.flag(2, 3));
+        assertEquals(new Position(2, 3), clicked[0]);
+        assertTrue(game.isMined());
+    }
+
+    @Test
+    void safeZoneHoldsThePositionAndItsNeighbors() {
+        assertEquals(9, Game.safeZone(new Position(4, 4)).size());
+        assertTrue(Game.safeZone(Position.ORIGIN).contains(Position.ORIGIN));
+    }
+
+    @Test
+    void batchNotifiesTheObserversOnce() {
+        Game game = new Game(16, 16, 40, 2L);
+        int[] updates = new int[1];
+        game.add(g -> updates[0]++);
+        MoveResult result = game.applyBatch(List.of(Move.reveal(8, 8),
+                Move.flag(0, 0), Move.flag(15, 15)));
+        assertEquals(1, updates[0]);
+        assertTrue(result.changed());
+        assertEquals(GameState.PLAYING, result.state());
+        MoveResult single = new Game(16, 16, 40, 2L).play(Move.reveal(8, 8));
+        assertEquals(single.changedCells().length + 2,
+                result.changedCells().length);
+    }
+
+    @Test
+    void batchWithoutChangeDoesNotNotify() {
+        Game game = new Game(8, 8, 10, 3L);
+        int[] updates = new int[1];
+        game.add(g -> updates[0]++);
+        MoveResult result = game.applyBatch(List.of(Move.chord(1, 1)));
+        assertFalse(result.changed());
+        assertEquals(0, updates[0]);
+    }
+
+    @Test
+    void batchWithMoveOutsideOfGridChangesNothing() {
+        Game game = new Game(8, 8, 10, 3L);
+        assertThrows(IllegalArgumentException.class,
+                () -> game.applyBatch(List.of(Move.reveal(1, 1),
+                        Move.reveal(8, 0))));
+        assertEquals(GameState.NOT_STARTED, game.state());
+        assertFalse(game.isMined());
+    }
+
+    @Test
+    void batchNotifiesItsChangeSet() {
+        Game game = new Game(16, 16, 40, 2L);
+        ChangeSet[] received = new ChangeSet[1];
+        game.add((ChangeObserver) (g, changes) -> received[0] = changes);
+        MoveResult result = game.applyBatch(List.of(Move.reveal(8, 8),
+                Move.flag(0, 0), Move.flag(15, 15)));
+        ChangeSet changes = received[0];
+        assertFalse(changes.full());
+        assertArrayEquals(result.changedCells(), changes.changedCells());
+        assertEquals(2, changes.flagsDelta());
+        assertTrue(changes.started());
+        assertFalse(changes.ended());
+        game.applyBatch(List.of(Move.flag(0, 0)));
+        assertEquals(-1, received[0].flagsDelta());
+        assertFalse(received[0].started());
+    }
+
+    @Test
+    void winningBatchNotifiesTheTransition() {
+        Game game = new Game(8, 8, 0, 1L);
+        ChangeSet[] received = new ChangeSet[1];
+        game.add((ChangeObserver) (g, changes) -> received[0] = changes);
+        game.applyBatch(List.of(Move.reveal(0, 0)));
+        assertEquals(GameState.NOT_STARTED, received[0].previous());
+        assertTrue(received[0].won());
+        assertTrue(received[0].ended());
+        assertFalse(received[0].lost());
+        assertEquals(64, received[0].changedCells().length);
+    }
+
+    @Test
+    void notificationOutsideOfBatchIsFull() {
+        Game game = new Game(8, 8, 10, 1L);
+        int[] updates = new int[1];
+        ChangeSet[] received = new ChangeSet[1];
+        game.add(g -> updates[0]++);
+        game.add((ChangeObserver) (g, changes) -> received[0] = changes);
+        game.notifyObservers();
+        assertEquals(1, updates[0]);
+        assertTrue(received[0].full());
+        assertFalse(received[0].started());
+    }
+
+    @Test
+    void restoredKeyframeRestoresTheState() {
+        Game game = new Game(9, 9, 10, 42L);
+        GameKeyframe start = game.keyframe();
+        game.play(Move.reveal(4, 4));
+        GameKeyframe playing = game.keyframe();
+        long revealed = game.grid().revealedSafeCells();
+        game.restore(start);
+        assertEquals(GameState.NOT_STARTED, game.state());
+        assertEquals(0, game.grid().revealedSafeCells());
+        assertTrue(game.isMined());
+        game.restore(playing);
+        assertEquals(GameState.PLAYING, game.state());
+        assertEquals(revealed, game.grid().revealedSafeCells());
+    }
+
+    @Test
+    void keyframeOfGameWithTheSameMinesIsRestored() {
+        Game game = new Game(9, 9, 10, 42L);
+        Game other = new Game(9, 9, 10, 42L);
+        game.play(Move.reveal(4, 4));
+        other.play(Move.reveal(4, 4));
+        other.play(Move.reveal(0, 0));
+        game.restore(other.keyframe());
+        assertArrayEquals(other.grid().packVisibilities(),
+                game.grid().packVisibilities());
+        assertEquals(other.state(), game.state());
+    }
+
+    @Test
+    void keyframeOfAnotherGameThrowsException() {
+        Game game = new Game(9, 9, 10, 42L);
+        GameKeyframe unmined = new Game(9, 9, 10, 42L).keyframe();
+        assertThrows(IllegalArgumentException.class,
+                () -> game.restore(unmined));
+        game.play(Move.reveal(4, 4));
+        Game other = new Game(9, 9, 10, 43L);
+        other.play(Move.reveal(4, 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> game.restore(other.keyframe()));
+    }
+}
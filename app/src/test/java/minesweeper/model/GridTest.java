@@ -5,7 +5,16 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.awt.Dimension;
 
+import java.lang.management.ManagementFactory;
+
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Deque;
+import java.util.Random;
+import java.util.Set;
+import java.util.HashSet;
 
 class GridTest {
 
@@ -142,4 +151,335 @@ class GridTest {
         sut.revealCellAt(new Position(1, 1));
         assertTrue(sut.isCompleted());
     }
+
+    @Test
+    void indexOfPositionIsRowMajor() {
+        Grid sut = new Grid(7, 3);
+        assertEquals(2 * 7 + 5, sut.indexOf(new Position(2, 5)));
+    }
+
+    @Test
+    void indexOfPositionOutsideGridThrowsException() {
+        Grid sut = new Grid(7, 3);
+        Position pos = new Position(3, 0);
+        assertThrows(IllegalArgumentException.class, () -> sut.indexOf(pos));
+    }
+
+    @Test
+    void positionOfIndexOfPositionIsPosition() {
+        Grid sut = new Grid(7, 3);
+        Position pos = new Position(1, 6);
+        assertEquals(pos, sut.positionOf(sut.indexOf(pos)));
+    }
+
+    @Test
+    void positionOfIndexOutsideGridThrowsException() {
+        Grid sut = new Grid(2, 2);
+        assertThrows(IllegalArgumentException.class, () -> sut.positionOf(4));
+    }
+
+    @Test
+    void cellAtReflectsChangesOnGrid() {
+        Grid sut = new Grid(4, 4, 0);
+        Position pos = new Position(1, 2);
+        Cell cell = sut.cellAt(pos);
+        sut.flagCellAt(pos);
+        assertTrue(cell.isFlagged());
+    }
+
+    @Test
+    void cellsAtSamePositionAreEqual() {
+        Grid sut = new Grid(4, 4, 0);
+        Position pos = new Position(3, 1);
+        assertEquals(sut.cellAt(pos), sut.cellAt(pos));
+    }
+
+    @Test
+    void placedMinesAreCountedAroundTheirNeighbors() {
+        Grid sut = new Grid(3, 3, 9);
+        sut.placeMines(new ArrayList<>());
+        assertEquals(Cell.MAX_MINES_AROUND,
+                sut.cellAt(new Position(1, 1)).minesAround());
+    }
+
+    @Test
+    void countersAreConsistentWithScansDuringRandomPlay() {
+        Grid sut = new Grid(16, 16, 40);
+        sut.setConsistencyChecked(true);
+        sut.placeMines(new ArrayList<>());
+        Random rand = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            Position pos = new Position(rand.nextInt(16), rand.nextInt(16));
+            if (rand.nextInt(4) == 0)
+                sut.flagCellAt(pos);
+            else
+                sut.revealCellAt(pos);
+            assertDoesNotThrow(() -> {
+                    sut.isCompleted();
+                    sut.hasMineRevealed();
+                    sut.minesPlaced();
+                    sut.revealedSafeCells();
+                    sut.flaggedCells();
+                });
+        }
+    }
+
+    @Test
+    void countersAreResetByInitializeCells() {
+        Grid sut = new Grid(3, 3, 9);
+        sut.placeMines(new ArrayList<>());
+        sut.revealCellAt(Position.ORIGIN);
+        sut.flagCellAt(new Position(1, 1));
+        sut.initializeCells();
+        assertEquals(0, sut.minesPlaced());
+        assertEquals(0, sut.flaggedCells());
+        assertFalse(sut.hasMineRevealed());
+    }
+
+    @Test
+    void miningRevealedCellMakesMineRevealed() {
+        Grid sut = new Grid(3, 3, 0);
+        sut.setConsistencyChecked(true);
+        sut.flagCellAt(new Position(2, 2));
+        sut.revealCellAt(Position.ORIGIN);
+        sut.cellAt(Position.ORIGIN).mine();
+        assertTrue(sut.hasMineRevealed());
+        assertFalse(sut.isCompleted());
+    }
+
+    @Test
+    void flaggingAndUnflaggingUpdatesFlaggedCells() {
+        Grid sut = new Grid(3, 3, 0);
+        Position pos = new Position(1, 2);
+        sut.flagCellAt(pos);
+        assertEquals(1, sut.flaggedCells());
+        sut.flagCellAt(pos);
+        assertEquals(0, sut.flaggedCells());
+    }
+
+    @Test
+    void forEachNeighborVisitsNeighborsInsideGrid() {
+        Grid sut = new Grid(5, 4);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 5; j++) {
+                Position pos = new Position(i, j);
+                Set<Integer> expected = new HashSet<>();
+                for (Position neighbor: pos.neighbors()) {
+                    if (neighbor.inBounds(5, 4))
+                        expected.add(sut.indexOf(neighbor));
+                }
+                Set<Integer> visited = new HashSet<>();
+                sut.forEachNeighbor(sut.indexOf(pos), visited::add);
+                assertEquals(expected, visited);
+            }
+        }
+    }
+
+    @Test
+    void forEachNeighborOfIndexOutsideGridThrowsException() {
+        Grid sut = new Grid(2, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> sut.forEachNeighbor(-1, i -> {}));
+    }
+
+    @Test
+    void floodDoesNotAllocatePerStep() {
+        com.sun.management.ThreadMXBean bean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        Grid sut = new Grid(128, 128, 0);
+        Position origin = Position.ORIGIN;
+
+        // Warm up to size the flood stack
+        sut.revealCellAt(origin);
+        sut.initializeCells();
+
+        long before = bean.getThreadAllocatedBytes(thread);
+        sut.revealCellAt(origin);
+        long allocated = bean.getThreadAllocatedBytes(thread) - before;
+        assertTrue(sut.isCompleted());
+        assertTrue(allocated < 1024,
+                "Flood of 16384 cells allocated " + allocated + " bytes");
+    }
+
+    // Places a mine at position on grid and counts it around
+    private static void mineAt(Grid grid, Position position) {
+        Cell cell = grid.cellAt(position);
+        if (cell.isMined())
+            return;
+        cell.mine();
+        for (Position neighbor: position.neighbors()) {
+            if (neighbor.inBounds(grid.width(), grid.height()))
+                grid.cellAt(neighbor).incrementMinesAround();
+        }
+    }
+
+    // Reveals the cell at position with the original queue based flood
+    private static void referenceReveal(Grid grid, Position position) {
+        Cell src = grid.cellAt(position);
+        if (!src.reveal() || src.minesAround() != 0 || src.isMined())
+            return;
+        Deque<Cell> toExplore = new ArrayDeque<>();
+        toExplore.push(src);
+        while (!toExplore.isEmpty()) {
+            Cell cur = toExplore.pop();
+            cur.reveal();
+            if (cur.minesAround() != 0)
+                continue;
+            for (Position pos: cur.neighborsPositions()) {
+                if (!pos.inBounds(grid.width(), grid.height()))
+                    continue;
+                Cell neigh = grid.cellAt(pos);
+                if (neigh.isHidden() && !toExplore.contains(neigh)
+                        && !neigh.isMined())
+                    toExplore.add(neigh);
+            }
+        }
+    }
+
+    @Test
+    void floodRevealsSameCellsAsReferenceFlood() {
+        Random rand = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            int width = 1 + rand.nextInt(40);
+            int height = 1 + rand.nextInt(40);
+            Grid sut = new Grid(width, height);
+            Grid reference = new Grid(width, height);
+            int mines = rand.nextInt(width * height / 8 + 1);
+            for (int i = 0; i < mines; i++) {
+                Position pos = new Position(rand.nextInt(height),
+                        rand.nextInt(width));
+                mineAt(sut, pos);
+                mineAt(reference, pos);
+            }
+            for (int move = 0; move < 20; move++) {
+                Position pos = new Position(rand.nextInt(height),
+                        rand.nextInt(width));
+                if (rand.nextInt(3) == 0) {
+                    sut.flagCellAt(pos);
+                    reference.flagCellAt(pos);
+                } else {
+                    sut.revealCellAt(pos);
+                    referenceReveal(reference, pos);
+                }
+                for (int i = 0; i < height; i++) {
+                    for (int j = 0; j < width; j++) {
+                        Position cur = new Position(i, j);
+                        assertEquals(reference.cellAt(cur).visibility(),
+                                sut.cellAt(cur).visibility());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void placingMinesWithSameSeedGeneratesSameBoard() {
+        Grid first = new Grid(30, 16, 99);
+        Grid second = new Grid(30, 16, 99);
+        List<Position> excluded = Position.ORIGIN.neighbors();
+        first.placeMines(excluded, 1234L);
+        second.placeMines(excluded, 1234L);
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 30; j++) {
+                Position pos = new Position(i, j);
+                assertEquals(first.cellAt(pos).isMined(),
+                        second.cellAt(pos).isMined());
+            }
+        }
+        assertEquals(1234L, first.seed());
+    }
+
+    @Test
+    void placeMinesDoesNotMineExcludedPositions() {
+        Grid sut = new Grid(3, 3, 8);
+        List<Position> excluded = new ArrayList<>();
+        excluded.add(new Position(1, 1));
+        sut.placeMines(excluded, 5L);
+        assertFalse(sut.cellAt(new Position(1, 1)).isMined());
+        assertEquals(8, sut.minesPlaced());
+    }
+
+    @Test
+    void placeMinesMinesEveryNotExcludedPositionIfTooManyMines() {
+        Grid sut = new Grid(3, 3, 9);
+        List<Position> excluded = Position.ORIGIN.neighbors();
+        excluded.add(Position.ORIGIN);
+        sut.placeMines(excluded, 5L);
+        assertEquals(5, sut.minesPlaced());
+    }
+
+    @Test
+    void placeMinesAtMaximumDensityMinesEveryCell() {
+        Grid sut = new Grid(256, 256, 256 * 256);
+        sut.placeMines(new ArrayList<>(), 9L);
+        assertEquals(256 * 256, sut.minesPlaced());
+    }
+
+    @Test
+    void placeMinesFromBitSetMinesTheSetCells() {
+        Grid sut = new Grid(4, 3, 2);
+        BitSet mined = new BitSet();
+        mined.set(0);
+        mined.set(11);
+        sut.placeMines(mined);
+        assertTrue(sut.isMined());
+        assertEquals(2, sut.minesPlaced());
+        assertTrue(sut.cellAt(Position.ORIGIN).isMined());
+        assertTrue(sut.cellAt(new Position(2, 3)).isMined());
+        assertEquals(1, sut.cellAt(new Position(1, 1)).minesAround());
+        assertEquals(1, sut.cellAt(new Position(1, 2)).minesAround());
+    }
+
+    @Test
+    void placeMinesFromBitSetOutsideThrowsException() {
+        Grid sut = new Grid(4, 3, 2);
+        BitSet mined = new BitSet();
+        mined.set(12);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> sut.placeMines(mined));
+    }
+
+    @Test
+    void cellsByIndexMatchCellsByPosition() {
+        Grid sut = new Grid(7, 5, 9);
+        sut.placeMines(List.of(Position.ORIGIN), 4L);
+        sut.revealCellAt(Position.ORIGIN);
+        sut.flagCellAt(new Position(4, 6));
+        for (int i = 0; i < 35; i++) {
+            Cell cell = sut.cellAt(sut.positionOf(i));
+            assertEquals(cell.isMined(), sut.isMinedAt(i));
+            assertEquals(cell.minesAround(), sut.minesAroundAt(i));
+            assertEquals(cell.visibility(), sut.visibilityAt(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> sut.isMinedAt(35));
+        assertThrows(IllegalArgumentException.class,
+                () -> sut.minesAroundAt(-1));
+    }
+
+    @Test
+    void unpackedVisibilitiesRestoreThePackedOnes() {
+        Grid grid = new Grid(30, 16, 99);
+        grid.setConsistencyChecked(true);
+        grid.placeMines(List.of(new Position(8, 15)), 42L);
+        long[] hidden = grid.packVisibilities();
+        grid.revealCellAt(new Position(8, 15));
+        grid.flagCellAt(new Position(0, 0));
+        long[] played = grid.packVisibilities();
+        Visibility[] visibilities = new Visibility[30 * 16];
+        for (int i = 0; i < visibilities.length; i++)
+            visibilities[i] = grid.visibilityAt(i);
+        grid.unpackVisibilities(hidden);
+        for (int i = 0; i < visibilities.length; i++)
+            assertEquals(Visibility.HIDDEN, grid.visibilityAt(i));
+        assertEquals(0, grid.flaggedCells());
+        assertEquals(0, grid.revealedSafeCells());
+        grid.unpackVisibilities(played);
+        for (int i = 0; i < visibilities.length; i++)
+            assertEquals(visibilities[i], grid.visibilityAt(i));
+        assertEquals(1, grid.flaggedCells());
+        assertFalse(grid.hasMineRevealed());
+        assertThrows(IllegalArgumentException.class,
+                () -> grid.unpackVisibilities(new long[1]));
+    }
 }
@@ -0,0 +1,117 @@
+package minesweeper.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class InfiniteBoardTest {
+
+    @Test
+    void infiniteBoardWithDensityBelowMinimumThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new InfiniteBoard(0L, 0.01));
+    }
+
+    @Test
+    void infiniteBoardWithDensityAboveMaximumThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new InfiniteBoard(0L, 1.5));
+    }
+
+    @Test
+    void minesDependOnlyOnSeedAndPosition() {
+        InfiniteBoard first = new InfiniteBoard(42L, 0.2);
+        InfiniteBoard second = new InfiniteBoard(42L, 0.2);
+        second.revealCellAt(new Position(500, 500));
+        for (int i = 1000000; i < 1000050; i++) {
+            for (int j = 0; j < 50; j++) {
+                Position pos = new Position(i, j);
+                assertEquals(first.cellAt(pos).isMined(),
+                        second.cellAt(pos).isMined());
+            }
+        }
+    }
+
+    @Test
+    void densityOfMinesIsCloseToRequestedDensity() {
+        InfiniteBoard sut = new InfiniteBoard(7L, 0.2);
+        int mined = 0;
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < 200; j++) {
+                if (sut.cellAt(new Position(i, j)).isMined())
+                    mined++;
+            }
+        }
+        assertEquals(0.2, mined / 40000.0, 0.01);
+    }
+
+    @Test
+    void minesAroundAreComputedFromNeighbors() {
+        InfiniteBoard sut = new InfiniteBoard(3L, 0.3);
+        Position pos = new Position(70000, 123456);
+        int expected = 0;
+        for (Position neighbor: pos.neighbors()) {
+            if (sut.cellAt(neighbor).isMined())
+                expected++;
+        }
+        assertEquals(expected, sut.cellAt(pos).minesAround());
+    }
+
+    @Test
+    void excludedPositionsAreSafe() {
+        InfiniteBoard sut = new InfiniteBoard(5L, 1.0);
+        Position pos = new Position(10, 10);
+        List<Position> excluded = pos.neighbors();
+        excluded.add(pos);
+        sut.placeMines(excluded);
+        assertTrue(sut.isMined());
+        assertFalse(sut.cellAt(pos).isMined());
+        assertTrue(sut.cellAt(new Position(12, 12)).isMined());
+    }
+
+    @Test
+    void storedCellsGrowWithMovesRatherThanBoardSize() {
+        InfiniteBoard sut = new InfiniteBoard(9L, 1.0);
+        sut.placeMines(new ArrayList<>());
+        sut.flagCellAt(new Position(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        sut.flagCellAt(new Position(0, 0));
+        assertEquals(2, sut.storedCells());
+        assertEquals(-2L, sut.unflaggedMines());
+    }
+
+    @Test
+    void revealingMineMakesMineRevealed() {
+        InfiniteBoard sut = new InfiniteBoard(1L, 1.0);
+        assertTrue(sut.revealCellAt(new Position(4, 4)));
+        assertTrue(sut.hasMineRevealed());
+        assertFalse(sut.isCompleted());
+    }
+
+    @Test
+    void floodRevealsEveryHiddenSafeNeighborOfEmptyCells() {
+        InfiniteBoard sut = new InfiniteBoard(11L, 0.15);
+        Position start = null;
+        for (int j = 0; start == null; j++) {
+            Position pos = new Position(1000, j);
+            Cell cell = sut.cellAt(pos);
+            if (!cell.isMined() && cell.minesAround() == 0)
+                start = pos;
+        }
+        sut.revealCellAt(start);
+        assertFalse(sut.hasMineRevealed());
+        assertTrue(sut.revealedSafeCells() >= 9);
+        for (Position neighbor: start.neighbors())
+            assertTrue(sut.cellAt(neighbor).isRevealed());
+    }
+
+    @Test
+    void gameOnInfiniteBoardEndsOnMine() {
+        Game game = new Game(new InfiniteBoard(1L, 1.0));
+        game.revealCellAt(new Position(3, 3));
+        assertFalse(game.hasEnded());
+        game.revealCellAt(new Position(10, 10));
+        assertTrue(game.hasEnded());
+    }
+}
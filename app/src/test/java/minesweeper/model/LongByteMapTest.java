@@ -0,0 +1,39 @@
+package minesweeper.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongByteMapTest {
+
+    @Test
+    void keyNotMappedHasValue0() {
+        LongByteMap sut = new LongByteMap();
+        assertEquals(0, sut.get(42L));
+    }
+
+    @Test
+    void mappedKeyHasItsValue() {
+        LongByteMap sut = new LongByteMap();
+        sut.put(-7L, (byte) -3);
+        assertEquals(-3, sut.get(-7L));
+    }
+
+    @Test
+    void remappingKeyKeepsSize() {
+        LongByteMap sut = new LongByteMap();
+        sut.put(3L, (byte) 1);
+        sut.put(3L, (byte) 2);
+        assertEquals(1, sut.size());
+        assertEquals(2, sut.get(3L));
+    }
+
+    @Test
+    void manyKeysKeepTheirValuesWhenMapGrows() {
+        LongByteMap sut = new LongByteMap();
+        for (long key = 0; key < 10000; key++)
+            sut.put(key << 32, (byte) key);
+        for (long key = 0; key < 10000; key++)
+            assertEquals((byte) key, sut.get(key << 32));
+        assertEquals(10000, sut.size());
+    }
+}
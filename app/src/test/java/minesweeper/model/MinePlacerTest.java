@@ -0,0 +1,68 @@
+package minesweeper.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+class MinePlacerTest {
+
+    @Test
+    void negativeNumberOfIndicesThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> MinePlacer.randomIndices(-1, 4, new BitSet(),
+                        new SplittableRandom(0)));
+    }
+
+    @Test
+    void moreIndicesThanNotExcludedCellsThrowsException() {
+        BitSet excluded = new BitSet();
+        excluded.set(0, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> MinePlacer.randomIndices(3, 4, excluded,
+                        new SplittableRandom(0)));
+    }
+
+    @Test
+    void nullExcludedThrowsNPE() {
+        assertThrows(NullPointerException.class,
+                () -> MinePlacer.randomIndices(1, 4, null,
+                        new SplittableRandom(0)));
+    }
+
+    @Test
+    void randomIndicesAreDistinctAndNotExcluded() {
+        BitSet excluded = new BitSet();
+        excluded.set(10, 20);
+        int[] indices = MinePlacer.randomIndices(90, 100, excluded,
+                new SplittableRandom(3));
+        BitSet drawn = new BitSet();
+        for (int index: indices) {
+            assertFalse(excluded.get(index));
+            assertFalse(drawn.get(index));
+            drawn.set(index);
+        }
+        assertEquals(90, drawn.cardinality());
+    }
+
+    @Test
+    void sameSeedDrawsSameIndices() {
+        int[] first = MinePlacer.randomIndices(50, 400, new BitSet(),
+                new SplittableRandom(42));
+        int[] second = MinePlacer.randomIndices(50, 400, new BitSet(),
+                new SplittableRandom(42));
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void fullDensityOnLargeBoardDrawsEveryIndex() {
+        int cells = 256 * 256;
+        int[] indices = MinePlacer.randomIndices(cells, cells, new BitSet(),
+                new SplittableRandom(1));
+        BitSet drawn = new BitSet();
+        for (int index: indices)
+            drawn.set(index);
+        assertEquals(cells, drawn.cardinality());
+    }
+}
@@ -167,4 +167,32 @@ class PositionTest {
         Position sut = new Position(3, 12);
         assertFalse(sut.inBounds(5, 8));
     }
+
+    @Test
+    void morePositionsThanNotExcludedInRandomPositionsThrowsException() {
+        List<Position> excluded = Arrays.asList(Position.ORIGIN);
+        assertThrows(IllegalArgumentException.class,
+                () -> Position.randomPositions(4, 2, 2, excluded));
+    }
+
+    @Test
+    void randomPositionsDoNotContainExcludedPositions() {
+        List<Position> excluded = Arrays.asList(Position.ORIGIN,
+                new Position(1, 1));
+        List<Position> positions = Position.randomPositions(2, 2, 2,
+                excluded);
+        assertFalse(positions.contains(Position.ORIGIN));
+        assertFalse(positions.contains(new Position(1, 1)));
+    }
+
+    @Test
+    void unpackOfPackedPositionIsPosition() {
+        Position sut = new Position(Integer.MAX_VALUE, 12);
+        assertEquals(sut, Position.unpack(sut.pack()));
+    }
+
+    @Test
+    void packedPositionsAreDistinct() {
+        assertNotEquals(new Position(1, 0).pack(), new Position(0, 1).pack());
+    }
 }
@@ -0,0 +1,179 @@
+package minesweeper.replay;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.List;
+
+import minesweeper.model.Move;
+
+class MoveLogTest {
+
+    // The moves of the recorded game.
+    private static final List<Move> MOVES = List.of(Move.reveal(4, 4),
+            Move.flag(0, 0), Move.reveal(8, 8), Move.chord(4, 5),
+            Move.reveal(0, 8));
+
+    // Records a game of 9x9 with 10 mines and the given seed, whose moves
+    // are played every 100 ms from start
+    private static void recordGame(MoveRecorder recorder, long seed,
+            long start) throws IOException {
+        recorder.startGame(9, 9, 10, seed, start);
+        for (int i = 0; i < MOVES.size(); i++)
+            recorder.record(MOVES.get(i), start + (i + 1) * 100_000_000L);
+    }
+
+    // Asserts that game is the one recorded by recordGame
+    private static void assertRecorded(RecordedGame game, long seed,
+            long start) {
+        assertEquals(9, game.width());
+        assertEquals(9, game.height());
+        assertEquals(10, game.mines());
+        assertEquals(seed, game.seed());
+        assertEquals(start, game.startNanos());
+        assertEquals(MOVES.size(), game.moves().size());
+        for (int i = 0; i < MOVES.size(); i++) {
+            assertEquals(MOVES.get(i), game.moves().get(i).move());
+            assertEquals(start + (i + 1) * 100_000_000L,
+                    game.moves().get(i).nanos());
+        }
+    }
+
+    @Test
+    void recordedGamesAreReadBack() throws IOException {
+        Path path = Files.createTempFile("moves", ".log");
+        try {
+            try (MoveRecorder recorder = new MoveRecorder(path)) {
+                recordGame(recorder, 42L, -5_000_000_000L);
+                recordGame(recorder, -7L, 123_456_789L);
+            }
+            MoveLog log = MoveLog.read(path);
+            assertEquals(0L, log.skippedBytes());
+            assertEquals(2, log.games().size());
+            assertRecorded(log.games().get(0), 42L, -5_000_000_000L);
+            assertRecorded(log.games().get(1), -7L, 123_456_789L);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void movesTakeAFewBytes() throws IOException {
+        Path path = Files.createTempFile("moves", ".log");
+        try {
+            try (MoveRecorder recorder = new MoveRecorder(path)) {
+                recorder.startGame(30, 16, 99, 42L, 0L);
+                for (int i = 0; i < 1000; i++) {
+                    recorder.record(Move.reveal(i % 16, i % 30),
+                            i * 250_000_000L);
+                }
+            }
+            assertTrue(Files.size(path) < 1000 * 8);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void truncatedTailIsSkipped() throws IOException {
+        Path path = Files.createTempFile("moves", ".log");
+        try {
+            try (MoveRecorder recorder = new MoveRecorder(path)) {
+                recordGame(recorder, 42L, 0L);
+                recorder.flush();
+                recordGame(recorder, 43L, 0L);
+            }
+            long size = Files.size(path);
+            try (FileChannel channel = FileChannel.open(path,
+                        StandardOpenOption.WRITE)) {
+                channel.truncate(size - 3);
+            }
+            MoveLog log = MoveLog.read(path);
+            assertEquals(1, log.games().size());
+            assertRecorded(log.games().get(0), 42L, 0L);
+            assertTrue(log.skippedBytes() > 0);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void corruptedTailIsSkipped() throws IOException {
+        Path path = Files.createTempFile("moves", ".log");
+        try {
+            try (MoveRecorder recorder = new MoveRecorder(path)) {
+                recordGame(recorder, 42L, 0L);
+                recorder.flush();
+                recordGame(recorder, 43L, 0L);
+            }
+            byte[] bytes = Files.readAllBytes(path);
+            bytes[bytes.length - 1] ^= 0x01;
+            Files.write(path, bytes);
+            MoveLog log = MoveLog.read(path);
+            assertEquals(1, log.games().size());
+            assertTrue(log.skippedBytes() > 0);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void recordingAfterTruncatedTailAppendsToTheValidFrames()
+            throws IOException {
+        Path path = Files.createTempFile("moves", ".log");
+        try {
+            try (MoveRecorder recorder = new MoveRecorder(path)) {
+                recordGame(recorder, 42L, 0L);
+                recorder.flush();
+                recordGame(recorder, 43L, 0L);
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                        StandardOpenOption.WRITE)) {
+                channel.truncate(Files.size(path) - 3);
+            }
+            try (MoveRecorder recorder = new MoveRecorder(path)) {
+                recordGame(recorder, 44L, 0L);
+            }
+            MoveLog log = MoveLog.read(path);
+            assertEquals(0L, log.skippedBytes());
+            assertEquals(2, log.games().size());
+            assertRecorded(log.games().get(0), 42L, 0L);
+            assertRecorded(log.games().get(1), 44L, 0L);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void fileThatIsNotALogThrowsException() throws IOException {
+        Path path = Files.createTempFile("moves", ".log");
+        try {
+            Files.writeString(path, "not a move log");
+            assertThrows(IOException.class, () -> MoveLog.read(path));
+            assertThrows(IOException.class, () -> new MoveRecorder(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void moveOutsideOfGameThrowsException() throws IOException {
+        Path path = Files.createTempFile("moves", ".log");
+        try (MoveRecorder recorder = new MoveRecorder(path)) {
+            assertThrows(IllegalStateException.class,
+                    () -> recorder.record(Move.reveal(0, 0), 0L));
+            recorder.startGame(9, 9, 10, 42L, 0L);
+            assertThrows(IllegalArgumentException.class,
+                    () -> recorder.record(Move.reveal(9, 0), 0L));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package minesweeper.replay;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.imageio.ImageIO;
+
+import java.awt.image.BufferedImage;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.model.Position;
+
+class ReplayRendererTest {
+
+    // Returns a recorded game of 16x16 with 40 mines, whose safe cells are
+    // revealed and mines flagged in a random order
+    private static RecordedGame record(long seed, int length) {
+        Game game = new Game(16, 16, 40, seed);
+        List<RecordedMove> moves = new ArrayList<>();
+        Move first = Move.reveal(8, 8);
+        game.play(first);
+        moves.add(new RecordedMove(0L, first));
+        SplittableRandom random = new SplittableRandom(seed);
+        Grid grid = game.grid();
+        while (moves.size() < length && !game.hasEnded()) {
+            int index = random.nextInt(16 * 16);
+            Position position = grid.positionOf(index);
+            Move move = grid.isMinedAt(index)
+                ? new Move(Move.Type.FLAG, position)
+                : new Move(Move.Type.REVEAL, position);
+            game.play(move);
+            moves.add(new RecordedMove(moves.size() * 10_000_000L, move));
+        }
+        return new RecordedGame(16, 16, 40, seed, 0L, moves);
+    }
+
+    // Deletes directory and its files
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path: paths.sorted(Comparator.reverseOrder()).toList())
+                Files.deleteIfExists(path);
+        }
+    }
+
+    // Asserts that the frames of the two directories have the same pixels
+    private static void assertSameFrames(int frames, Path expected,
+            Path actual) throws IOException {
+        for (int i = 0; i < frames; i++) {
+            String name = String.format(ReplayRenderer.FRAME_NAME, i);
+            BufferedImage e = ImageIO.read(expected.resolve(name).toFile());
+            BufferedImage a = ImageIO.read(actual.resolve(name).toFile());
+            assertEquals(e.getWidth(), a.getWidth());
+            assertEquals(e.getHeight(), a.getHeight());
+            assertArrayEquals(
+                    e.getRGB(0, 0, e.getWidth(), e.getHeight(), null, 0,
+                        e.getWidth()),
+                    a.getRGB(0, 0, a.getWidth(), a.getHeight(), null, 0,
+                        a.getWidth()));
+        }
+    }
+
+    @Test
+    void aFrameIsWrittenEveryStepAndAtTheEnd() throws IOException {
+        RecordedGame recorded = record(3L, 150);
+        ReplayRenderer renderer = new ReplayRenderer(recorded, 8, 4, 2);
+        assertEquals(39, renderer.frames());
+        assertEquals(0, renderer.positionOf(0));
+        assertEquals(148, renderer.positionOf(37));
+        assertEquals(150, renderer.positionOf(38));
+        Path directory = Files.createTempDirectory("frames");
+        try {
+            RenderReport report = renderer.render(directory, 4);
+            assertEquals(39, report.frames());
+            assertTrue(report.workers() >= 1 && report.workers() <= 2);
+            assertTrue(report.bytes() > 0);
+            try (Stream<Path> frames = Files.list(directory)) {
+                assertEquals(39, frames.count());
+            }
+            BufferedImage last = ImageIO.read(directory.resolve(
+                        String.format(ReplayRenderer.FRAME_NAME, 38))
+                    .toFile());
+            assertEquals(16 * 8 + 1, last.getWidth());
+            assertEquals(16 * 8 + 1, last.getHeight());
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void framesDoNotDependOnTheParallelism() throws IOException {
+        RecordedGame recorded = record(5L, 300);
+        Path sequential = Files.createTempDirectory("frames");
+        Path parallel = Files.createTempDirectory("frames");
+        try {
+            ReplayRenderer renderer = new ReplayRenderer(recorded, 4, 1, 8);
+            renderer.render(sequential, 1);
+            RenderReport report = renderer.render(parallel, 4);
+            assertTrue(report.workers() > 1);
+            assertSameFrames(renderer.frames(), sequential, parallel);
+        } finally {
+            delete(sequential);
+            delete(parallel);
+        }
+    }
+
+    @Test
+    void illegalSettingsThrowException() {
+        RecordedGame recorded = record(3L, 10);
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplayRenderer(recorded, 3, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplayRenderer(recorded, 8, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplayRenderer(recorded, 8, 1, 0));
+        ReplayRenderer renderer = new ReplayRenderer(recorded, 8, 1, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.positionOf(renderer.frames()));
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render(Path.of("frames"), 0));
+    }
+}
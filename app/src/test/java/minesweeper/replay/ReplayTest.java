@@ -0,0 +1,145 @@
+package minesweeper.replay;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import minesweeper.model.ChangeObserver;
+import minesweeper.model.ChangeSet;
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.model.Position;
+
+class ReplayTest {
+
+    // Returns a recorded game of the given settings, whose safe cells are
+    // revealed and mines flagged in a random order, a move every 10 ms
+    private static RecordedGame record(int width, int height, int mines,
+            long seed, int length) {
+        Game game = new Game(width, height, mines, seed);
+        List<RecordedMove> moves = new ArrayList<>();
+        Move first = Move.reveal(height / 2, width / 2);
+        game.play(first);
+        moves.add(new RecordedMove(0L, first));
+        SplittableRandom random = new SplittableRandom(seed);
+        Grid grid = game.grid();
+        while (moves.size() < length && !game.hasEnded()) {
+            int index = random.nextInt(width * height);
+            Position position = grid.positionOf(index);
+            Move move = grid.isMinedAt(index)
+                ? new Move(Move.Type.FLAG, position)
+                : new Move(Move.Type.REVEAL, position);
+            game.play(move);
+            moves.add(new RecordedMove(moves.size() * 10_000_000L, move));
+        }
+        return new RecordedGame(width, height, mines, seed, 0L, moves);
+    }
+
+    // Returns the visibilities of the cells of game after its first moves
+    private static long[] playedFromStart(RecordedGame recorded,
+            int position) {
+        Game game = recorded.newGame();
+        for (RecordedMove move: recorded.moves().subList(0, position))
+            game.play(move.move());
+        return game.grid().packVisibilities();
+    }
+
+    @Test
+    void seekMatchesPlayingFromTheStart() {
+        RecordedGame recorded = record(64, 64, 400, 3L, 1000);
+        Replay replay = new Replay(recorded);
+        assertEquals(recorded.moves().size(), replay.length());
+        SplittableRandom random = new SplittableRandom(11L);
+        for (int i = 0; i < 40; i++) {
+            int position = random.nextInt(replay.length() + 1);
+            replay.seek(position);
+            assertEquals(position, replay.position());
+            assertArrayEquals(playedFromStart(recorded, position),
+                    replay.game().grid().packVisibilities());
+        }
+        replay.seek(0);
+        assertArrayEquals(playedFromStart(recorded, 0),
+                replay.game().grid().packVisibilities());
+    }
+
+    @Test
+    void forkSeeksLikeItsReplay() {
+        RecordedGame recorded = record(64, 64, 400, 7L, 500);
+        Replay replay = new Replay(recorded);
+        Replay fork = replay.fork();
+        assertNotSame(replay.game(), fork.game());
+        assertEquals(0, fork.position());
+        assertEquals(replay.keyframes(), fork.keyframes());
+        assertArrayEquals(playedFromStart(recorded, 0),
+                fork.game().grid().packVisibilities());
+        SplittableRandom random = new SplittableRandom(13L);
+        for (int i = 0; i < 20; i++) {
+            int position = random.nextInt(fork.length() + 1);
+            fork.seek(position);
+            assertArrayEquals(playedFromStart(recorded, position),
+                    fork.game().grid().packVisibilities());
+        }
+        assertEquals(0, replay.position());
+        Replay empty = new Replay(new RecordedGame(9, 9, 10, 1L, 0L,
+                    List.of()));
+        assertEquals(0, empty.fork().length());
+    }
+
+    @Test
+    void seekNotifiesTheObserversOnce() {
+        Replay replay = new Replay(record(64, 64, 800, 5L, 200));
+        List<ChangeSet> notified = new ArrayList<>();
+        replay.game().add((ChangeObserver) (game, changes) ->
+                notified.add(changes));
+        replay.seek(1);
+        assertEquals(1, notified.size());
+        assertFalse(notified.get(0).full());
+        assertTrue(notified.get(0).started());
+        replay.seek(0);
+        assertEquals(2, notified.size());
+        assertTrue(notified.get(1).full());
+    }
+
+    @Test
+    void keyframesBoundTheMovesPlayedBySeek() {
+        Replay replay = new Replay(record(64, 64, 400, 3L, 1000));
+        assertTrue(replay.keyframes()
+                >= replay.length() / Replay.KEYFRAME_MOVES);
+        assertTrue(replay.keyframes() <= replay.length() + 1);
+        assertEquals(0, replay.keyframePosition(0));
+        for (int k = 1; k < replay.keyframes(); k++) {
+            int moves = replay.keyframePosition(k)
+                - replay.keyframePosition(k - 1);
+            assertTrue(moves > 0 && moves <= Replay.KEYFRAME_MOVES);
+        }
+        assertTrue(replay.length() - replay.keyframePosition(
+                    replay.keyframes() - 1) < Replay.KEYFRAME_MOVES);
+    }
+
+    @Test
+    void positionAtCountsTheMovesPlayed() {
+        Replay replay = new Replay(record(16, 16, 40, 5L, 200));
+        assertEquals(0L, replay.elapsedNanos(0));
+        assertEquals(0L, replay.elapsedNanos(1));
+        assertEquals(10_000_000L, replay.elapsedNanos(2));
+        assertEquals(0, replay.positionAt(-1L));
+        assertEquals(1, replay.positionAt(0L));
+        assertEquals(1, replay.positionAt(9_999_999L));
+        assertEquals(2, replay.positionAt(10_000_000L));
+        assertEquals(replay.length(), replay.positionAt(Long.MAX_VALUE));
+    }
+
+    @Test
+    void illegalPositionThrowsException() {
+        Replay replay = new Replay(record(16, 16, 40, 5L, 200));
+        assertThrows(IllegalArgumentException.class, () -> replay.seek(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> replay.seek(replay.length() + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> replay.elapsedNanos(replay.length() + 1));
+    }
+}
@@ -0,0 +1,90 @@
+package minesweeper.simulation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+class BlockRunnerTest {
+
+    // The runner under test.
+    private static final BlockRunner RUNNER = new BlockRunner("Test",
+            "items");
+
+    // A worker that counts its items and sums their random numbers.
+    private static final class SumWorker implements BlockRunner.Worker {
+
+        // The number of items processed by all workers.
+        private final LongAdder items;
+
+        // The sum of the random numbers of all workers.
+        private final AtomicLong sum;
+
+        // The number of items processed by this worker.
+        private long count;
+
+        // The sum of the random numbers of this worker.
+        private long local;
+
+        // Creates a worker that merges into items and sum
+        private SumWorker(LongAdder items, AtomicLong sum) {
+            this.items = items;
+            this.sum = sum;
+        }
+
+        @Override
+        public void process(SplittableRandom random) {
+            this.count++;
+            this.local += random.nextInt(1000);
+        }
+
+        @Override
+        public void merge() {
+            this.items.add(this.count);
+            this.sum.addAndGet(this.local);
+        }
+    }
+
+    // Returns the sum of the random numbers of count items
+    private static long sum(long count, long seed, int parallelism) {
+        LongAdder items = new LongAdder();
+        AtomicLong sum = new AtomicLong();
+        RUNNER.run(count, seed, parallelism,
+                () -> new SumWorker(items, sum));
+        assertEquals(count, items.sum());
+        return sum.get();
+    }
+
+    @Test
+    void sumsDoNotDependOnTheParallelism() {
+        long count = 5 * BlockRunner.BLOCK_SIZE + 17;
+        assertEquals(sum(count, 42L, 1), sum(count, 42L, 4));
+        assertNotEquals(sum(count, 42L, 2), sum(count, 43L, 2));
+        assertEquals(0L, sum(0, 42L, 3));
+    }
+
+    @Test
+    void illegalArgumentsThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RUNNER.run(-1, 1L, 1, () -> null));
+        assertThrows(IllegalArgumentException.class,
+                () -> RUNNER.run(10, 1L, 0, () -> null));
+    }
+
+    @Test
+    void failingWorkerThrowsException() {
+        assertThrows(IllegalStateException.class,
+                () -> RUNNER.run(10, 1L, 2, () -> new BlockRunner.Worker() {
+                        @Override
+                        public void process(SplittableRandom random) {
+                            throw new ArithmeticException();
+                        }
+
+                        @Override
+                        public void merge() {
+                        }
+                    }));
+    }
+}
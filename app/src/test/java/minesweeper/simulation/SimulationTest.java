@@ -0,0 +1,63 @@
+package minesweeper.simulation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+
+    @Test
+    void simulationWithIllegalDimensionsThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Simulation(0, 9, 0));
+    }
+
+    @Test
+    void simulationWithTooManyMinesThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Simulation(3, 3, 10));
+    }
+
+    @Test
+    void runWithIllegalParallelismThrowsException() {
+        Simulation simulation = new Simulation(9, 9, 10);
+        assertThrows(IllegalArgumentException.class,
+                () -> simulation.run(10, 1L, 0));
+    }
+
+    @Test
+    void reportCountsEveryGame() {
+        SimulationReport report = new Simulation(9, 9, 10).run(3000, 1L, 2);
+        assertEquals(3000, report.games());
+        long total = 0;
+        for (long count: report.firstClick())
+            total += count;
+        assertEquals(3000, total);
+        assertEquals(0, report.firstClick()[0]);
+        assertTrue(report.moves() >= report.games());
+    }
+
+    @Test
+    void runIsReproducibleWhateverTheParallelism() {
+        Simulation simulation = new Simulation(16, 16, 40);
+        SimulationReport r1 = simulation.run(5000, 42L, 1);
+        SimulationReport r2 = simulation.run(5000, 42L, 4);
+        assertTrue(r1.sameStatistics(r2));
+    }
+
+    @Test
+    void runsWithDistinctSeedsDiffer() {
+        Simulation simulation = new Simulation(16, 16, 40);
+        SimulationReport r1 = simulation.run(2000, 1L, 2);
+        SimulationReport r2 = simulation.run(2000, 2L, 2);
+        assertFalse(r1.sameStatistics(r2));
+    }
+
+    @Test
+    void gamesWithoutMinesAreAllWonByTheFirstClick() {
+        SimulationReport report = new Simulation(8, 8, 0).run(100, 3L, 2);
+        assertEquals(100, report.wins());
+        assertEquals(100, report.firstClick()[64]);
+        assertEquals(1.0, report.winRate());
+        assertEquals(64, report.firstClickQuantile(0.5));
+    }
+}
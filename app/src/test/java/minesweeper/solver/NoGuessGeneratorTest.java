@@ -0,0 +1,91 @@
+package minesweeper.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import minesweeper.model.Game;
+import minesweeper.model.GameState;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.model.MoveResult;
+import minesweeper.model.Position;
+import minesweeper.model.RevealOnlyGrid;
+
+class NoGuessGeneratorTest {
+
+    // The timeout of the generations that must succeed.
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    // Returns true if a Solver wins the game of seed from firstClick
+    private static boolean solvable(int width, int height, int mines,
+            long seed, Position firstClick) {
+        Game game = new Game(width, height, mines, seed);
+        game.play(new Move(Move.Type.REVEAL, firstClick));
+        Grid grid = game.grid();
+        Solver solver = new Solver(new RevealOnlyGrid(grid));
+        int safe;
+        while ((safe = solver.nextSafe()) >= 0) {
+            MoveResult result = game.play(
+                    new Move(Move.Type.REVEAL, grid.positionOf(safe)));
+            solver.update(result.changedCells());
+        }
+        return game.state() == GameState.WON;
+    }
+
+    @Test
+    void generatorWithIllegalParallelismThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new NoGuessGenerator(9, 9, 10, 0));
+    }
+
+    @Test
+    void generateWithFirstClickOutsideThrowsException() {
+        NoGuessGenerator generator = new NoGuessGenerator(9, 9, 10, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.generate(new Position(9, 0), 1L, TIMEOUT));
+    }
+
+    @Test
+    void generatedGridIsSolvableWithoutGuess() {
+        NoGuessGenerator generator = new NoGuessGenerator(16, 16, 40, 2);
+        Position firstClick = new Position(8, 8);
+        for (long seed = 0; seed < 5; seed++) {
+            GenerationResult result = generator.generate(firstClick, seed,
+                    TIMEOUT);
+            assertTrue(result.noGuess());
+            assertTrue(result.attempts() >= 1);
+            assertTrue(result.tested() >= result.attempts());
+            assertEquals(40, result.grid().minesPlaced());
+            assertFalse(result.grid().cellAt(firstClick).isMined());
+            assertTrue(solvable(16, 16, 40, result.seed(), firstClick));
+        }
+        assertEquals(5, generator.boards());
+        assertEquals(0, generator.fallbacks());
+        assertTrue(generator.averageAttempts() >= 1.0);
+    }
+
+    @Test
+    void generatedGridOnlyDependsOnTheSeed() {
+        Position firstClick = new Position(4, 15);
+        GenerationResult r1 = new NoGuessGenerator(30, 16, 99, 1)
+            .generate(firstClick, 42L, TIMEOUT);
+        GenerationResult r2 = new NoGuessGenerator(30, 16, 99, 4)
+            .generate(firstClick, 42L, TIMEOUT);
+        assertTrue(r1.noGuess());
+        assertEquals(r1.seed(), r2.seed());
+        assertEquals(r1.attempts(), r2.attempts());
+    }
+
+    @Test
+    void expiredTimeoutFallsBack() {
+        NoGuessGenerator generator = new NoGuessGenerator(30, 16, 99, 2);
+        GenerationResult result = generator.generate(new Position(0, 0), 7L,
+                Duration.ZERO);
+        assertFalse(result.noGuess());
+        assertEquals(1, result.attempts());
+        assertEquals(99, result.grid().minesPlaced());
+        assertEquals(1, generator.fallbacks());
+    }
+}
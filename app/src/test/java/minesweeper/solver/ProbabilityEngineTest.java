@@ -0,0 +1,165 @@
+package minesweeper.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import minesweeper.model.Cell;
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.model.Position;
+import minesweeper.model.RevealOnlyGrid;
+import minesweeper.model.Visibility;
+
+class ProbabilityEngineTest {
+
+    // Computes the probabilities of grid by enumerating every placement of
+    // its mines on its hidden cells that agrees with its revealed cells
+    private static double[] bruteForce(Grid grid) {
+        int width = grid.width();
+        int n = width * grid.height();
+        List<Integer> hidden = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (grid.cellAt(grid.positionOf(i)).visibility()
+                    != Visibility.REVEALED)
+                hidden.add(i);
+        }
+        double[] mined = new double[n];
+        double[] total = new double[1];
+        enumerate(grid, hidden, 0, grid.mines(), new boolean[n], mined,
+                total);
+        for (int i = 0; i < n; i++)
+            mined[i] /= total[0];
+        return mined;
+    }
+
+    // Places the mines left on the hidden cells from the k-th one
+    private static void enumerate(Grid grid, List<Integer> hidden, int k,
+            int left, boolean[] mines, double[] mined, double[] total) {
+        if (left == 0) {
+            if (agrees(grid, mines)) {
+                total[0]++;
+                for (int i = 0; i < mines.length; i++) {
+                    if (mines[i])
+                        mined[i]++;
+                }
+            }
+            return;
+        }
+        if (hidden.size() - k < left)
+            return;
+        int cell = hidden.get(k);
+        mines[cell] = true;
+        enumerate(grid, hidden, k + 1, left - 1, mines, mined, total);
+        mines[cell] = false;
+        enumerate(grid, hidden, k + 1, left, mines, mined, total);
+    }
+
+    // Returns true if the revealed cells of grid agree with mines
+    private static boolean agrees(Grid grid, boolean[] mines) {
+        for (int i = 0; i < mines.length; i++) {
+            Cell cell = grid.cellAt(grid.positionOf(i));
+            if (cell.visibility() != Visibility.REVEALED)
+                continue;
+            int around = 0;
+            for (Position neighbor: cell.position().neighbors()) {
+                if (grid.contains(neighbor) && mines[grid.indexOf(neighbor)])
+                    around++;
+            }
+            if (around != cell.minesAround())
+                return false;
+        }
+        return true;
+    }
+
+    @Test
+    void probabilitiesOfHiddenGridAreTheDensity() {
+        Grid grid = new Grid(5, 4, 5);
+        Probabilities probabilities = new ProbabilityEngine(
+                new RevealOnlyGrid(grid)).compute();
+        assertTrue(probabilities.complete());
+        for (int i = 0; i < 20; i++)
+            assertEquals(0.25, probabilities.at(i), 1e-12);
+    }
+
+    @Test
+    void probabilitiesAreExact() {
+        for (long seed = 0; seed < 40; seed++) {
+            Game game = new Game(6, 5, 7, seed);
+            game.play(Move.reveal((int) (seed % 5), (int) (seed % 6)));
+            Grid grid = game.grid();
+            Probabilities probabilities = new ProbabilityEngine(
+                    new RevealOnlyGrid(grid)).compute();
+            double[] expected = bruteForce(grid);
+            assertTrue(probabilities.complete());
+            for (int i = 0; i < expected.length; i++)
+                assertEquals(expected[i], probabilities.at(i), 1e-9);
+        }
+    }
+
+    @Test
+    void flagsAreAssumedMined() {
+        Game game = new Game(6, 5, 7, 3L);
+        game.play(Move.reveal(2, 3));
+        Grid grid = game.grid();
+        int flagged = -1;
+        for (int i = 0; i < 30 && flagged < 0; i++) {
+            Cell cell = grid.cellAt(grid.positionOf(i));
+            if (cell.isMined())
+                flagged = i;
+        }
+        grid.flagCellAt(grid.positionOf(flagged));
+        Probabilities probabilities = new ProbabilityEngine(
+                new RevealOnlyGrid(grid)).compute();
+        assertEquals(1.0, probabilities.at(flagged));
+        double sum = 0.0;
+        for (int i = 0; i < 30; i++)
+            sum += probabilities.at(i);
+        assertEquals(7.0, sum, 1e-9);
+    }
+
+    @Test
+    void untouchedComponentsAreReused() {
+        Game game = new Game(30, 16, 60, 5L);
+        game.play(Move.reveal(8, 15));
+        Grid grid = game.grid();
+        ProbabilityEngine engine = new ProbabilityEngine(
+                new RevealOnlyGrid(grid));
+        Probabilities first = engine.compute();
+        Probabilities second = engine.compute();
+        assertEquals(0, first.reusedComponents());
+        assertEquals(first.components(), second.reusedComponents());
+        assertArrayEquals(first.values(), second.values());
+    }
+
+    @Test
+    void probabilitiesOfLargeGridAreComputedAsynchronously()
+            throws Exception {
+        Game game = new Game(256, 256, 8000, 9L);
+        game.play(Move.reveal(128, 128));
+        Grid grid = game.grid();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Probabilities probabilities = new ProbabilityEngine(
+                    new RevealOnlyGrid(grid)).computeAsync(executor).get();
+            assertTrue(probabilities.complete());
+            double sum = 0.0;
+            for (double value: probabilities.values())
+                sum += value;
+            assertEquals(8000, sum, 1e-6);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void engineWithNullGridThrowsException() {
+        assertThrows(NullPointerException.class,
+                () -> new ProbabilityEngine(null));
+    }
+}
@@ -0,0 +1,119 @@
+package minesweeper.solver;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.model.MoveResult;
+import minesweeper.model.Position;
+import minesweeper.model.RevealOnlyGrid;
+
+class SolverTest {
+
+    // Returns a grid whose only mines are at the given positions
+    private static Grid gridWithMines(int width, int height,
+            Position... mined) {
+        List<Position> excluded = new ArrayList<>();
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++)
+                excluded.add(new Position(i, j));
+        }
+        excluded.removeAll(List.of(mined));
+        Grid grid = new Grid(width, height, mined.length);
+        grid.placeMines(excluded, 0L);
+        return grid;
+    }
+
+    @Test
+    void solverOfHiddenGridDeducesNothing() {
+        Grid grid = new Grid(9, 9, 10);
+        Solver solver = new Solver(new RevealOnlyGrid(grid));
+        assertEquals(-1, solver.nextSafe());
+        assertEquals(0, solver.mines());
+    }
+
+    @Test
+    void singlePointRuleFindsMine() {
+        Grid grid = gridWithMines(2, 1, new Position(0, 1));
+        grid.revealCellAt(Position.ORIGIN);
+        Solver solver = new Solver(new RevealOnlyGrid(grid));
+        assertTrue(solver.isMine(1));
+        assertEquals(-1, solver.nextSafe());
+    }
+
+    @Test
+    void subsetRuleSolvesOneTwoOnePattern() {
+        Grid grid = gridWithMines(5, 2, new Position(0, 1),
+                new Position(0, 3));
+        Solver solver = new Solver(new RevealOnlyGrid(grid));
+        for (int j = 0; j < 5; j++) {
+            grid.revealCellAt(new Position(1, j));
+            solver.update(new int[] {5 + j});
+        }
+        assertTrue(solver.isSafe(0));
+        assertTrue(solver.isMine(1));
+        assertTrue(solver.isSafe(2));
+        assertTrue(solver.isMine(3));
+        assertTrue(solver.isSafe(4));
+        assertEquals(2, solver.mines());
+    }
+
+    @Test
+    void deductionsAreSound() {
+        for (long seed = 0; seed < 30; seed++) {
+            Game game = new Game(30, 16, 99, seed);
+            MoveResult result = game.play(Move.reveal(8, 15));
+            Grid grid = game.grid();
+            Solver solver = new Solver(new RevealOnlyGrid(grid));
+            int safe;
+            while ((safe = solver.nextSafe()) >= 0) {
+                assertFalse(grid.cellAt(grid.positionOf(safe)).isMined());
+                result = game.play(new Move(Move.Type.REVEAL,
+                        grid.positionOf(safe)));
+                solver.update(result.changedCells());
+            }
+            assertFalse(grid.hasMineRevealed());
+            for (int i = 0; i < 30 * 16; i++) {
+                if (solver.isMine(i))
+                    assertTrue(grid.cellAt(grid.positionOf(i)).isMined());
+            }
+        }
+    }
+
+    @Test
+    void solverWinsGameWithoutGuess() {
+        Game game = new Game(8, 8, 0, 1L);
+        Solver solver = new Solver(new RevealOnlyGrid(game.grid()));
+        MoveResult result = game.play(Move.reveal(0, 0));
+        solver.update(result.changedCells());
+        assertEquals(-1, solver.nextSafe());
+        assertTrue(game.grid().isCompleted());
+    }
+
+    @Test
+    void updateOnlyExaminesTouchedConstraints() {
+        Game game = new Game(256, 256, 6000, 3L);
+        game.play(Move.reveal(128, 128));
+        Grid grid = game.grid();
+        Solver solver = new Solver(new RevealOnlyGrid(grid));
+        int safe = solver.nextSafe();
+        assertTrue(safe >= 0);
+        long before = solver.examined();
+        MoveResult result = game.play(new Move(Move.Type.REVEAL,
+                grid.positionOf(safe)));
+        if (result.changedCells().length == 1) {
+            solver.update(result.changedCells());
+            assertTrue(solver.examined() - before < 100);
+        }
+    }
+
+    @Test
+    void solverWithNullGridThrowsException() {
+        assertThrows(NullPointerException.class, () -> new Solver(null));
+    }
+}
@@ -0,0 +1,72 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.analysis.BoardAnalyzer;
+import minesweeper.analysis.BoardMetrics;
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Position;
+
+/**
+ * Benchmarks the BoardAnalyzer on square grids mined out of their center:
+ * each invocation computes the 3BV, the openings and the isolated regions of
+ * the grid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BoardAnalyzerBenchmark {
+
+    // The seed of the placement of mines.
+    private static final long SEED = 13L;
+
+    /**
+     * The side length of the grid.
+     */
+    @Param({"9", "16", "64", "256"})
+    public int size;
+
+    /**
+     * The density of mines of the grid.
+     */
+    @Param({"0.12", "0.20"})
+    public double density;
+
+    // The grid to analyze.
+    private Grid grid;
+
+    // The analyzer, reused by the invocations.
+    private BoardAnalyzer analyzer;
+
+    /**
+     * Creates the grid and places its mines.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        int mines = (int) (this.size * this.size * this.density);
+        this.grid = new Grid(this.size, this.size, mines);
+        this.grid.placeMines(Game.safeZone(
+                new Position(this.size / 2, this.size / 2)), SEED);
+        this.analyzer = new BoardAnalyzer();
+    }
+
+    /**
+     * Computes the metrics of the grid.
+     * @return the metrics of the grid
+     */
+    @Benchmark
+    public BoardMetrics analyze() {
+        return this.analyzer.analyze(this.grid);
+    }
+}
@@ -0,0 +1,110 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.Cell;
+import minesweeper.model.Grid;
+import minesweeper.model.Position;
+
+/**
+ * Benchmarks the construction of a Grid, the access to its cells and the
+ * queries of its state, on square grids of an expert density of mines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GridBenchmark {
+
+    // The density of mines of an expert game, 99 mines on 30x16.
+    private static final double DENSITY = 0.206;
+
+    // The seed of the placement of mines.
+    private static final long SEED = 42L;
+
+    // The number of positions looked up in turn by cellAt, a power of 2.
+    private static final int POSITIONS = 1024;
+
+    /**
+     * The side length of the grid.
+     */
+    @Param({"9", "16", "30", "64", "128", "256"})
+    public int size;
+
+    // The number of mines of the grid.
+    private int mines;
+
+    // The mined grid.
+    private Grid grid;
+
+    // The positions looked up by cellAt.
+    private Position[] positions;
+
+    // The index of the next position looked up.
+    private int next;
+
+    /**
+     * Places the mines of the grid and draws the positions to look up.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.mines = (int) (this.size * this.size * DENSITY);
+        this.grid = new Grid(this.size, this.size, this.mines);
+        this.grid.placeMines(new ArrayList<>(), SEED);
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.positions = new Position[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            this.positions[i] = new Position(random.nextInt(this.size),
+                    random.nextInt(this.size));
+        }
+        this.next = 0;
+    }
+
+    /**
+     * Constructs a grid.
+     * @return the new grid
+     */
+    @Benchmark
+    public Grid construction() {
+        return new Grid(this.size, this.size, this.mines);
+    }
+
+    /**
+     * Looks up a cell.
+     * @return the cell
+     */
+    @Benchmark
+    public Cell cellAt() {
+        Position position = this.positions[this.next++ & (POSITIONS - 1)];
+        return this.grid.cellAt(position);
+    }
+
+    /**
+     * Checks if the grid is completed.
+     * @return true if the grid is completed
+     */
+    @Benchmark
+    public boolean isCompleted() {
+        return this.grid.isCompleted();
+    }
+
+    /**
+     * Checks if a mine of the grid is revealed.
+     * @return true if a mine is revealed
+     */
+    @Benchmark
+    public boolean hasMineRevealed() {
+        return this.grid.hasMineRevealed();
+    }
+}
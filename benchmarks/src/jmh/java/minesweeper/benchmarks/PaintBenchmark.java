@@ -0,0 +1,92 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.Game;
+import minesweeper.model.GameSnapshot;
+import minesweeper.model.Move;
+import minesweeper.view.GridView;
+
+/**
+ * Benchmarks the repaint of a GridView of a 256x256 grid into an offscreen
+ * image: each invocation paints the view with its clip bounds set to a
+ * square block of changed cells, as after cellsChanged(), from a single
+ * cell to the whole grid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PaintBenchmark {
+
+    // The side length of the grid.
+    private static final int SIZE = 256;
+
+    // The side length of a cell, in pixels.
+    private static final int CELL = 4;
+
+    /**
+     * The side length of the square block of changed cells.
+     */
+    @Param({"1", "8", "64", "256"})
+    public int changed;
+
+    // The view to paint.
+    private GridView view;
+
+    // The image painted into.
+    private BufferedImage image;
+
+    // The graphics of image, clipped to the changed cells.
+    private Graphics2D graphics;
+
+    /**
+     * Creates a game, clicks the center of its grid and paints its view once.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Game game = new Game(SIZE, SIZE, SIZE * SIZE / 8, 17L);
+        game.play(Move.reveal(SIZE / 2, SIZE / 2));
+        this.view = new GridView();
+        this.view.setModel(GameSnapshot.of(game));
+        this.view.setSideLength(CELL);
+        this.image = new BufferedImage(SIZE * CELL + 1, SIZE * CELL + 1,
+                BufferedImage.TYPE_INT_RGB);
+        this.graphics = this.image.createGraphics();
+        this.view.paintComponent(this.graphics);
+        int origin = (SIZE - this.changed) / 2 * CELL;
+        this.graphics.setClip(origin, origin, this.changed * CELL + 1,
+                this.changed * CELL + 1);
+    }
+
+    /**
+     * Releases the graphics of the image.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.graphics.dispose();
+    }
+
+    /**
+     * Paints the changed cells.
+     * @return the image painted into
+     */
+    @Benchmark
+    public BufferedImage paint() {
+        this.view.paintComponent(this.graphics);
+        return this.image;
+    }
+}
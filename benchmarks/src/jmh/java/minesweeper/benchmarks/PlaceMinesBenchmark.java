@@ -0,0 +1,74 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.Grid;
+import minesweeper.model.Position;
+
+/**
+ * Benchmarks the placement of mines on square grids, sweeping the density of
+ * mines up to a fully mined grid. The first click safe zone at the center of
+ * the grid is excluded, as in a game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PlaceMinesBenchmark {
+
+    /**
+     * The side length of the grid.
+     */
+    @Param({"9", "16", "30", "64", "128", "256"})
+    public int size;
+
+    /**
+     * The density of mines of the grid.
+     */
+    @Param({"0.01", "0.1", "0.206", "0.5", "0.99"})
+    public double density;
+
+    // The grid to mine.
+    private Grid grid;
+
+    // The first click safe zone.
+    private List<Position> excluded;
+
+    // The seed of the next placement.
+    private long seed;
+
+    /**
+     * Creates the grid and its safe zone.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        int mines = (int) (this.size * this.size * this.density);
+        this.grid = new Grid(this.size, this.size, mines);
+        Position center = new Position(this.size / 2, this.size / 2);
+        this.excluded = center.neighbors();
+        this.excluded.add(center);
+        this.seed = 0L;
+    }
+
+    /**
+     * Clears the grid and places its mines from a new seed. The clearing is
+     * a fill of the cells of the grid.
+     * @return the mined grid
+     */
+    @Benchmark
+    public Grid placeMines() {
+        this.grid.initializeCells();
+        this.grid.placeMines(this.excluded, this.seed++);
+        return this.grid;
+    }
+}
@@ -0,0 +1,66 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.Position;
+
+/**
+ * Benchmarks the generation of random positions inside square matrices,
+ * sweeping the proportion of positions generated.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PositionBenchmark {
+
+    /**
+     * The side length of the matrix.
+     */
+    @Param({"9", "16", "30", "64", "128", "256"})
+    public int size;
+
+    /**
+     * The proportion of the positions of the matrix to generate.
+     */
+    @Param({"0.01", "0.206", "0.99"})
+    public double density;
+
+    // The number of positions to generate.
+    private int n;
+
+    // The first click safe zone.
+    private List<Position> excluded;
+
+    /**
+     * Computes the number of positions and the excluded ones.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Position center = new Position(this.size / 2, this.size / 2);
+        this.excluded = center.neighbors();
+        this.excluded.add(center);
+        this.n = Math.min((int) (this.size * this.size * this.density),
+                this.size * this.size - this.excluded.size());
+    }
+
+    /**
+     * Generates the random positions.
+     * @return the positions
+     */
+    @Benchmark
+    public List<Position> randomPositions() {
+        return Position.randomPositions(this.n, this.size, this.size,
+                this.excluded);
+    }
+}
@@ -0,0 +1,131 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.model.MoveResult;
+import minesweeper.model.Visibility;
+import minesweeper.replay.MoveRecorder;
+
+/**
+ * Benchmarks the cost of recording a move: each invocation plays one move
+ * on a long-lived game of 256x256 with 10,000 mines, which toggles the flag
+ * of a hidden cell in a random order so that the game never ends, and
+ * records it with its time by a MoveRecorder or not. A flag is one of the
+ * cheapest moves, so the difference of the two scores is an upper bound of
+ * the share of the recording in the cost of a move, including the writes
+ * of the full buffers of the recorder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecorderBenchmark {
+
+    // The side length of the grid.
+    private static final int SIDE = 256;
+
+    // The number of mines of the grid.
+    private static final int MINES = 10_000;
+
+    /**
+     * Indicates if the moves are recorded.
+     */
+    @Param({"false", "true"})
+    public boolean recorded;
+
+    // The log the moves are recorded in.
+    private Path log;
+
+    // Records the moves, or null.
+    private MoveRecorder recorder;
+
+    // The game the moves are played on.
+    private Game game;
+
+    // The moves to play, in a loop.
+    private Move[] moves;
+
+    // The index of the next move to play.
+    private int next;
+
+    /**
+     * Opens the log, starts the game by revealing the center of its grid and
+     * draws the order of the flags of its hidden cells.
+     * @throws IOException if the log can not be opened
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.log = Files.createTempFile("moves", ".log");
+        this.game = new Game(SIDE, SIDE, MINES, 42L);
+        Move first = Move.reveal(SIDE / 2, SIDE / 2);
+        this.game.play(first);
+        if (this.recorded) {
+            this.recorder = new MoveRecorder(this.log);
+            this.recorder.startGame(SIDE, SIDE, MINES, 42L,
+                    System.nanoTime());
+            this.recorder.record(first, System.nanoTime());
+        }
+        Grid grid = this.game.grid();
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < SIDE * SIDE; i++) {
+            if (grid.visibilityAt(i) == Visibility.HIDDEN)
+                moves.add(new Move(Move.Type.FLAG, grid.positionOf(i)));
+        }
+        this.moves = moves.toArray(new Move[0]);
+        SplittableRandom random = new SplittableRandom(5L);
+        for (int i = this.moves.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Move move = this.moves[i];
+            this.moves[i] = this.moves[j];
+            this.moves[j] = move;
+        }
+    }
+
+    /**
+     * Closes and deletes the log.
+     * @throws IOException if the log can not be written or deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (this.recorder != null)
+            this.recorder.close();
+        Files.deleteIfExists(this.log);
+    }
+
+    /**
+     * Plays a move, and records it if the moves are recorded.
+     * @return the result of the move
+     * @throws IOException if the log can not be written
+     */
+    @Benchmark
+    public MoveResult play() throws IOException {
+        Move move = this.moves[this.next];
+        this.next = this.next + 1 == this.moves.length ? 0 : this.next + 1;
+        long nanos = System.nanoTime();
+        MoveResult result = this.game.play(move);
+        if (this.recorder != null)
+            this.recorder.record(move, nanos);
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.Grid;
+import minesweeper.model.Position;
+
+/**
+ * Benchmarks the first reveal of a game on square sparse grids, which floods
+ * a large region. The grid is cleared and mined again before each reveal, out
+ * of the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RevealBenchmark {
+
+    // The seed of the placement of mines.
+    private static final long SEED = 7L;
+
+    /**
+     * The side length of the grid.
+     */
+    @Param({"9", "16", "30", "64", "128", "256"})
+    public int size;
+
+    /**
+     * The density of mines of the grid, low enough to open large regions.
+     */
+    @Param({"0.0", "0.05"})
+    public double density;
+
+    // The grid to reveal.
+    private Grid grid;
+
+    // The position of the first click.
+    private Position center;
+
+    // The first click safe zone.
+    private List<Position> excluded;
+
+    /**
+     * Creates the grid and its safe zone.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        int mines = (int) (this.size * this.size * this.density);
+        this.grid = new Grid(this.size, this.size, mines);
+        this.center = new Position(this.size / 2, this.size / 2);
+        this.excluded = this.center.neighbors();
+        this.excluded.add(this.center);
+    }
+
+    /**
+     * Clears and mines the grid again.
+     */
+    @Setup(Level.Invocation)
+    public void mine() {
+        this.grid.initializeCells();
+        this.grid.placeMines(this.excluded, SEED);
+    }
+
+    /**
+     * Reveals the cell at the center of the grid.
+     * @return true if the cell was revealed
+     */
+    @Benchmark
+    public boolean revealCellAt() {
+        return this.grid.revealCellAt(this.center);
+    }
+}
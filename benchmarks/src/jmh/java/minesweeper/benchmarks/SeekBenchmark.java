@@ -0,0 +1,92 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.ChangeObserver;
+import minesweeper.model.Game;
+import minesweeper.model.GameSnapshot;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.replay.RecordedGame;
+import minesweeper.replay.RecordedMove;
+import minesweeper.replay.Replay;
+
+/**
+ * Benchmarks the seeks of a Replay of a game of 5,000 moves on a grid of
+ * 256x256 with 10,000 mines, whose safe cells are revealed and mines flagged
+ * in a random order. Each invocation seeks a random move, backward or
+ * forward, and builds the GameSnapshot of its changes as ReplayApp does: in
+ * full over the 65,536 cells after a keyframe was restored. Added to the
+ * repaint of the cells visible in the viewport, measured by PaintBenchmark
+ * by size of block, the score should stay under the 16 ms of a frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SeekBenchmark {
+
+    // The side length of the grid.
+    private static final int SIDE = 256;
+
+    // The number of mines of the grid.
+    private static final int MINES = 10_000;
+
+    // The number of moves of the game.
+    private static final int MOVES = 5_000;
+
+    // The replay of the game.
+    private Replay replay;
+
+    // Draws the positions to seek.
+    private SplittableRandom random;
+
+    // The snapshot of the Game of the replay, updated by each seek.
+    private GameSnapshot snapshot;
+
+    /**
+     * Records the game, creates its replay and observes its Game.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Game game = new Game(SIDE, SIDE, MINES, 42L);
+        Grid grid = game.grid();
+        List<RecordedMove> moves = new ArrayList<>(MOVES);
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int i = 0; i < MOVES && !game.hasEnded(); i++) {
+            int index = random.nextInt(SIDE * SIDE);
+            Move move = i > 0 && grid.isMinedAt(index)
+                ? new Move(Move.Type.FLAG, grid.positionOf(index))
+                : new Move(Move.Type.REVEAL, grid.positionOf(index));
+            game.play(move);
+            moves.add(new RecordedMove(i * 100_000_000L, move));
+        }
+        this.replay = new Replay(new RecordedGame(SIDE, SIDE, MINES, 42L, 0L,
+                    moves));
+        this.random = new SplittableRandom(11L);
+        this.snapshot = GameSnapshot.of(this.replay.game());
+        this.replay.game().add((ChangeObserver) (g, changes) ->
+                this.snapshot = this.snapshot.next(g, changes));
+    }
+
+    /**
+     * Seeks a random move.
+     * @return the snapshot of the Game after the seek
+     */
+    @Benchmark
+    public GameSnapshot seek() {
+        this.replay.seek(this.random.nextInt(this.replay.length() + 1));
+        return this.snapshot;
+    }
+}
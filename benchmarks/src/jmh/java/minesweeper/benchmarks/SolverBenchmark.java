@@ -0,0 +1,100 @@
+package minesweeper.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.model.Game;
+import minesweeper.model.Grid;
+import minesweeper.model.Move;
+import minesweeper.model.MoveResult;
+import minesweeper.model.RevealOnlyGrid;
+import minesweeper.solver.Solver;
+
+/**
+ * Benchmarks the Solver on square grids: each invocation plays a game by
+ * revealing the cells deduced safe until there is none left, and the solver
+ * analyzes every move. The moves counter reports the number of moves played
+ * and analyzed by second. The game, its first click and the initial analysis
+ * of the grid are out of the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SolverBenchmark {
+
+    // The seed of the placement of mines.
+    private static final long SEED = 11L;
+
+    /**
+     * The side length of the grid.
+     */
+    @Param({"16", "64", "256"})
+    public int size;
+
+    /**
+     * The density of mines of the grid.
+     */
+    @Param({"0.10", "0.15"})
+    public double density;
+
+    // The game to solve.
+    private Game game;
+
+    // The grid of the game.
+    private Grid grid;
+
+    // The solver of the game.
+    private Solver solver;
+
+    /**
+     * Counts the moves analyzed by the solver.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Moves {
+
+        /**
+         * The number of moves analyzed.
+         */
+        public long moves;
+    }
+
+    /**
+     * Creates a game, clicks the center of its grid and analyzes it.
+     */
+    @Setup(Level.Invocation)
+    public void setUp() {
+        int mines = (int) (this.size * this.size * this.density);
+        this.game = new Game(this.size, this.size, mines, SEED);
+        this.game.play(Move.reveal(this.size / 2, this.size / 2));
+        this.grid = this.game.grid();
+        this.solver = new Solver(new RevealOnlyGrid(this.grid));
+    }
+
+    /**
+     * Reveals the cells deduced safe until there is none left.
+     * @param moves the counter of analyzed moves
+     * @return the number of cells deduced mined
+     */
+    @Benchmark
+    public int solve(Moves moves) {
+        int safe;
+        while ((safe = this.solver.nextSafe()) >= 0) {
+            MoveResult result = this.game.play(
+                    new Move(Move.Type.REVEAL, this.grid.positionOf(safe)));
+            this.solver.update(result.changedCells());
+            moves.moves++;
+        }
+        return this.solver.mines();
+    }
+}